@@ -0,0 +1,414 @@
+package cellularAutomaton.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.TrajectoryRecorder;
+import cellularAutomaton.core.binaryCA.BinaryCA;
+import cellularAutomaton.core.binaryCA.GameOfLife;
+import cellularAutomaton.core.binaryCA.RuleTableCA;
+import cellularAutomaton.core.enums.ActiveCA;
+import cellularAutomaton.core.enums.LifeEngine;
+import cellularAutomaton.core.enums.RulePreset;
+import cellularAutomaton.core.latticeGas.LatticeGasCA;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class BatchRunner {
+	
+	// Constants :
+	
+	public static final String USAGE = "Usage : BatchRunner ca=<name> output=<path> [seed=<seed>] [key=value ...]";
+	
+	protected static final List<String> KEYS = Arrays.asList("ca", "output", "threads", "parallelSweep", "seed", "gridDirectory", "resume",
+		"height", "width", "probaInit", "firstIteration", "nbIteration", "nbLaunch", "nbVariation", "checkpoint", "checkpointPeriod", "restore",
+		"record", "keyframePeriod", "deflate", "recordBuffers", "dropFrames", "probaUpdate", "loop", "varyProbaUpdate", "probaUpdate1", "probaUpdate2",
+		"activeTiles", "bulkSampling", "cycleDetection", "engine", "stepExponent", "preset", "rule", "probaInteraction", "probaPropagation",
+		"particlesPreserving", "varyProbaInteraction", "varyProbaPropagation", "probaInteraction1", "probaInteraction2", "probaPropagation1", "probaPropagation2");
+	
+	// Fields :
+	
+	private final Map<String, String> arguments = new HashMap<String, String>();
+	
+	// Constructors :
+	
+	/**
+	 * Build a batch runner from command line arguments, given as key=value.<br />
+	 * An unknown key is rejected, so a misspelled setting never runs with its default value.
+	 * @param args - the command line arguments.
+	 */
+	public BatchRunner(String[] args) {
+		for(String arg : args) {
+			int index = arg.indexOf('=');
+			
+			if(index <= 0) {
+				throw new IllegalArgumentException("Invalid argument : " + arg + ".");
+			}
+			
+			String key = arg.substring(0, index);
+			
+			if(!this.getKeys().contains(key)) {
+				throw new IllegalArgumentException("Unknown argument : " + key + ".");
+			}
+			
+			this.arguments.put(key, arg.substring(index + 1));
+		}
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the keys of the arguments which are accepted.
+	 * @return the known keys.
+	 */
+	protected Collection<String> getKeys() {
+		return KEYS;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Build the CA, run all its variations, launches and iterations without waiting between iterations, then save its statistics.<br />
+	 * The settings and the seeds of the run are saved next to the statistics, in the output file followed by ".meta".<br />
+	 * With checkpoint=path, the state of the run is saved periodically in a checkpoint, and with restore=true,
+	 * a run which died is resumed from its checkpoint if it exists. The other settings must be the same than the ones of the run which died.<br />
+	 * With gridDirectory=path, the generations are stored in memory-mapped files. They can't be resumed with resume=true,
+	 * because the files don't know the launch of their generation and a batch always computes statistics : a run must be resumed from its checkpoint.<br />
+	 * With record=path, all the generations are recorded in a trajectory file. The simulation waits for the recorder when it is late,
+	 * unless dropFrames=true, and the run fails after saving its statistics if generations were not recorded without dropFrames=true.
+	 * @throws IOException if the statistics can't be written.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the CA.
+	 */
+	public void execute() throws IOException, InterruptedException {
+		ActiveCA activeCA = this.getActiveCA();
+		String output = this.getString("output");
+		CellularAutomaton<?> ca = activeCA.newInstance();
+		ca.getMetrics().register();
+		
+		ca.changeWaitBetweenIteration(false);
+		ca.changeNbThreads(this.getInt("threads", ca.getNbThreads()));
+		ca.changeParallelSweep(this.getBoolean("parallelSweep", ca.isParallelSweep()));
+		
+		if(ca.isParallelSweep() && this.arguments.containsKey("record")) {
+			throw new IllegalArgumentException("record can't be used with parallelSweep=true, because the launches of a parallel sweep run on copies of the CA which are not recorded.");
+		}
+		
+		ca.changeSeed(this.getLong("seed", ca.getSeed()));
+		
+		if(this.arguments.containsKey("gridDirectory")) {
+			ca.changeGridDirectory(this.arguments.get("gridDirectory"), this.getBoolean("resume", false));
+		}
+		
+		if(ca instanceof BinaryCA) {
+			this.sendDynamicSettings((BinaryCA) ca);
+		}
+		else if(ca instanceof LatticeGasCA) {
+			this.sendDynamicSettings((LatticeGasCA) ca);
+		}
+		
+		int height = this.getInt("height", ca.getHeight());
+		int width = this.getInt("width", ca.getWidth());
+		double probaInit = this.getDouble("probaInit", ca.getProbaInit());
+		int firstIteration = this.getInt("firstIteration", ca.getFirstIteration());
+		int maxNbIteration = this.getInt("nbIteration", ca.getMaxNbIteration());
+		int maxNbLaunch = this.getInt("nbLaunch", ca.getMaxNbLaunch());
+		int maxNbVariation = this.getInt("nbVariation", ca.getMaxNbVariation());
+		
+		ca.changeInitSettings(height, width, probaInit, true, firstIteration, maxNbIteration, maxNbLaunch, maxNbVariation);
+		
+		if(this.arguments.containsKey("checkpoint")) {
+			String checkpoint = this.arguments.get("checkpoint");
+			ca.changeCheckpoint(checkpoint, this.getInt("checkpointPeriod", ca.getCheckpointPeriod()));
+			
+			if(this.getBoolean("restore", false) && new File(checkpoint).isFile()) {
+				ca.restoreCheckpoint(checkpoint);
+				System.out.println(activeCA + " : resumed from " + checkpoint + " at variation " + ca.getNbVariation() + ", launch " + ca.getNbLaunch() + ", iteration " + ca.getNbIteration() + ".");
+			}
+		}
+		
+		TrajectoryRecorder recorder = null;
+		
+		if(this.arguments.containsKey("record")) {
+			recorder = new TrajectoryRecorder(ca, this.arguments.get("record"), this.getInt("keyframePeriod", 100), this.getBoolean("deflate", false), this.getInt("recordBuffers", 4), this.getBoolean("dropFrames", false));
+		}
+		
+		long start = System.currentTimeMillis();
+		ca.run();
+		ca.waitEnd();
+		
+		if(recorder != null) {
+			recorder.close();
+		}
+		
+		ca.saveStats(output);
+		ca.saveMetadata(output + ".meta");
+		ca.dispose();
+		System.out.println(activeCA + " : " + maxNbVariation + " variation(s) of " + maxNbLaunch + " launch(es) done in " + (System.currentTimeMillis() - start) + " ms, statistics saved in " + output + ".");
+		
+		if(recorder != null && recorder.getNbDroppedFrames() > 0) {
+			String message = recorder.getNbDroppedFrames() + " generation(s) were not recorded in " + this.arguments.get("record") + ".";
+			
+			if(!recorder.isDropLate()) {
+				throw new IOException(message);
+			}
+			
+			System.out.println(activeCA + " : " + message);
+		}
+	}
+	
+	/**
+	 * Change the dynamic settings of a binary CA.
+	 * @param ca - the CA.
+	 */
+	protected void sendDynamicSettings(BinaryCA ca) {
+		double probaUpdate = this.getDouble("probaUpdate", ca.getProbaUpdate());
+		boolean loop = this.getBoolean("loop", ca.isLoop());
+		boolean varyProbaUpdate = this.getBoolean("varyProbaUpdate", ca.isVaryProbaUpdate());
+		double probaUpdate1 = this.getDouble("probaUpdate1", ca.getProbaUpdate1());
+		double probaUpdate2 = this.getDouble("probaUpdate2", ca.getProbaUpdate2());
+		
+		ca.changeDynamicSettings(probaUpdate, loop, varyProbaUpdate, probaUpdate1, probaUpdate2);
+		ca.changeActiveTiles(this.getBoolean("activeTiles", ca.isActiveTiles()));
+		ca.changeBulkSampling(this.getBoolean("bulkSampling", ca.isBulkSampling()));
+		ca.changeCycleDetection(this.getBoolean("cycleDetection", ca.isCycleDetection()));
+		
+		if(ca instanceof GameOfLife) {
+			GameOfLife gameOfLife = (GameOfLife) ca;
+			gameOfLife.changeEngine(this.getEngine(gameOfLife.getEngine()));
+			gameOfLife.changeStepExponent(this.getInt("stepExponent", gameOfLife.getStepExponent()));
+		}
+		
+		if(ca instanceof RuleTableCA) {
+			RuleTableCA ruleTableCA = (RuleTableCA) ca;
+			
+			if(this.arguments.containsKey("preset")) {
+				ruleTableCA.changeRulePreset(this.getRulePreset());
+			}
+			
+			if(this.arguments.containsKey("rule")) {
+				ruleTableCA.changeRule(this.arguments.get("rule"));
+			}
+		}
+	}
+	
+	/**
+	 * Change the dynamic settings of a lattice gas CA.
+	 * @param ca - the CA.
+	 */
+	protected void sendDynamicSettings(LatticeGasCA ca) {
+		double probaInteraction = this.getDouble("probaInteraction", ca.getProbaInteraction());
+		double probaPropagation = this.getDouble("probaPropagation", ca.getProbaPropagation());
+		boolean particlesPreserving = this.getBoolean("particlesPreserving", ca.isParticlesPreserving());
+		boolean varyProbaInteraction = this.getBoolean("varyProbaInteraction", ca.isVaryProbaInteraction());
+		boolean varyProbaPropagation = this.getBoolean("varyProbaPropagation", ca.isVaryProbaPropagation());
+		double probaInteraction1 = this.getDouble("probaInteraction1", ca.getProbaInteraction1());
+		double probaInteraction2 = this.getDouble("probaInteraction2", ca.getProbaInteraction2());
+		double probaPropagation1 = this.getDouble("probaPropagation1", ca.getProbaPropagation1());
+		double probaPropagation2 = this.getDouble("probaPropagation2", ca.getProbaPropagation2());
+		
+		ca.changeDynamicSettings(probaInteraction, probaPropagation, particlesPreserving, varyProbaInteraction, varyProbaPropagation, probaInteraction1, probaInteraction2, probaPropagation1, probaPropagation2);
+	}
+	
+	/**
+	 * Return the type of the CA, given by the argument ca.
+	 * @return the type of the CA.
+	 */
+	protected ActiveCA getActiveCA() {
+		String name = this.getString("ca");
+		
+		try {
+			return ActiveCA.valueOf(name);
+		}
+		catch(IllegalArgumentException argh) {
+			StringBuilder names = new StringBuilder();
+			
+			for(ActiveCA activeCA : ActiveCA.values()) {
+				names.append(" ").append(activeCA.name());
+			}
+			
+			throw new IllegalArgumentException("Unknown cellular automaton : " + name + ". Valid names :" + names + ".");
+		}
+	}
+	
+	/**
+	 * Return the engine of the game of life, given by the argument engine.
+	 * @param defaultValue - the engine used if the argument is missing.
+	 * @return the engine.
+	 */
+	protected LifeEngine getEngine(LifeEngine defaultValue) {
+		String name = this.arguments.get("engine");
+		
+		if(name == null) {
+			return defaultValue;
+		}
+		
+		try {
+			return LifeEngine.valueOf(name);
+		}
+		catch(IllegalArgumentException argh) {
+			throw new IllegalArgumentException("Unknown engine : " + name + ".");
+		}
+	}
+	
+	/**
+	 * Return the predefined rule, given by the argument preset.
+	 * @return the predefined rule.
+	 */
+	protected RulePreset getRulePreset() {
+		String name = this.arguments.get("preset");
+		
+		try {
+			return RulePreset.valueOf(name);
+		}
+		catch(IllegalArgumentException argh) {
+			throw new IllegalArgumentException("Unknown rule preset : " + name + ".");
+		}
+	}
+	
+	/**
+	 * Return the value of a mandatory argument.
+	 * @param key - the key of the argument.
+	 * @return the value of the argument.
+	 */
+	protected String getString(String key) {
+		String value = this.arguments.get(key);
+		
+		if(value == null) {
+			throw new IllegalArgumentException("Missing argument : " + key + ".");
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Return the value of an argument.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the value used if the argument is missing.
+	 * @return the value of the argument.
+	 */
+	protected String getString(String key, String defaultValue) {
+		return this.arguments.containsKey(key) ? this.arguments.get(key) : defaultValue;
+	}
+	
+	/**
+	 * Return the value of an argument given as an integer.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the value used if the argument is missing.
+	 * @return the value of the argument.
+	 */
+	protected int getInt(String key, int defaultValue) {
+		try {
+			return this.arguments.containsKey(key) ? Integer.parseInt(this.arguments.get(key)) : defaultValue;
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(key + " must be an integer.");
+		}
+	}
+	
+	/**
+	 * Return the value of an argument given as a long integer.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the value used if the argument is missing.
+	 * @return the value of the argument.
+	 */
+	protected long getLong(String key, long defaultValue) {
+		try {
+			return this.arguments.containsKey(key) ? Long.parseLong(this.arguments.get(key)) : defaultValue;
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(key + " must be an integer.");
+		}
+	}
+	
+	/**
+	 * Return the value of an argument given as a real number.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the value used if the argument is missing.
+	 * @return the value of the argument.
+	 */
+	protected double getDouble(String key, double defaultValue) {
+		try {
+			return this.arguments.containsKey(key) ? Double.parseDouble(this.arguments.get(key)) : defaultValue;
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(key + " must be a real number.");
+		}
+	}
+	
+	/**
+	 * Return the value of an argument given as true or false.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the value used if the argument is missing.
+	 * @return the value of the argument.
+	 */
+	protected boolean getBoolean(String key, boolean defaultValue) {
+		String value = this.arguments.get(key);
+		
+		if(value == null) {
+			return defaultValue;
+		}
+		
+		if(value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+			return Boolean.parseBoolean(value);
+		}
+		
+		throw new IllegalArgumentException(key + " must be true or false.");
+	}
+	
+	/**
+	 * Run a cellular automaton without graphical interface.
+	 * @param args - the settings, given as key=value.
+	 */
+	public static void main(String[] args) {
+		try {
+			new BatchRunner(args).execute();
+		}
+		catch(IllegalArgumentException argh) {
+			System.err.println(argh.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		catch(IOException argh) {
+			argh.printStackTrace();
+			System.exit(1);
+		}
+		catch(InterruptedException argh) {
+			argh.printStackTrace();
+			System.exit(1);
+		}
+	}
+	
+}
@@ -0,0 +1,379 @@
+package cellularAutomaton.batch;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.enums.ActiveCA;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class Benchmark extends BatchRunner {
+	
+	// Constants :
+	
+	public static final String USAGE = "Usage : Benchmark [ca=<name,...>] [sizes=<size,...>] [densities=<proba,...>] [kernels=<name,...>] [warmup=<n>] [iterations=<n>] [time=<ms>] [forks=<n>] [gc=<true|false>] [output=<path>] [key=value ...]";
+	
+	private static final String HEADER = "CA;Size;Density;Kernel;ns/op;Error (%);Mcells/s;Bytes/op;MB/s";
+	private static final String FORMAT = "%-16s %6s %8s %-15s %14.0f %9.1f %10.2f %12.0f %9.1f%n";
+	
+	private static final String ALLOCATION_RATE = "gc.alloc.rate";
+	private static final String ALLOCATION_PER_OP = "gc.alloc.rate.norm";
+	private static final List<String> BENCHMARK_KEYS = Arrays.asList("ca", "sizes", "densities", "kernels", "warmup", "iterations", "time", "forks", "gc", "output");
+	
+	// Fields :
+	
+	private final String settings;
+	
+	// Constructors :
+	
+	/**
+	 * Build a benchmark from command line arguments, given as key=value.
+	 * @param args - the command line arguments.
+	 */
+	public Benchmark(String[] args) {
+		super(args);
+		
+		StringBuilder settings = new StringBuilder();
+		
+		for(String arg : args) {
+			if(!BENCHMARK_KEYS.contains(arg.substring(0, arg.indexOf('=')))) {
+				settings.append(arg).append(' ');
+			}
+		}
+		
+		this.settings = settings.toString().trim();
+	}
+	
+	// Getters :
+	
+	/**
+	 * The keys of the benchmark are accepted, and the ones of the batch runner, which are passed to each CA.
+	 */
+	@Override
+	protected Collection<String> getKeys() {
+		List<String> keys = new ArrayList<String>(BENCHMARK_KEYS);
+		keys.addAll(BatchRunner.KEYS);
+		return keys;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Measure every kernel of every CA, for every grid size and initial density, with JMH.<br />
+	 * Each measure runs in forked JVMs, with some warmup iterations then some measured iterations of a fixed time.
+	 * The grid is built again before each iteration, outside of the measure, and the allocations are measured by the GC profiler.
+	 * @throws IOException if JMH can't run the benchmarks, or if the results can't be written.
+	 */
+	@Override
+	public void execute() throws IOException {
+		List<ActiveCA> activeCAs = this.getActiveCAs();
+		List<Kernel> kernels = this.getKernels();
+		String[] sizes = toStrings(this.getInts("sizes", "64,256,500"));
+		String[] densities = toStrings(this.getDoubles("densities", "0.1,0.5"));
+		String output = this.getString("output", null);
+		List<RunResult> results = new ArrayList<RunResult>();
+		
+		for(ActiveCA activeCA : activeCAs) {
+			String[] availableKernels = this.getAvailableKernels(activeCA, kernels);
+			
+			if(availableKernels.length == 0) {
+				continue;
+			}
+			
+			ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(Pattern.quote(KernelBenchmark.class.getName()) + ".run$")
+				.param("ca", activeCA.name())
+				.param("kernel", availableKernels)
+				.param("size", sizes)
+				.param("density", densities)
+				.param("settings", this.settings)
+				.warmupIterations(this.getInt("warmup", 3))
+				.measurementIterations(this.getInt("iterations", 5))
+				.warmupTime(TimeValue.milliseconds(this.getInt("time", 1000)))
+				.measurementTime(TimeValue.milliseconds(this.getInt("time", 1000)))
+				.forks(this.getInt("forks", 1));
+			
+			if(this.getBoolean("gc", true)) {
+				options.addProfiler(GCProfiler.class);
+			}
+			
+			try {
+				results.addAll(new Runner(options.build()).run());
+			}
+			catch(RunnerException argh) {
+				throw new IOException("The benchmarks of " + activeCA + " can't be run.", argh);
+			}
+		}
+		
+		this.printResults(results, output);
+	}
+	
+	/**
+	 * Print a summary of the results, and write them in a CSV file.
+	 * @param results - the results of JMH.
+	 * @param output - the path of the CSV file, or null.
+	 * @throws IOException if the results can't be written.
+	 */
+	protected void printResults(Collection<RunResult> results, String output) throws IOException {
+		PrintWriter writer = (output != null) ? new PrintWriter(new FileWriter(output)) : null;
+		
+		try {
+			if(writer != null) {
+				writer.println(HEADER);
+			}
+			
+			System.out.printf("%n%-16s %6s %8s %-15s %14s %9s %10s %12s %9s%n", (Object[]) HEADER.split(";"));
+			
+			for(RunResult result : results) {
+				String ca = result.getParams().getParam("ca");
+				String kernel = result.getParams().getParam("kernel");
+				String size = result.getParams().getParam("size");
+				String density = result.getParams().getParam("density");
+				
+				Result<?> time = result.getPrimaryResult();
+				double nanosPerCall = time.getScore();
+				double error = 100.0 * time.getScoreError() / nanosPerCall;
+				double cellsPerSecond = Double.parseDouble(size) * Double.parseDouble(size) / nanosPerCall * 1000.0;
+				double bytesPerCall = getSecondaryScore(result, ALLOCATION_PER_OP);
+				double bytesPerSecond = getSecondaryScore(result, ALLOCATION_RATE);
+				
+				System.out.printf(FORMAT, ca, size, density, kernel, nanosPerCall, error, cellsPerSecond, bytesPerCall, bytesPerSecond);
+				
+				if(writer != null) {
+					writer.println(ca + ";" + size + ";" + density + ";" + kernel + ";" + nanosPerCall + ";" + error + ";" + cellsPerSecond + ";" + bytesPerCall + ";" + bytesPerSecond);
+				}
+			}
+		}
+		finally {
+			if(writer != null) {
+				writer.close();
+			}
+		}
+		
+		if(output != null) {
+			System.out.println("Results saved in " + output + ".");
+		}
+	}
+	
+	/**
+	 * Return the names of the kernels that a CA has, among the requested ones.
+	 * @param activeCA - the type of the CA.
+	 * @param kernels - the requested kernels.
+	 * @return the names of the kernels of the CA.
+	 */
+	protected String[] getAvailableKernels(ActiveCA activeCA, List<Kernel> kernels) {
+		CellularAutomaton<?> ca = activeCA.newInstance();
+		List<String> names = new ArrayList<String>();
+		
+		for(Kernel kernel : kernels) {
+			if(kernel.isAvailable(ca)) {
+				names.add(kernel.name());
+			}
+		}
+		
+		ca.dispose();
+		return names.toArray(new String[names.size()]);
+	}
+	
+	/**
+	 * Return the CA to measure, given by the argument ca as a list of names separated by commas.
+	 * @return the requested CA, or all the CA if there is no argument ca.
+	 */
+	protected List<ActiveCA> getActiveCAs() {
+		List<ActiveCA> activeCAs = new ArrayList<ActiveCA>();
+		String names = this.getString("ca", null);
+		
+		if(names == null) {
+			for(ActiveCA activeCA : ActiveCA.values()) {
+				activeCAs.add(activeCA);
+			}
+		}
+		else {
+			for(String name : names.split(",")) {
+				try {
+					activeCAs.add(ActiveCA.valueOf(name.trim()));
+				}
+				catch(IllegalArgumentException argh) {
+					throw new IllegalArgumentException("Unknown cellular automaton : " + name + ".");
+				}
+			}
+		}
+		
+		return activeCAs;
+	}
+	
+	/**
+	 * Return the kernels to measure, given by the argument kernels as a list of names separated by commas.
+	 * @return the requested kernels, or all the kernels if there is no argument kernels.
+	 */
+	protected List<Kernel> getKernels() {
+		List<Kernel> kernels = new ArrayList<Kernel>();
+		String names = this.getString("kernels", null);
+		
+		if(names == null) {
+			for(Kernel kernel : Kernel.values()) {
+				kernels.add(kernel);
+			}
+		}
+		else {
+			for(String name : names.split(",")) {
+				try {
+					kernels.add(Kernel.valueOf(name.trim()));
+				}
+				catch(IllegalArgumentException argh) {
+					throw new IllegalArgumentException("Unknown kernel : " + name + ".");
+				}
+			}
+		}
+		
+		return kernels;
+	}
+	
+	/**
+	 * Return the value of an argument given as a list of integers separated by commas.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the list used if the argument is missing.
+	 * @return the integers.
+	 */
+	protected int[] getInts(String key, String defaultValue) {
+		String[] values = this.getString(key, defaultValue).split(",");
+		int[] ints = new int[values.length];
+		
+		try {
+			for(int i = 0; i < values.length; i++) {
+				ints[i] = Integer.parseInt(values[i].trim());
+			}
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(key + " must be a list of integers.");
+		}
+		
+		return ints;
+	}
+	
+	/**
+	 * Return the value of an argument given as a list of real numbers separated by commas.
+	 * @param key - the key of the argument.
+	 * @param defaultValue - the list used if the argument is missing.
+	 * @return the real numbers.
+	 */
+	protected double[] getDoubles(String key, String defaultValue) {
+		String[] values = this.getString(key, defaultValue).split(",");
+		double[] doubles = new double[values.length];
+		
+		try {
+			for(int i = 0; i < values.length; i++) {
+				doubles[i] = Double.parseDouble(values[i].trim());
+			}
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(key + " must be a list of real numbers.");
+		}
+		
+		return doubles;
+	}
+	
+	/**
+	 * Return the score of a secondary result, like the ones of the GC profiler.
+	 * @param result - the result of JMH.
+	 * @param label - the label of the secondary result.
+	 * @return the score, or 0 if the secondary result wasn't measured.
+	 */
+	protected static double getSecondaryScore(RunResult result, String label) {
+		Result<?> secondary = result.getSecondaryResults().get(label);
+		return (secondary != null) ? secondary.getScore() : 0.0;
+	}
+	
+	/**
+	 * Write numbers as JMH parameters.
+	 * @param values - the numbers.
+	 * @return the numbers, as text.
+	 */
+	protected static String[] toStrings(int[] values) {
+		String[] strings = new String[values.length];
+		
+		for(int i = 0; i < values.length; i++) {
+			strings[i] = String.valueOf(values[i]);
+		}
+		
+		return strings;
+	}
+	
+	/**
+	 * Write numbers as JMH parameters.
+	 * @param values - the numbers.
+	 * @return the numbers, as text.
+	 */
+	protected static String[] toStrings(double[] values) {
+		String[] strings = new String[values.length];
+		
+		for(int i = 0; i < values.length; i++) {
+			strings[i] = String.valueOf(values[i]);
+		}
+		
+		return strings;
+	}
+	
+	/**
+	 * Measure the kernels of the cellular automata without graphical interface.
+	 * @param args - the settings, given as key=value.
+	 */
+	public static void main(String[] args) {
+		try {
+			new Benchmark(args).execute();
+		}
+		catch(IllegalArgumentException argh) {
+			System.err.println(argh.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		catch(IOException argh) {
+			argh.printStackTrace();
+			System.exit(1);
+		}
+	}
+	
+}
@@ -0,0 +1,100 @@
+package cellularAutomaton.batch;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.KernelHook;
+import cellularAutomaton.core.latticeGas.LatticeGasCA;
+import cellularAutomaton.core.latticeGas.LatticeGasKernelHook;
+import ec.util.MersenneTwisterFast;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public enum Kernel {
+	
+	// Constants :
+	
+	TRANSITIONS("Transitions"),
+	INTERACTION("Interaction"),
+	NB_PARTICLES("Nb particles"),
+	MEAN_VELOCITY("Mean velocity"),
+	MEAN_ALIGNMENT("Mean alignment");
+	
+	// Fields :
+	
+	private String toString;
+	
+	// Constructors :
+	
+	private Kernel(String toString) {
+		this.toString = toString;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Indicate if this kernel can be measured on a CA.
+	 * @param ca - the CA.
+	 * @return true if the CA has this kernel, else false.
+	 */
+	public boolean isAvailable(CellularAutomaton<?> ca) {
+		return this == TRANSITIONS || ca instanceof LatticeGasCA;
+	}
+	
+	/**
+	 * Run this kernel once on a CA.<br />
+	 * The transitions are measured alone, without the listeners, the observers and the measures of an update of the grid.
+	 * @param ca - the CA, which must have this kernel.
+	 * @param rand - the random generator used by the kernels which need one.
+	 * @return the value computed by the kernel, or 0 if it doesn't compute any value.
+	 */
+	public double run(CellularAutomaton<?> ca, MersenneTwisterFast rand) {
+		switch(this) {
+			case TRANSITIONS:
+				KernelHook.doCellsTransitions(ca);
+				return 0.0;
+			case INTERACTION:
+				LatticeGasKernelHook.doInteractions((LatticeGasCA) ca, rand);
+				return 0.0;
+			case NB_PARTICLES:
+				return LatticeGasKernelHook.calculateNbParticles((LatticeGasCA) ca);
+			case MEAN_VELOCITY:
+				return LatticeGasKernelHook.meanVelocity((LatticeGasCA) ca);
+			case MEAN_ALIGNMENT:
+				return LatticeGasKernelHook.meanAlignment((LatticeGasCA) ca);
+			default:
+				throw new IllegalArgumentException("Unknown kernel : " + this + ".");
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return this.toString;
+	}
+	
+}
@@ -0,0 +1,129 @@
+package cellularAutomaton.batch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.binaryCA.BinaryCA;
+import cellularAutomaton.core.enums.ActiveCA;
+import cellularAutomaton.core.latticeGas.LatticeGasCA;
+import ec.util.MersenneTwisterFast;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KernelBenchmark {
+	
+	// Fields :
+	
+	@Param({"GAME_OF_LIFE"})
+	private String ca;
+	
+	@Param({"TRANSITIONS"})
+	private String kernel;
+	
+	@Param({"64", "256", "500"})
+	private int size;
+	
+	@Param({"0.1", "0.5"})
+	private double density;
+	
+	/** The other settings of the CA, given as key=value and separated by spaces, like for the batch runner. */
+	@Param({""})
+	private String settings;
+	
+	private CellularAutomaton<?> automaton;
+	private Kernel measuredKernel;
+	private MersenneTwisterFast rand;
+	
+	// Methods :
+	
+	/**
+	 * Build the CA and draw its grid again before each iteration, outside of the measure,
+	 * so every iteration starts from the requested initial density instead of the state left by the previous one.
+	 */
+	@Setup(Level.Iteration)
+	public void buildGrid() {
+		String settings = this.settings.trim();
+		BatchRunner runner = new BatchRunner(settings.isEmpty() ? new String[0] : settings.split("\\s+"));
+		
+		this.measuredKernel = Kernel.valueOf(this.kernel);
+		this.automaton = ActiveCA.valueOf(this.ca).newInstance();
+		
+		if(!this.measuredKernel.isAvailable(this.automaton)) {
+			this.automaton.dispose();
+			throw new IllegalArgumentException(this.ca + " has no kernel " + this.kernel + ".");
+		}
+		
+		this.automaton.changeWaitBetweenIteration(false);
+		this.automaton.changeNbThreads(runner.getInt("threads", this.automaton.getNbThreads()));
+		this.automaton.changeSeed(runner.getLong("seed", this.automaton.getSeed()));
+		
+		if(this.automaton instanceof BinaryCA) {
+			runner.sendDynamicSettings((BinaryCA) this.automaton);
+		}
+		else if(this.automaton instanceof LatticeGasCA) {
+			runner.sendDynamicSettings((LatticeGasCA) this.automaton);
+		}
+		
+		this.automaton.changeInitSettings(this.size, this.size, this.density, false, this.automaton.getFirstIteration(), this.automaton.getMaxNbIteration(), this.automaton.getMaxNbLaunch(), this.automaton.getMaxNbVariation());
+		this.rand = new MersenneTwisterFast(runner.getLong("seed", 0));
+	}
+	
+	/**
+	 * Release the CA built for the iteration.
+	 */
+	@TearDown(Level.Iteration)
+	public void dispose() {
+		this.automaton.dispose();
+	}
+	
+	/**
+	 * Run the kernel once. The value it computes is returned, so JMH consumes it.
+	 * @return the value computed by the kernel, or 0 if it doesn't compute any value.
+	 */
+	@Benchmark
+	public double run() {
+		return this.measuredKernel.run(this.automaton, this.rand);
+	}
+	
+}
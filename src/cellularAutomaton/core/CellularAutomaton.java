@@ -1,6 +1,20 @@
 package cellularAutomaton.core;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Observable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import ec.util.MersenneTwisterFast;
 
@@ -33,7 +47,7 @@ import ec.util.MersenneTwisterFast;
  * 
  * @author William Philbert, Kevin Grandemange.
  */
-public abstract class CellularAutomaton<T extends Object> extends Observable {
+public abstract class CellularAutomaton<G extends GenerationBuffer> extends Observable {
 	
 	// Constants :
 	
@@ -49,8 +63,19 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	private static final int MIN_NB_ITERATION = 1;
 	private static final int MIN_NB_LAUNCH = 1;
 	private static final int MIN_NB_VARIATION = 1;
+	private static final int MIN_NB_THREADS = 1;
+	private static final int MAX_NB_THREADS = 64;
+	private static final int MIN_CHECKPOINT_PERIOD = 1;
+	private static final long CHECKPOINT_MAGIC = 0x4341434B50543031L;
+	private static final int CHECKPOINT_VERSION = 2;
+	private static final long UPDATE_SLICE = 20000000L;
+	
+	static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
 	
 	public static final String UPDATE_PERIOD = "Update period";
+	public static final String MAX_SPEED = "Max speed";
+	public static final String NB_THREADS = "Nb threads";
+	public static final String PARALLEL_SWEEP = "Parallel launches";
 	public static final String GRID_HEIGHT = "Grid height";
 	public static final String GRID_WIDTH = "Grid width";
 	public static final String PROBA_INIT = "Init proba";
@@ -59,6 +84,9 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	public static final String NB_ITERATION = "Nb iterations";
 	public static final String NB_LAUNCH = "Nb launches";
 	public static final String NB_VARIATION = "Nb variations";
+	public static final String SEED = "Seed";
+	public static final String CHECKPOINT_PERIOD = "Checkpoint period";
+	public static final String GRID_DIRECTORY = "Grid directory";
 	
 	// Fields :
 	
@@ -66,33 +94,55 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	private int width;
 	private double probaInit;
 	
-	private T[][] tab;
-	private T[][] oldTab;
+	private G tab;
+	private G oldTab;
+	private G nextTab;
 	
 	private boolean[][] pattern;
 	private int patternXPos;
 	private int patternYPos;
 	private int nbOfOneInPattern;
+	private int[] patternOffsetsY;
+	private int[] patternOffsetsX;
+	private int patternRadiusY;
+	private int patternRadiusX;
 	
 	private boolean running;
 	private boolean computeStats;
+	private boolean parallelSweep;
 	private boolean waitBetweenIteration;
 	private int updatePeriod;
+	private boolean maxSpeed;
+	private int nbThreads;
 	
-	private Thread updateThread;
-	protected final Object lock = new Object();
+	private UpdateTask updateTask;
+	private SweepScheduler sweep;
+	private final UpdateClock clock = new UpdateClock();
+	private final List<GenerationListener> generationListeners = new CopyOnWriteArrayList<GenerationListener>();
+	private final CycleDetector cycleDetector = new CycleDetector();
+	private CellularAutomatonMetrics metrics = new CellularAutomatonMetrics(this);
 	
 	private int firstIteration;
 	private int maxNbIteration;
 	private int maxNbLaunch;
 	private int maxNbVariation;
 	
-	private int nbIteration;
+	private long nbIteration;
 	private int nbLaunch;
 	private int nbVariation;
 	
+	private long seed;
 	protected MersenneTwisterFast rand = new MersenneTwisterFast();
 	
+	private String checkpointPath = null;
+	private int checkpointPeriod;
+	private long lastCheckpoint;
+	private String gridDirectory = null;
+	private boolean resumeGrid = false;
+	private boolean variationStarted = false;
+	private boolean launchStarted = false;
+	private boolean worker = false;
+	
 	// Constructors :
 	
 	/**
@@ -134,18 +184,26 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 * Return the grid containing the state of each cell.
 	 * @return the grid.
 	 */
-	public T[][] getTab() {
+	public G getTab() {
 		return this.tab;
 	}
 	
 	/**
-	 * Return the previous state of the grid.
+	 * Return the previous state of the grid. It is not modified while the next generation is computed.
 	 * @return the old grid.
 	 */
-	public T[][] getOldTab() {
+	public G getOldTab() {
 		return this.oldTab;
 	}
 	
+	/**
+	 * Return the back buffer, where the next generation is written during transitions.
+	 * @return the next grid.
+	 */
+	protected G getNextTab() {
+		return this.nextTab;
+	}
+	
 	/**
 	 * Return the pattern indicating which surounding cells are checked during transitions.
 	 * @return the pattern.
@@ -178,6 +236,38 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		return this.nbOfOneInPattern;
 	}
 	
+	/**
+	 * Return the vertical offsets of the cells checked during transitions, compiled from the pattern.
+	 * @return the vertical offsets, one for each checked cell.
+	 */
+	protected int[] getPatternOffsetsY() {
+		return this.patternOffsetsY;
+	}
+	
+	/**
+	 * Return the horizontal offsets of the cells checked during transitions, compiled from the pattern.
+	 * @return the horizontal offsets, one for each checked cell.
+	 */
+	protected int[] getPatternOffsetsX() {
+		return this.patternOffsetsX;
+	}
+	
+	/**
+	 * Return the greatest vertical distance between the cell and a checked cell.
+	 * @return the vertical radius of the pattern.
+	 */
+	protected int getPatternRadiusY() {
+		return this.patternRadiusY;
+	}
+	
+	/**
+	 * Return the greatest horizontal distance between the cell and a checked cell.
+	 * @return the horizontal radius of the pattern.
+	 */
+	protected int getPatternRadiusX() {
+		return this.patternRadiusX;
+	}
+	
 	/**
 	 * Indicate if the CA is running.
 	 * @return true if the CA is running, else false.
@@ -194,6 +284,22 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		return this.computeStats;
 	}
 	
+	/**
+	 * Indicate if the launches of the statistics loop are run in parallel, by a sweep scheduler.
+	 * @return true if the launches are run in parallel, else false.
+	 */
+	public boolean isParallelSweep() {
+		return this.parallelSweep;
+	}
+	
+	/**
+	 * Indicate if this CA runs one launch of the parallel sweep of another CA.
+	 * @return true if this CA is a worker of a parallel sweep, else false.
+	 */
+	protected boolean isWorker() {
+		return this.worker;
+	}
+	
 	/**
 	 * Indicate if the CA waits between iterations (for the grid to be drawn in the gui).
 	 * @return true if the CA waits between iterations, else false.
@@ -211,10 +317,43 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	}
 	
 	/**
-	 * Return the number of times that this CA has been updated for the actual launch.
-	 * @return the number of times that this CA has been updated for the actual launch.
+	 * Indicate if the CA runs as fast as possible, without waiting for the update period, even when the grid is displayed.
+	 * @return true if the CA runs at max speed, else false.
+	 */
+	public boolean isMaxSpeed() {
+		return this.maxSpeed;
+	}
+	
+	/**
+	 * Return the number of generations computed per second by the update task, while the CA is running.
+	 * @return the actual number of generations per second.
+	 */
+	public double getGenerationsPerSecond() {
+		return this.clock.getGenerationsPerSecond();
+	}
+	
+	/**
+	 * Return the measures of the speed of this CA.<br />
+	 * They are registered as an MBean by the entry point which owns the CA, so the workers of a parallel sweep and the benchmarks never touch the MBean server.
+	 * @return the measures.
+	 */
+	public CellularAutomatonMetrics getMetrics() {
+		return this.metrics;
+	}
+	
+	/**
+	 * Return the number of row bands which are updated in parallel during transitions.
+	 * @return the number of threads used by the transitions.
+	 */
+	public int getNbThreads() {
+		return this.nbThreads;
+	}
+	
+	/**
+	 * Return the number of generations computed by this CA for the actual launch.
+	 * @return the number of generations computed by this CA for the actual launch.
 	 */
-	public int getNbIteration() {
+	public long getNbIteration() {
 		return this.nbIteration;
 	}
 	
@@ -266,6 +405,60 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		return this.maxNbVariation;
 	}
 	
+	/**
+	 * Return the master seed of the CA: the grid of a run is built from this seed, and the seed of each launch of the statistics loop is derived from it.
+	 * @return the master seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Return the seed of a launch of the statistics loop, derived from the master seed.<br />
+	 * The seed only depends on the master seed, the variation and the launch, so a launch can be replayed alone, and the parallel sweep gives the same results as the statistics loop.
+	 * @param variation - the index of the variation.
+	 * @param launch - the index of the launch in the variation.
+	 * @return the seed of the launch.
+	 */
+	public long getLaunchSeed(int variation, int launch) {
+		long z = this.seed + 0x9E3779B97F4A7C15L * ((((long) variation) << 32) + launch + 1);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * Return the path of the file where the checkpoints are written periodically.
+	 * @return the path of the checkpoint, or null if no checkpoint is written.
+	 */
+	public String getCheckpointPath() {
+		return this.checkpointPath;
+	}
+	
+	/**
+	 * Return the minimal time between two checkpoints.
+	 * @return the checkpoint period, in seconds.
+	 */
+	public int getCheckpointPeriod() {
+		return this.checkpointPeriod;
+	}
+	
+	/**
+	 * Return the directory where the generations are stored in memory-mapped files.
+	 * @return the path of the directory, or null if the generations are stored in the heap.
+	 */
+	public String getGridDirectory() {
+		return this.gridDirectory;
+	}
+	
+	/**
+	 * Indicate if the next grid must be resumed from the generation found in the memory-mapped files.
+	 * @return true if the next grid is resumed, else false.
+	 */
+	public boolean isResumeGrid() {
+		return this.resumeGrid;
+	}
+	
 	// Setters :
 	
 	/**
@@ -299,7 +492,7 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 * Change the grid.
 	 * @param tab - the new grid.
 	 */
-	protected void setTab(T[][] tab) {
+	protected void setTab(G tab) {
 		this.tab = tab;
 		this.setChanged();
 	}
@@ -308,11 +501,20 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 * Change the old grid.
 	 * @param oldTab - the new old grid. XD
 	 */
-	protected void setOldTab(T[][] oldTab) {
+	protected void setOldTab(G oldTab) {
 		this.oldTab = oldTab;
 		this.setChanged();
 	}
 	
+	/**
+	 * Change the back buffer.
+	 * @param nextTab - the new next grid.
+	 */
+	protected void setNextTab(G nextTab) {
+		this.nextTab = nextTab;
+		this.setChanged();
+	}
+	
 	/**
 	 * Change the pattern indicating which surounding cells are checked during transitions.
 	 * @param pattern - the new pattern.
@@ -362,10 +564,8 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	protected void setRunning(boolean running) {
 		this.running = running;
 		this.setChanged();
-		if(running) {
-			synchronized(this.lock) {
-				this.lock.notifyAll();
-			}
+		if(running && this.updateTask != null) {
+			this.updateTask.wake();
 		}
 	}
 	
@@ -378,6 +578,15 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.setChanged();
 	}
 	
+	/**
+	 * Choose if the launches of the statistics loop are run in parallel, by a sweep scheduler.
+	 * @param parallelSweep - true if the launches are run in parallel, else false.
+	 */
+	protected void setParallelSweep(boolean parallelSweep) {
+		this.parallelSweep = parallelSweep;
+		this.setChanged();
+	}
+	
 	/**
 	 * Choose if the CA must wait between iterations (for the grid to be drawn on the gui).
 	 * @param waitBetweenIteration - true if the CA must wait between interations, else flase.
@@ -397,10 +606,28 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	}
 	
 	/**
-	 * Sets the number of times that this grid has been updated for the actual launch.
-	 * @param nbIteration - the number of times that this grid has been updated for the actual launch.
+	 * Choose if the CA runs as fast as possible.
+	 * @param maxSpeed - true if the CA must run as fast as possible, else false.
+	 */
+	protected void setMaxSpeed(boolean maxSpeed) {
+		this.maxSpeed = maxSpeed;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the number of row bands which are updated in parallel during transitions.
+	 * @param nbThreads - the number of threads used by the transitions.
+	 */
+	protected void setNbThreads(int nbThreads) {
+		this.nbThreads = nbThreads;
+		this.setChanged();
+	}
+	
+	/**
+	 * Sets the number of generations computed by this CA for the actual launch.
+	 * @param nbIteration - the number of generations computed by this CA for the actual launch.
 	 */
-	protected void setNbIteration(int nbIteration) {
+	protected void setNbIteration(long nbIteration) {
 		this.nbIteration = nbIteration;
 		this.setChanged();
 	}
@@ -459,6 +686,51 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.setChanged();
 	}
 	
+	/**
+	 * Change the master seed of the CA.
+	 * @param seed - the new master seed.
+	 */
+	protected void setSeed(long seed) {
+		this.seed = seed;
+		this.setChanged();
+	}
+	
+	/**
+	 * Set the path of the file where the checkpoints are written periodically.
+	 * @param checkpointPath - the path of the checkpoint, or null if no checkpoint has to be written.
+	 */
+	protected void setCheckpointPath(String checkpointPath) {
+		this.checkpointPath = checkpointPath;
+		this.setChanged();
+	}
+	
+	/**
+	 * Set the minimal time between two checkpoints.
+	 * @param checkpointPeriod - the checkpoint period, in seconds.
+	 */
+	protected void setCheckpointPeriod(int checkpointPeriod) {
+		this.checkpointPeriod = checkpointPeriod;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the directory where the generations are stored in memory-mapped files.
+	 * @param gridDirectory - the path of the directory, or null if the generations are stored in the heap.
+	 */
+	protected void setGridDirectory(String gridDirectory) {
+		this.gridDirectory = gridDirectory;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the fact that the next grid must be resumed from the generation found in the memory-mapped files.
+	 * @param resumeGrid - true if the next grid is resumed, else false.
+	 */
+	protected void setResumeGrid(boolean resumeGrid) {
+		this.resumeGrid = resumeGrid;
+		this.setChanged();
+	}
+	
 	// Methods :
 	
 	/**
@@ -493,6 +765,30 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		return 100;
 	}
 	
+	/**
+	 * Return the default number of threads used by the transitions.
+	 * @return the default number of threads.
+	 */
+	protected int getDefaultNbThreads() {
+		return MIN_NB_THREADS;
+	}
+	
+	/**
+	 * Return the default time between two checkpoints.
+	 * @return the default checkpoint period, in seconds.
+	 */
+	protected int getDefaultCheckpointPeriod() {
+		return 60;
+	}
+	
+	/**
+	 * Return the maximal height and width of the grid supported by the storage of the cells.
+	 * @return the maximal size of the grid.
+	 */
+	protected int getMaxGridSize() {
+		return MAX_GRID_SIZE;
+	}
+	
 	/**
 	 * Return the default pattern.
 	 * @return the default pattern.
@@ -579,12 +875,24 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.initThread();
 	}
 	
+	/**
+	 * Seed the random generator of the CA, with all the bits of the seed.
+	 * @param seed - the seed.
+	 */
+	protected void seedRandom(long seed) {
+		this.rand.setSeed(new int[] {(int) (seed >>> 32), (int) seed});
+	}
+	
 	/**
 	 * Initialize the settings to default values.
 	 */
 	protected void initSettings() {
+		this.setSeed(System.nanoTime() ^ System.currentTimeMillis());
 		this.setWaitBetweenIteration(true);
 		this.setUpdatePeriod(this.getDefaultUpdatePeriod());
+		this.setMaxSpeed(false);
+		this.setNbThreads(this.getDefaultNbThreads());
+		this.setCheckpointPeriod(this.getDefaultCheckpointPeriod());
 	}
 	
 	/**
@@ -605,51 +913,125 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.setPatternXPos(patternXPos);
 		this.setPatternYPos(patternYPos);
 		this.updateNbOfOneInPattern();
+		this.compilePattern();
+	}
+	
+	/**
+	 * Compile the pattern into the list of the offsets of the checked cells, so transitions don't have to scan the pattern.
+	 */
+	protected void compilePattern() {
+		this.patternOffsetsY = new int[this.getNbOfOneInPattern()];
+		this.patternOffsetsX = new int[this.getNbOfOneInPattern()];
+		
+		this.patternRadiusY = 0;
+		this.patternRadiusX = 0;
+		
+		int k = 0;
+		for(int i = 0; i < this.getPattern().length; i++) {
+			for(int j = 0; j < this.getPattern()[0].length; j++) {
+				if(this.getPattern()[i][j]) {
+					this.patternOffsetsY[k] = i - this.getPatternYPos();
+					this.patternOffsetsX[k] = j - this.getPatternXPos();
+					this.patternRadiusY = Math.max(this.patternRadiusY, Math.abs(this.patternOffsetsY[k]));
+					this.patternRadiusX = Math.max(this.patternRadiusX, Math.abs(this.patternOffsetsX[k]));
+					k++;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Cancel the update task, and wait for the updates in progress to return, then cancel the launches of the parallel sweep.
+	 */
+	protected void stopThread() {
+		if(this.updateTask != null) {
+			this.updateTask.cancel();
+			this.updateTask = null;
+		}
+		
+		if(this.sweep != null) {
+			this.sweep.cancel();
+			this.sweep = null;
+		}
+	}
+	
+	/**
+	 * Copy the settings of another CA of the same type, without starting the update task.<br />
+	 * Subclasses copy their own settings, then call this method.
+	 * @param ca - the CA to copy.
+	 */
+	protected void copySettingsFrom(CellularAutomaton<?> ca) {
+		this.setHeight(ca.getHeight());
+		this.setWidth(ca.getWidth());
+		this.setProbaInit(ca.getProbaInit());
+		this.setComputeStats(ca.isComputeStats());
+		this.setFirstIteration(ca.getFirstIteration());
+		this.setMaxNbIteration(ca.getMaxNbIteration());
+		this.setMaxNbLaunch(ca.getMaxNbLaunch());
+		this.setMaxNbVariation(ca.getMaxNbVariation());
+		this.setSeed(ca.getSeed());
+		this.setNbThreads(ca.getNbThreads());
+		this.setPattern(ca.getPattern(), ca.getPatternXPos(), ca.getPatternYPos());
+		this.setWaitBetweenIteration(false);
+	}
+	
+	/**
+	 * Build a new CA of the same type, with the same settings, and without update task.
+	 * It is used to run one launch of a parallel sweep, and it shares the measures of this CA.
+	 * @return the new CA.
+	 */
+	protected CellularAutomaton<?> createWorker() {
+		CellularAutomaton<?> worker;
+		
+		try {
+			worker = this.getClass().getDeclaredConstructor().newInstance();
+		}
+		catch(ReflectiveOperationException argh) {
+			throw new IllegalStateException("Can't build a worker for " + this.getClass().getSimpleName() + ".", argh);
+		}
+		
+		worker.stopThread();
+		worker.copySettingsFrom(this);
+		worker.metrics = this.metrics;
+		worker.worker = true;
+		return worker;
 	}
 	
 	/**
-	 * Initialize and start the update thread.
+	 * Initialize and start the update task.
 	 */
 	protected void initThread() {
 		this.setRunning(false);
+		this.clock.reset();
 		this.setNbVariation(0);
 		this.setNbLaunch(0);
 		this.setNbIteration(0);
 		
-		if(this.updateThread != null) {
-			this.updateThread.interrupt();
-			try {
-				this.updateThread.join();
-			}
-			catch(InterruptedException argh) {
-				argh.printStackTrace();
-			}
-		}
+		this.stopThread();
 		
-		if(this.computeStats) {
-			this.updateThread = new Thread() {
-				
-				@Override
-				public void run() {
-					CellularAutomaton.this.statisticsLoop();
-				}
-				
-			};
-		}
-		else {
+		if(!this.computeStats) {
+			this.seedRandom(this.seed);
 			this.buildGrid();
-			
-			this.updateThread = new Thread() {
-				
-				@Override
-				public void run() {
-					CellularAutomaton.this.updateLoop();
-				}
-				
-			};
+			this.fireGenerationDone();
 		}
 		
-		this.updateThread.start();
+		this.variationStarted = false;
+		this.launchStarted = false;
+		this.startThread();
+	}
+	
+	/**
+	 * Start the update task, which runs the statistics loop or the update loop from the actual state of the CA.<br />
+	 * The task does not own a thread: it is submitted to an executor shared by all the CA while this CA is running,
+	 * so a paused CA costs nothing, and many CA can run on a bounded number of threads.
+	 */
+	protected void startThread() {
+		this.lastCheckpoint = System.nanoTime();
+		this.updateTask = new UpdateTask(this);
+		
+		if(this.isRunning()) {
+			this.updateTask.wake();
+		}
 	}
 	
 	/**
@@ -659,6 +1041,55 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.setNbIteration(0);
 	}
 	
+	/**
+	 * Create the three generation buffers, in the heap or in memory-mapped files.<br />
+	 * If the memory-mapped files can't be opened, the buffers are created in the heap.
+	 * @return the three buffers, whose generation is -1 unless they were resumed from the files.
+	 */
+	protected abstract G[] createGrids();
+	
+	/**
+	 * Replace the generation buffers by new ones, the buffer holding the newest generation becoming the grid.<br />
+	 * If a complete generation was resumed from the files, the CA continues from it.
+	 * @return true if a generation was resumed, else false if the grid must be drawn.
+	 */
+	protected boolean openGrids() {
+		this.closeGrids();
+		G[] grids = this.createGrids();
+		this.setResumeGrid(false);
+		
+		Arrays.sort(grids, new Comparator<G>() {
+			
+			@Override
+			public int compare(G grid1, G grid2) {
+				return Long.compare(grid2.getGeneration(), grid1.getGeneration());
+			}
+			
+		});
+		
+		this.setTab(grids[0]);
+		this.setOldTab(grids[1]);
+		this.setNextTab(grids[2]);
+		
+		if(this.getTab().getGeneration() >= 0) {
+			this.setNbIteration(this.getTab().getGeneration());
+			return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Release the resources used by the generation buffers.
+	 */
+	protected void closeGrids() {
+		if(this.getTab() != null) {
+			this.getTab().close();
+			this.getOldTab().close();
+			this.getNextTab().close();
+		}
+	}
+	
 	/**
 	 * Update the count of one in the pattern.
 	 */
@@ -677,105 +1108,293 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	}
 	
 	/**
-	 * Copy the content of tab in oldTab.
+	 * Make the generation which has been written in the back buffer the actual one, at the end of the transitions.<br />
+	 * Only references are exchanged: the actual grid becomes the old grid, and the old grid becomes the back buffer
+	 * for the next generation.
 	 */
-	protected void saveOldTab() {
-		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				this.getOldTab()[i][j] = this.cloneCell(this.getTab()[i][j]);
-			}
+	protected void swapTabs() {
+		G oldTab = this.getOldTab();
+		this.setOldTab(this.getTab());
+		this.setTab(this.getNextTab());
+		this.setNextTab(oldTab);
+	}
+	
+	/**
+	 * Apply a transition to all the rows of the grid.<br />
+	 * With one thread, the rows are updated by the calling thread with the CA random generator.
+	 * Otherwise the grid is split into as many row bands as threads, which are updated in parallel.
+	 * If the transition is random, each band gets its own random generator, seeded from the CA random generator, so the results only
+	 * depend on the seed and on the number of threads.
+	 * @param transition - the transition to apply.
+	 */
+	protected void doRowBandsTransitions(final RowBandTransition transition) {
+		int nbBands = Math.min(this.getNbThreads(), this.getHeight());
+		
+		if(nbBands <= 1) {
+			transition.doRows(0, this.getHeight(), this.rand);
+			return;
+		}
+		
+		ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[nbBands];
+		
+		for(int b = 0; b < nbBands; b++) {
+			final int firstRow = b * this.getHeight() / nbBands;
+			final int lastRow = (b + 1) * this.getHeight() / nbBands;
+			final MersenneTwisterFast bandRand = transition.isRandom() ? new MersenneTwisterFast(this.rand.nextLong()) : null;
+			
+			tasks[b] = POOL.submit(new Runnable() {
+				
+				@Override
+				public void run() {
+					transition.doRows(firstRow, lastRow, bandRand);
+				}
+				
+			});
+		}
+		
+		for(ForkJoinTask<?> task : tasks) {
+			task.join();
 		}
 	}
 	
-	protected abstract T cloneCell(T cell);
+	/**
+	 * Return a printable representation of one cell of the grid.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return the cell as a string.
+	 */
+	protected abstract String cellToString(int y, int x);
 	
 	/**
-	 * Update the grid.
+	 * Register a listener which is called each time the grid holds a new generation.
+	 * @param listener - the listener.
 	 */
-	protected void updateGrid() {
-		this.setNbIteration(this.getNbIteration() + 1);
-		this.saveOldTab();
-		this.doCellsTransitions();
-		this.setChanged();
-		this.notifyObservers();
+	public void addGenerationListener(GenerationListener listener) {
+		this.generationListeners.add(listener);
 	}
 	
 	/**
-	 * Upadate all the cells.
+	 * Unregister a listener of the generations.
+	 * @param listener - the listener.
 	 */
-	protected abstract void doCellsTransitions();
+	public void removeGenerationListener(GenerationListener listener) {
+		this.generationListeners.remove(listener);
+	}
 	
 	/**
-	 * The loop which is executed by the update thread if this CA don't has to compute stats.
+	 * Call the listeners of the generations, from the thread which changed the grid.
 	 */
-	protected void updateLoop() {
-		while(true) {
-			if(!this.doLoop()) {
-				return;
-			}
+	protected void fireGenerationDone() {
+		for(GenerationListener listener : this.generationListeners) {
+			listener.generationDone(this);
 		}
 	}
 	
 	/**
-	 * The loop which is executed by the update thread if this CA must compute stats.
+	 * Return the number of words of a frame: the cells of the grid, packed in the way of the checkpoints.
+	 * @return the size of a frame, in words.
 	 */
-	protected void statisticsLoop() {
-		while(this.getNbVariation() < this.maxNbVariation) {
-			this.varyParameters();
-			
-			while(this.getNbLaunch() < this.maxNbLaunch) {
-				this.buildGrid();
-				
-				while(this.getNbIteration() < this.firstIteration) {
-					if(!this.doLoop()) {
-						return;
-					}
-				}
-				
-				while(this.getNbIteration() < this.firstIteration + this.maxNbIteration) {
-					if(!this.doLoop()) {
-						return;
-					}
-					this.computeStats();
-				}
-				
-				this.registerStatsForLaunch();
-			}
-			
-			this.registerStatsForVariation();
+	public abstract int getFrameSize();
+	
+	/**
+	 * Copy the cells of the grid, packed, in a frame.<br />
+	 * It must be called by the thread which updates the grid, for example by a generation listener, or while the CA is paused.
+	 * @param frame - the array which receives the cells, of getFrameSize() words.
+	 */
+	public void readFrame(long[] frame) {
+		for(int i = 0; i < this.getHeight(); i++) {
+			this.readFrameRow(i, frame);
 		}
-		
-		this.notifyObservers();
 	}
 	
 	/**
-	 * This method represent one loop of the update thread.
-	 * @return true if the the loop terminated properly, false if it was interupted.
+	 * Copy the cells of one row of the grid, packed, at their place in a frame.<br />
+	 * It must be called by the thread which updates the grid, like readFrame.
+	 * @param y - the Y coordinate of the row.
+	 * @param frame - the array which receives the cells, of getFrameSize() words.
 	 */
-	protected boolean doLoop() {
-		while(!this.isRunning()) {
-			try {
-				synchronized(this.lock) {
-					this.lock.wait();
-				}
+	public abstract void readFrameRow(int y, long[] frame);
+	
+	/**
+	 * Indicate if a row of the grid may have changed since the previous generation given to the listeners,
+	 * so the listeners which keep a copy of the frames only copy the rows which changed.<br />
+	 * By default every row is considered changed.
+	 * @param y - the Y coordinate of the row.
+	 * @return false if the row is known to be the same, else true.
+	 */
+	public boolean isFrameRowChanged(int y) {
+		return true;
+	}
+	
+	/**
+	 * Update the grid.<br />
+	 * The back buffer loses its generation before it is overwritten, and the grid receives the number of the new generation once it is complete.
+	 */
+	protected void updateGrid() {
+		this.getNextTab().setGeneration(-1);
+		this.setNbIteration(this.getNbIteration() + this.getNbGenerationsPerUpdate());
+		
+		long start = System.nanoTime();
+		this.doCellsTransitions();
+		long transitionsEnd = System.nanoTime();
+		this.fireGenerationDone();
+		long listenersEnd = System.nanoTime();
+		this.setChanged();
+		this.notifyObservers();
+		long end = System.nanoTime();
+		
+		this.metrics.countUpdate(this.getNbGenerationsPerUpdate(), (long) this.height * this.width, transitionsEnd - start, listenersEnd - transitionsEnd, end - listenersEnd);
+		this.getTab().setGeneration(this.getNbIteration());
+	}
+	
+	/**
+	 * Return the number of generations computed by each update of the grid.
+	 * @return the number of generations per update.
+	 */
+	protected int getNbGenerationsPerUpdate() {
+		return 1;
+	}
+	
+	/**
+	 * Upadate all the cells: read the actual grid, write the next generation in the back buffer, then swap the grids.
+	 */
+	protected abstract void doCellsTransitions();
+	
+	/**
+	 * Do the updates of this CA while it is running, during one time slice of the shared executor, then submit the task again.<br />
+	 * Without stats, the grid is updated until the CA is stopped. With stats, each update of the statistics loop is prepared
+	 * by preparing the variations and the launches, until the last variation is done.
+	 * A parallel sweep is started by the first call, then each call registers the launches which are terminated, without waiting for the others.<br />
+	 * When the grid is displayed, the updates are scheduled at a fixed rate by the clock of the CA, unless the CA runs at max speed:
+	 * the task is then submitted again at the date of the next update, instead of waiting.
+	 * @param task - the task which runs the updates.
+	 */
+	void runUpdates(UpdateTask task) {
+		long end = System.nanoTime() + UPDATE_SLICE;
+		
+		while(!task.isCancelled() && this.isRunning()) {
+			if(this.computeStats) {
+				if(this.sweep != null || this.isParallelSweep()) {
+					if(this.sweep == null) {
+						this.sweep = new SweepScheduler(this, task);
+						this.sweep.start(this.variationStarted);
+					}
+					
+					if(this.sweep.registerLaunches(end)) {
+						this.sweep = null;
+						this.finishUpdates(task);
+					}
+					return;
+				}
+				
+				if(!this.prepareStatisticsUpdate()) {
+					this.finishUpdates(task);
+					return;
+				}
+			}
+			
+			if(this.isWaitBetweenIteration() && !this.isMaxSpeed()) {
+				long delay = this.clock.getUpdateDelay(this.getUpdatePeriod() * 1000000L);
+				
+				if(delay > 0) {
+					task.schedule(delay);
+					return;
+				}
+			}
+			else {
+				this.clock.skipWait();
+			}
+			
+			if(this.computeStats) {
+				this.doStatisticsUpdate();
 			}
-			catch(InterruptedException argh) {
-				return false;
+			else {
+				this.doUpdate();
+				this.checkpointIfDue(true);
 			}
+			
+			if(System.nanoTime() >= end) {
+				task.wake();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Terminate the statistics loop, once all the variations are done or the parallel sweep is over.
+	 * @param task - the task which runs the updates.
+	 */
+	private void finishUpdates(UpdateTask task) {
+		if(!task.isCancelled()) {
+			this.setChanged();
+			this.notifyObservers();
+			task.finish();
+		}
+	}
+	
+	/**
+	 * Prepare the next update of the statistics loop: start the variation and the launch if they are not started,
+	 * or register the stats of the launch and of the variation which are over.<br />
+	 * After a checkpoint has been restored, the loop continues the variation, and the launch if its grid was saved, where the checkpoint was written.
+	 * @return true if the grid has to be updated, false if all the variations are done.
+	 */
+	protected boolean prepareStatisticsUpdate() {
+		while(this.getNbVariation() < this.maxNbVariation) {
+			if(!this.variationStarted) {
+				this.varyParameters();
+				this.variationStarted = true;
+			}
+			
+			if(this.getNbLaunch() >= this.maxNbLaunch) {
+				this.registerStatsForVariation();
+				this.variationStarted = false;
+				continue;
+			}
+			
+			if(!this.launchStarted) {
+				this.seedRandom(this.getLaunchSeed(this.getNbVariation(), this.getNbLaunch()));
+				this.buildGrid();
+				this.fireGenerationDone();
+				this.cycleDetector.reset();
+				this.launchStarted = true;
+			}
+			
+			if(this.getNbIteration() < this.firstIteration + this.maxNbIteration) {
+				return true;
+			}
+			
+			this.registerStatsForLaunch();
+			this.launchStarted = false;
 		}
 		
-		this.updateGrid();
+		return false;
+	}
+	
+	/**
+	 * Do one update of the statistics loop: the stats are collected after the first iterations,
+	 * and the whole periods of the launch are skipped once it cycles.
+	 */
+	protected void doStatisticsUpdate() {
+		boolean collect = this.getNbIteration() >= this.firstIteration;
+		this.doUpdate();
 		
-		try {
-			if(this.isWaitBetweenIteration()) {
-				Thread.sleep(this.getUpdatePeriod());
-			}
+		if(collect) {
+			this.updateStats();
+			this.skipPeriods(this.firstIteration + this.maxNbIteration, true);
 		}
-		catch(InterruptedException argh) {
-			return false;
+		else {
+			this.skipPeriods(this.firstIteration, false);
 		}
 		
-		return true;
+		this.checkpointIfDue(true);
+	}
+	
+	/**
+	 * Update the grid, and count the generations for the rate of the clock.
+	 */
+	protected void doUpdate() {
+		this.updateGrid();
+		this.clock.countGenerations(this.getNbGenerationsPerUpdate());
 	}
 	
 	/**
@@ -783,6 +1402,86 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 */
 	protected abstract void computeStats();
 	
+	/**
+	 * Collect stats from the grid, and measure the time spent.
+	 */
+	protected void updateStats() {
+		long start = System.nanoTime();
+		this.computeStats();
+		this.metrics.getStatsLatency().record(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Indicate if the launches are ended early once they become periodic.<br />
+	 * The update must be deterministic, the grid hash must be implemented, and the stats must be repeatable.
+	 * @return true if the periods of the launches are detected, else false.
+	 */
+	protected boolean isCycleDetectable() {
+		return false;
+	}
+	
+	/**
+	 * Return a hash of the cells of the grid. Two identical grids must have the same hash.
+	 * @return the hash of the grid.
+	 */
+	protected long getGridHash() {
+		return 0;
+	}
+	
+	/**
+	 * Add to the stats of the launch, a number of times, the stats collected during the last iterations.<br />
+	 * This replaces the iterations skipped once the launch is periodic, so a CA which collects stats must override it to detect the cycles.
+	 * @param period - the number of iterations of the period, whose stats have been collected.
+	 * @param nbRepeats - the number of times the period is repeated.
+	 */
+	protected void repeatStats(long period, long nbRepeats) {
+		// Nothing here.
+	}
+	
+	/**
+	 * Advance the iteration counter without updating the grid, which must be the same after the skipped iterations.
+	 * @param nbIterations - the number of skipped iterations.
+	 */
+	protected void skipIterations(long nbIterations) {
+		this.setNbIteration(this.getNbIteration() + nbIterations);
+	}
+	
+	/**
+	 * Forget the grid hashes recorded to detect the period of the launch.<br />
+	 * Must be called when the transition changes, because a period can not span two transitions.
+	 */
+	protected void resetCycleDetection() {
+		this.cycleDetector.reset();
+	}
+	
+	/**
+	 * Detect if the launch became periodic, then skip all the whole periods before an iteration, and extrapolate their stats.<br />
+	 * The stats are only extrapolated once a whole period has been collected.
+	 * @param end - the iteration to reach.
+	 * @param stats - true if the stats are collected during the skipped iterations, else false.
+	 */
+	protected void skipPeriods(long end, boolean stats) {
+		if(!this.isCycleDetectable()) {
+			return;
+		}
+		
+		long period = this.cycleDetector.update(this);
+		
+		if(period == 0 || (stats && this.getNbIteration() - period < this.firstIteration)) {
+			return;
+		}
+		
+		long nbPeriods = (end - this.getNbIteration()) / period;
+		
+		if(nbPeriods > 0) {
+			if(stats) {
+				this.repeatStats(period, nbPeriods);
+			}
+			
+			this.skipIterations(nbPeriods * period);
+		}
+	}
+	
 	/**
 	 * Increment the parameters which have to vary durring the update loop.
 	 */
@@ -794,6 +1493,22 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 * Register the stats collected durring this launch.
 	 */
 	protected void registerStatsForLaunch() {
+		this.addLaunchStats(this.collectLaunchStats());
+	}
+	
+	/**
+	 * Return the stats collected durring this launch, and reset them for the next launch.
+	 * @return the stats of the launch.
+	 */
+	protected double[] collectLaunchStats() {
+		return new double[0];
+	}
+	
+	/**
+	 * Register the stats of a launch, which may have been collected by another CA.
+	 * @param stats - the stats of the launch.
+	 */
+	protected void addLaunchStats(double[] stats) {
 		this.setNbLaunch(this.getNbLaunch() + 1);
 	}
 	
@@ -817,6 +1532,7 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 */
 	public void pause() {
 		this.setRunning(false);
+		this.clock.reset();
 		this.notifyObservers();
 	}
 	
@@ -831,30 +1547,359 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	}
 	
 	/**
-	 * Stop the CA and reset the update thread.
+	 * Stop the CA and reset the update task.
 	 */
 	public void stop() {
 		this.initThread();
 		this.notifyObservers();
 	}
 	
+	/**
+	 * Wait for the update task to terminate.<br />
+	 * The statistics loop terminates after the last variation, the update loop only terminates when the CA is stopped.
+	 * @throws InterruptedException if the calling thread is interrupted while waiting.
+	 */
+	public void waitEnd() throws InterruptedException {
+		UpdateTask updateTask = this.updateTask;
+		
+		if(updateTask != null) {
+			updateTask.waitEnd();
+		}
+	}
+	
+	/**
+	 * Stop the update task for good, and release the generation buffers. This CA can't be run anymore.
+	 */
+	public void dispose() {
+		this.setRunning(false);
+		this.stopThread();
+		this.metrics.unregister();
+		this.closeGrids();
+	}
+	
+	/**
+	 * Save the statistics collected by this CA in a CSV file.
+	 * @param path - the path of the file.
+	 * @throws IOException if the file can't be written.
+	 */
+	public void saveStats(String path) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(path));
+		
+		try {
+			this.writeStats(writer);
+		}
+		finally {
+			writer.close();
+		}
+		
+		if(writer.checkError()) {
+			throw new IOException("Error while writing " + path + ".");
+		}
+	}
+	
+	/**
+	 * Write the statistics collected by this CA, in CSV format.
+	 * @param writer - the writer to use.
+	 */
+	protected void writeStats(PrintWriter writer) {
+		writer.println("data,proba,value");
+	}
+	
+	/**
+	 * Save the settings and the seeds used by this CA in a text file, to go along with its results.
+	 * @param path - the path of the file.
+	 * @throws IOException if the file can't be written.
+	 */
+	public void saveMetadata(String path) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(path));
+		
+		try {
+			this.writeMetadata(writer);
+		}
+		finally {
+			writer.close();
+		}
+		
+		if(writer.checkError()) {
+			throw new IOException("Error while writing " + path + ".");
+		}
+	}
+	
+	/**
+	 * Write the settings and the seeds used by this CA, one "key=value" line by setting.<br />
+	 * When the CA computes stats, the seed of each launch is written too, so a launch can be replayed alone.
+	 * @param writer - the writer to use.
+	 */
+	protected void writeMetadata(PrintWriter writer) {
+		writer.println("ca=" + this.getClass().getName());
+		writer.println("seed=" + this.seed);
+		writer.println("height=" + this.height);
+		writer.println("width=" + this.width);
+		writer.println("probaInit=" + this.probaInit);
+		writer.println("nbThreads=" + this.nbThreads);
+		writer.println("computeStats=" + this.computeStats);
+		
+		if(this.computeStats) {
+			writer.println("firstIteration=" + this.firstIteration);
+			writer.println("nbIteration=" + this.maxNbIteration);
+			writer.println("nbLaunch=" + this.maxNbLaunch);
+			writer.println("nbVariation=" + this.maxNbVariation);
+			
+			for(int v = 0; v < this.maxNbVariation; v++) {
+				for(int l = 0; l < this.maxNbLaunch; l++) {
+					writer.println("launchSeed." + v + "." + l + "=" + this.getLaunchSeed(v, l));
+				}
+			}
+		}
+		else {
+			writer.println("iteration=" + this.nbIteration);
+		}
+	}
+	
+	/**
+	 * Write a checkpoint if the checkpoints are enabled and the checkpoint period has elapsed since the last one.<br />
+	 * It is called by the update task between two iterations, so the state of the CA is consistent.
+	 * An error while writing is reported, but doesn't stop the run: the previous checkpoint is kept.
+	 * @param grid - true if the grid of the actual launch must be saved, false if the checkpoint is written between two launches.
+	 */
+	protected void checkpointIfDue(boolean grid) {
+		if(this.checkpointPath == null || System.nanoTime() - this.lastCheckpoint < this.checkpointPeriod * 1000000000L) {
+			return;
+		}
+		
+		try {
+			this.saveCheckpoint(this.checkpointPath, grid);
+		}
+		catch(IOException argh) {
+			argh.printStackTrace();
+		}
+		
+		this.lastCheckpoint = System.nanoTime();
+	}
+	
+	/**
+	 * Save the state of the CA in a checkpoint: settings, counters, grid, random generator and collected stats.<br />
+	 * The CA must be paused, or this method must be called by the update task between two iterations.
+	 * @param path - the path of the checkpoint.
+	 * @throws IOException if the checkpoint can't be written. The previous checkpoint is then kept.
+	 */
+	public void saveCheckpoint(String path) throws IOException {
+		this.saveCheckpoint(path, this.getTab() != null);
+	}
+	
+	/**
+	 * Save the state of the CA in a checkpoint, which replaces atomically the previous one.
+	 * @param path - the path of the checkpoint.
+	 * @param grid - true if the grid of the actual launch must be saved.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	protected void saveCheckpoint(String path, boolean grid) throws IOException {
+		CheckpointWriter out = new CheckpointWriter(path);
+		
+		try {
+			this.writeCheckpoint(out, grid);
+			out.commit();
+		}
+		finally {
+			out.close();
+		}
+	}
+	
+	/**
+	 * Restore the state of the CA from a checkpoint, then restart the update task from this state and notify observers.<br />
+	 * The dynamic settings are not part of the checkpoint: the CA must have the same ones than the CA which wrote it.
+	 * If the checkpoint can't be read, the CA is reset.
+	 * @param path - the path of the checkpoint.
+	 * @throws IOException if the checkpoint can't be read, or was written by another type of CA.
+	 */
+	public void restoreCheckpoint(String path) throws IOException {
+		this.setRunning(false);
+		this.clock.reset();
+		this.stopThread();
+		
+		CheckpointReader in = new CheckpointReader(path);
+		
+		try {
+			this.readCheckpoint(in);
+		}
+		catch(IOException argh) {
+			this.initThread();
+			this.notifyObservers();
+			throw argh;
+		}
+		finally {
+			in.close();
+		}
+		
+		if(this.launchStarted || !this.computeStats) {
+			this.fireGenerationDone();
+		}
+		
+		this.startThread();
+		this.setChanged();
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Write the state of the CA in a checkpoint.<br />
+	 * Subclasses write their own state after the one of this class.
+	 * @param out - the checkpoint.
+	 * @param grid - true if the grid of the actual launch must be saved.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	protected void writeCheckpoint(CheckpointWriter out, boolean grid) throws IOException {
+		out.writeLong(CHECKPOINT_MAGIC);
+		out.writeInt(CHECKPOINT_VERSION);
+		out.writeString(this.getClass().getName());
+		
+		out.writeInt(this.height);
+		out.writeInt(this.width);
+		out.writeDouble(this.probaInit);
+		out.writeBoolean(this.computeStats);
+		out.writeInt(this.firstIteration);
+		out.writeInt(this.maxNbIteration);
+		out.writeInt(this.maxNbLaunch);
+		out.writeInt(this.maxNbVariation);
+		out.writeLong(this.seed);
+		out.writeInt(this.nbThreads);
+		
+		out.writeInt(this.nbVariation);
+		out.writeInt(this.nbLaunch);
+		out.writeLong(grid ? this.nbIteration : 0);
+		
+		ByteArrayOutputStream state = new ByteArrayOutputStream();
+		DataOutputStream stream = new DataOutputStream(state);
+		this.rand.writeState(stream);
+		stream.flush();
+		out.writeBytes(state.toByteArray());
+		
+		out.writeBoolean(grid);
+		if(grid) {
+			this.writeGrid(out);
+		}
+	}
+	
+	/**
+	 * Read the state of the CA from a checkpoint, without starting the update task.<br />
+	 * Subclasses read their own state after the one of this class.
+	 * @param in - the checkpoint.
+	 * @throws IOException if the checkpoint can't be read, or was written by another type of CA.
+	 */
+	protected void readCheckpoint(CheckpointReader in) throws IOException {
+		if(in.readLong() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+			throw new IOException("Not a checkpoint, or a checkpoint of an unsupported version.");
+		}
+		
+		String type = in.readString();
+		if(!type.equals(this.getClass().getName())) {
+			throw new IOException("The checkpoint was written by " + type + ", not by " + this.getClass().getName() + ".");
+		}
+		
+		int height = in.readInt();
+		int width = in.readInt();
+		double probaInit = in.readDouble();
+		boolean computeStats = in.readBoolean();
+		int firstIteration = in.readInt();
+		int maxNbIteration = in.readInt();
+		int maxNbLaunch = in.readInt();
+		int maxNbVariation = in.readInt();
+		long seed = in.readLong();
+		int nbThreads = in.readInt();
+		
+		int nbVariation = in.readInt();
+		int nbLaunch = in.readInt();
+		long nbIteration = in.readLong();
+		
+		try {
+			checkHeight(height, this.getMaxGridSize());
+			checkWidth(width, this.getMaxGridSize());
+			checkProbaInit(probaInit);
+			checkFirstIteration(firstIteration);
+			checkNbIteration(maxNbIteration);
+			checkNbLaunch(maxNbLaunch);
+			checkNbVariation(maxNbVariation);
+			checkNbThreads(nbThreads);
+			
+			if(nbVariation < 0 || nbVariation > maxNbVariation || nbLaunch < 0 || nbLaunch > maxNbLaunch || nbIteration < 0) {
+				throw new IllegalArgumentException("the counters are out of bounds.");
+			}
+		}
+		catch(IllegalArgumentException argh) {
+			throw new IOException("Corrupted checkpoint : " + argh.getMessage(), argh);
+		}
+		
+		this.setHeight(height);
+		this.setWidth(width);
+		this.setProbaInit(probaInit);
+		this.setComputeStats(computeStats);
+		this.setFirstIteration(firstIteration);
+		this.setMaxNbIteration(maxNbIteration);
+		this.setMaxNbLaunch(maxNbLaunch);
+		this.setMaxNbVariation(maxNbVariation);
+		this.setSeed(seed);
+		this.setNbThreads(nbThreads);
+		
+		this.setNbVariation(nbVariation);
+		if(computeStats && nbVariation < maxNbVariation) {
+			this.varyParameters();
+		}
+		this.setNbLaunch(nbLaunch);
+		this.setNbIteration(nbIteration);
+		
+		this.rand.readState(new DataInputStream(new ByteArrayInputStream(in.readBytes())));
+		
+		boolean grid = in.readBoolean();
+		if(grid) {
+			this.readGrid(in);
+		}
+		
+		this.variationStarted = computeStats;
+		this.launchStarted = computeStats && grid;
+	}
+	
+	/**
+	 * Write the cells of the grid in a checkpoint, as compactly as possible.
+	 * @param out - the checkpoint.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	protected abstract void writeGrid(CheckpointWriter out) throws IOException;
+	
+	/**
+	 * Rebuild the grid from the cells written in a checkpoint. The size of the grid has already been restored.
+	 * @param in - the checkpoint.
+	 * @throws IOException if the checkpoint can't be read.
+	 */
+	protected abstract void readGrid(CheckpointReader in) throws IOException;
+	
+	/**
+	 * Check that a number of threads is valid.
+	 * @param nbThreads - the number of threads to check.
+	 */
+	protected static void checkNbThreads(int nbThreads) {
+		if(nbThreads < MIN_NB_THREADS || nbThreads > MAX_NB_THREADS) {
+			throw new IllegalArgumentException(NB_THREADS + " must be between " + MIN_NB_THREADS + " and " + MAX_NB_THREADS + ".");
+		}
+	}
+	
 	/**
 	 * Check that a height is valid.
 	 * @param height - the height to check.
+	 * @param maxGridSize - the maximal size of the grid.
 	 */
-	protected static void checkHeight(int height) {
-		if(height < MIN_GRID_SIZE || height > MAX_GRID_SIZE) {
-			throw new IllegalArgumentException(GRID_HEIGHT + " must be between " + MIN_GRID_SIZE + " and " + MAX_GRID_SIZE + ".");
+	protected static void checkHeight(int height, int maxGridSize) {
+		if(height < MIN_GRID_SIZE || height > maxGridSize) {
+			throw new IllegalArgumentException(GRID_HEIGHT + " must be between " + MIN_GRID_SIZE + " and " + maxGridSize + ".");
 		}
 	}
 	
 	/**
 	 * Check that a width is valid.
 	 * @param width - the width to check.
+	 * @param maxGridSize - the maximal size of the grid.
 	 */
-	protected static void checkWidth(int width) {
-		if(width < MIN_GRID_SIZE || width > MAX_GRID_SIZE) {
-			throw new IllegalArgumentException(GRID_WIDTH + " must be between " + MIN_GRID_SIZE + " and " + MAX_GRID_SIZE + ".");
+	protected static void checkWidth(int width, int maxGridSize) {
+		if(width < MIN_GRID_SIZE || width > maxGridSize) {
+			throw new IllegalArgumentException(GRID_WIDTH + " must be between " + MIN_GRID_SIZE + " and " + maxGridSize + ".");
 		}
 	}
 	
@@ -929,6 +1974,108 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		this.notifyObservers();
 	}
 	
+	/**
+	 * Choose if the CA runs as fast as possible, then notify observers.
+	 * @param maxSpeed - true if the CA must run as fast as possible, else false.
+	 */
+	public void changeMaxSpeed(boolean maxSpeed) {
+		this.setMaxSpeed(maxSpeed);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Choose if the launches of the statistics loop are run in parallel, then notify observers.
+	 * @param parallelSweep - true if the launches are run in parallel, else false.
+	 */
+	public void changeParallelSweep(boolean parallelSweep) {
+		this.setParallelSweep(parallelSweep);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Change the number of threads used by the transitions, then notify observers.
+	 * @param nbThreads - the new number of threads.
+	 */
+	public void changeNbThreads(int nbThreads) {
+		checkNbThreads(nbThreads);
+		
+		this.setNbThreads(nbThreads);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Check that a checkpoint period is valid.
+	 * @param checkpointPeriod - the checkpoint period to check.
+	 */
+	protected static void checkCheckpointPeriod(int checkpointPeriod) {
+		if(checkpointPeriod < MIN_CHECKPOINT_PERIOD) {
+			throw new IllegalArgumentException(CHECKPOINT_PERIOD + " must be greater or equals to " + MIN_CHECKPOINT_PERIOD + " second.");
+		}
+	}
+	
+	/**
+	 * Choose where and how often the update task writes checkpoints, then notify observers.
+	 * @param checkpointPath - the path of the checkpoint, or null if no checkpoint has to be written.
+	 * @param checkpointPeriod - the minimal time between two checkpoints, in seconds.
+	 */
+	public void changeCheckpoint(String checkpointPath, int checkpointPeriod) {
+		checkCheckpointPeriod(checkpointPeriod);
+		
+		this.setCheckpointPath(checkpointPath);
+		this.setCheckpointPeriod(checkpointPeriod);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Check that a directory can hold the memory-mapped files of the generations.
+	 * @param gridDirectory - the path of the directory to check, or null for the heap.
+	 */
+	protected static void checkGridDirectory(String gridDirectory) {
+		if(gridDirectory != null && !(new File(gridDirectory).isDirectory() && new File(gridDirectory).canWrite())) {
+			throw new IllegalArgumentException(GRID_DIRECTORY + " must be a writable directory.");
+		}
+	}
+	
+	/**
+	 * Check that the generations can be resumed from the files.<br />
+	 * The files only know the number of their generation, not the variation and the launch it belongs to,
+	 * so with statistics, a resumed generation would start the first launch of the first variation in the middle of another one.
+	 * A run computing statistics must be resumed from a checkpoint instead.
+	 * @param resumeGrid - true if the next grid must continue from the files.
+	 * @param computeStats - whether or not the CA compute statistics between iterations.
+	 */
+	protected static void checkResumeGrid(boolean resumeGrid, boolean computeStats) {
+		if(resumeGrid && computeStats) {
+			throw new IllegalArgumentException("The grid files can't be resumed when statistics are computed, restore a checkpoint instead.");
+		}
+	}
+	
+	/**
+	 * Choose where the generations of the next grids are stored, then notify observers.<br />
+	 * With a directory, the current and previous generations are kept in memory-mapped files, paged by the OS.
+	 * A generation is forced to the disk and marked complete in its file at most once per checkpoint period, and when the grid is closed.
+	 * @param gridDirectory - the path of the directory, or null if the generations are stored in the heap.
+	 * @param resumeGrid - true if the next grid must continue from the last complete generation found in the files, only without statistics.
+	 */
+	public void changeGridDirectory(String gridDirectory, boolean resumeGrid) {
+		checkGridDirectory(gridDirectory);
+		checkResumeGrid(gridDirectory != null && resumeGrid, this.isComputeStats());
+		
+		this.setGridDirectory(gridDirectory);
+		this.setResumeGrid(gridDirectory != null && resumeGrid);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Change the master seed of the CA, then notify observers.<br />
+	 * The new seed is used the next time the grid is built.
+	 * @param seed - the new master seed.
+	 */
+	public void changeSeed(long seed) {
+		this.setSeed(seed);
+		this.notifyObservers();
+	}
+	
 	/**
 	 * Rebuild the grid with new initialisation settings, then notify observers.
 	 * @param height - the new height of the grid.
@@ -941,13 +2088,14 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 	 * @param maxNbVariation - the number of variations that the CA has to do.
 	 */
 	public void changeInitSettings(int height, int width, double probaInit, boolean computeStats, int firstIteration, int maxNbIteration, int maxNbLaunch, int maxNbVariation) {
-		checkHeight(height);
-		checkWidth(width);
+		checkHeight(height, this.getMaxGridSize());
+		checkWidth(width, this.getMaxGridSize());
 		checkProbaInit(probaInit);
 		checkFirstIteration(firstIteration);
 		checkNbIteration(maxNbIteration);
 		checkNbLaunch(maxNbLaunch);
 		checkNbVariation(maxNbVariation);
+		checkResumeGrid(this.isResumeGrid(), computeStats);
 		
 		this.setConfig(height, width, probaInit, computeStats, firstIteration, maxNbIteration, maxNbLaunch, maxNbVariation);
 		this.notifyObservers();
@@ -968,9 +2116,9 @@ public abstract class CellularAutomaton<T extends Object> extends Observable {
 		
 		result.append("Tab :" + NL);
 		
-		for(int i = 0; i < this.getWidth(); i++) {
-			for(int j = 0; j < this.getHeight(); j++) {
-				result.append(this.getTab()[i][j].toString() + " ");
+		for(int i = 0; i < this.getHeight(); i++) {
+			for(int j = 0; j < this.getWidth(); j++) {
+				result.append(this.cellToString(i, j) + " ");
 			}
 			result.append(NL);
 		}
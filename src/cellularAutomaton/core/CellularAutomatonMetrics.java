@@ -0,0 +1,263 @@
+package cellularAutomaton.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class CellularAutomatonMetrics implements CellularAutomatonMetricsMXBean {
+	
+	// Constants :
+	
+	public static final String DOMAIN = "cellularAutomaton";
+	
+	private static final long SAMPLE_PERIOD = 1000000000L;
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	
+	// Fields :
+	
+	private final CellularAutomaton<?> ca;
+	private final String objectName;
+	private ObjectName registeredName = null;
+	
+	private final AtomicLong nbGenerations = new AtomicLong();
+	private final AtomicLong nbCellUpdates = new AtomicLong();
+	
+	private final LatencyHistogram transitionsLatency = new LatencyHistogram();
+	private final LatencyHistogram listenersLatency = new LatencyHistogram();
+	private final LatencyHistogram statsLatency = new LatencyHistogram();
+	private final LatencyHistogram notificationLatency = new LatencyHistogram();
+	
+	private long sampleTime = System.nanoTime();
+	private long sampleGenerations = 0;
+	private long sampleCellUpdates = 0;
+	private double generationsPerSecond = 0.0;
+	private double cellUpdatesPerSecond = 0.0;
+	
+	// Constructors :
+	
+	/**
+	 * Build the measures of a CA.
+	 * @param ca - the measured CA.
+	 */
+	public CellularAutomatonMetrics(CellularAutomaton<?> ca) {
+		this.ca = ca;
+		this.objectName = DOMAIN + ":type=" + ca.getClass().getSimpleName() + ",id=" + NEXT_ID.incrementAndGet();
+	}
+	
+	// Getters :
+	
+	@Override
+	public String getType() {
+		return this.ca.getClass().getSimpleName();
+	}
+	
+	@Override
+	public boolean isRunning() {
+		return this.ca.isRunning();
+	}
+	
+	@Override
+	public long getNbIteration() {
+		return this.ca.getNbIteration();
+	}
+	
+	@Override
+	public int getNbLaunch() {
+		return this.ca.getNbLaunch();
+	}
+	
+	@Override
+	public int getMaxNbLaunch() {
+		return this.ca.getMaxNbLaunch();
+	}
+	
+	@Override
+	public int getNbVariation() {
+		return this.ca.getNbVariation();
+	}
+	
+	@Override
+	public int getMaxNbVariation() {
+		return this.ca.getMaxNbVariation();
+	}
+	
+	@Override
+	public long getNbGenerations() {
+		return this.nbGenerations.get();
+	}
+	
+	@Override
+	public long getNbCellUpdates() {
+		return this.nbCellUpdates.get();
+	}
+	
+	@Override
+	public double getGenerationsPerSecond() {
+		this.sample();
+		return this.generationsPerSecond;
+	}
+	
+	@Override
+	public double getCellUpdatesPerSecond() {
+		this.sample();
+		return this.cellUpdatesPerSecond;
+	}
+	
+	@Override
+	public LatencyHistogram getTransitionsLatency() {
+		return this.transitionsLatency;
+	}
+	
+	@Override
+	public LatencyHistogram getListenersLatency() {
+		return this.listenersLatency;
+	}
+	
+	@Override
+	public LatencyHistogram getStatsLatency() {
+		return this.statsLatency;
+	}
+	
+	@Override
+	public LatencyHistogram getNotificationLatency() {
+		return this.notificationLatency;
+	}
+	
+	/**
+	 * Return the name under which the measures are registered in the platform MBean server.
+	 * @return the object name of the MBean.
+	 */
+	public String getObjectName() {
+		return this.objectName;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Register the measures in the platform MBean server, so they can be read by JMX clients.
+	 * If they can't be registered, the CA runs without them being visible.
+	 */
+	public synchronized void register() {
+		if(this.registeredName != null) {
+			return;
+		}
+		
+		try {
+			ObjectName name = new ObjectName(this.objectName);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			this.registeredName = name;
+		}
+		catch(JMException argh) {
+			argh.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Remove the measures from the platform MBean server.
+	 */
+	public synchronized void unregister() {
+		if(this.registeredName == null) {
+			return;
+		}
+		
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		
+		try {
+			if(server.isRegistered(this.registeredName)) {
+				server.unregisterMBean(this.registeredName);
+			}
+		}
+		catch(JMException argh) {
+			argh.printStackTrace();
+		}
+		
+		this.registeredName = null;
+	}
+	
+	/**
+	 * Register an update of the grid. This method is lock-free, and can be called by the workers of a parallel sweep.
+	 * @param nbGenerations - the number of generations computed by the update.
+	 * @param nbCells - the number of cells of the grid.
+	 * @param transitionsNanos - the duration of the transitions, in nano-seconds.
+	 * @param listenersNanos - the duration of the generation listeners, in nano-seconds.
+	 * @param notificationNanos - the duration of the notification of the observers, in nano-seconds.
+	 */
+	public void countUpdate(int nbGenerations, long nbCells, long transitionsNanos, long listenersNanos, long notificationNanos) {
+		this.nbGenerations.addAndGet(nbGenerations);
+		this.nbCellUpdates.addAndGet(nbCells * nbGenerations);
+		this.transitionsLatency.record(transitionsNanos);
+		this.listenersLatency.record(listenersNanos);
+		this.notificationLatency.record(notificationNanos);
+	}
+	
+	/**
+	 * Refresh the rates if the previous sample is older than one second. Only the readers are synchronized.
+	 */
+	private synchronized void sample() {
+		long now = System.nanoTime();
+		long elapsed = now - this.sampleTime;
+		
+		if(elapsed < SAMPLE_PERIOD) {
+			return;
+		}
+		
+		long nbGenerations = this.nbGenerations.get();
+		long nbCellUpdates = this.nbCellUpdates.get();
+		
+		this.generationsPerSecond = (nbGenerations - this.sampleGenerations) * 1e9 / elapsed;
+		this.cellUpdatesPerSecond = (nbCellUpdates - this.sampleCellUpdates) * 1e9 / elapsed;
+		this.sampleTime = now;
+		this.sampleGenerations = nbGenerations;
+		this.sampleCellUpdates = nbCellUpdates;
+	}
+	
+	@Override
+	public synchronized void reset() {
+		this.nbGenerations.set(0);
+		this.nbCellUpdates.set(0);
+		this.transitionsLatency.reset();
+		this.listenersLatency.reset();
+		this.statsLatency.reset();
+		this.notificationLatency.reset();
+		
+		this.sampleTime = System.nanoTime();
+		this.sampleGenerations = 0;
+		this.sampleCellUpdates = 0;
+		this.generationsPerSecond = 0.0;
+		this.cellUpdatesPerSecond = 0.0;
+	}
+	
+}
@@ -0,0 +1,129 @@
+package cellularAutomaton.core;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public interface CellularAutomatonMetricsMXBean {
+	
+	/**
+	 * Return the name of the class of the CA.
+	 * @return the type of the CA.
+	 */
+	String getType();
+	
+	/**
+	 * Indicate if the CA is running.
+	 * @return true if the CA is running, else false.
+	 */
+	boolean isRunning();
+	
+	/**
+	 * Return the number of the actual iteration.
+	 * @return the iteration.
+	 */
+	long getNbIteration();
+	
+	/**
+	 * Return the number of launches done in the actual variation.
+	 * @return the number of launches.
+	 */
+	int getNbLaunch();
+	
+	/**
+	 * Return the number of launches of each variation.
+	 * @return the number of launches per variation.
+	 */
+	int getMaxNbLaunch();
+	
+	/**
+	 * Return the number of variations done.
+	 * @return the number of variations.
+	 */
+	int getNbVariation();
+	
+	/**
+	 * Return the number of variations to do.
+	 * @return the number of variations.
+	 */
+	int getMaxNbVariation();
+	
+	/**
+	 * Return the number of generations computed since the last reset.
+	 * @return the number of generations.
+	 */
+	long getNbGenerations();
+	
+	/**
+	 * Return the number of cells updated since the last reset.
+	 * @return the number of cell updates.
+	 */
+	long getNbCellUpdates();
+	
+	/**
+	 * Return the number of generations computed per second, measured since the previous sample.
+	 * @return the number of generations per second.
+	 */
+	double getGenerationsPerSecond();
+	
+	/**
+	 * Return the number of cells updated per second, measured since the previous sample.
+	 * @return the number of cell updates per second.
+	 */
+	double getCellUpdatesPerSecond();
+	
+	/**
+	 * Return the durations of the transitions of the cells.
+	 * @return the histogram of the durations.
+	 */
+	LatencyHistogram getTransitionsLatency();
+	
+	/**
+	 * Return the durations of the generation listeners, which record or check the generations.
+	 * @return the histogram of the durations.
+	 */
+	LatencyHistogram getListenersLatency();
+	
+	/**
+	 * Return the durations of the collect of the stats.
+	 * @return the histogram of the durations.
+	 */
+	LatencyHistogram getStatsLatency();
+	
+	/**
+	 * Return the durations of the notification of the observers.
+	 * @return the histogram of the durations.
+	 */
+	LatencyHistogram getNotificationLatency();
+	
+	/**
+	 * Forget all the measures.
+	 */
+	void reset();
+	
+}
@@ -0,0 +1,159 @@
+package cellularAutomaton.core;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class CheckpointReader implements Closeable {
+	
+	// Constants :
+	
+	private static final int BUFFER_SIZE = 1 << 20;
+	
+	// Fields :
+	
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	
+	// Constructors :
+	
+	/**
+	 * Open a checkpoint written by a CheckpointWriter.
+	 * @param path - the path of the checkpoint.
+	 * @throws IOException if the file can't be opened.
+	 */
+	public CheckpointReader(String path) throws IOException {
+		this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+		this.buffer.flip();
+	}
+	
+	// Methods :
+	
+	public boolean readBoolean() throws IOException {
+		this.fill(1);
+		return this.buffer.get() != 0;
+	}
+	
+	public int readInt() throws IOException {
+		this.fill(Integer.BYTES);
+		return this.buffer.getInt();
+	}
+	
+	public long readLong() throws IOException {
+		this.fill(Long.BYTES);
+		return this.buffer.getLong();
+	}
+	
+	public double readDouble() throws IOException {
+		this.fill(Double.BYTES);
+		return this.buffer.getDouble();
+	}
+	
+	public String readString() throws IOException {
+		return new String(this.readBytes(), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Read an array of bytes written with its length.
+	 * @return the bytes.
+	 * @throws IOException if the checkpoint is truncated or corrupted.
+	 */
+	public byte[] readBytes() throws IOException {
+		int length = this.readInt();
+		
+		if(length < 0 || length > this.channel.size()) {
+			throw new IOException("Corrupted checkpoint.");
+		}
+		
+		byte[] values = new byte[length];
+		
+		int offset = 0;
+		while(offset < length) {
+			this.fill(1);
+			int count = Math.min(this.buffer.remaining(), length - offset);
+			this.buffer.get(values, offset, count);
+			offset += count;
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * Read words written in bulk, in the first cells of an array.
+	 * @param words - the array which receives the words.
+	 * @param length - the number of words to read.
+	 * @throws IOException if the checkpoint is truncated.
+	 */
+	public void readLongs(long[] words, int length) throws IOException {
+		int offset = 0;
+		while(offset < length) {
+			this.fill(Long.BYTES);
+			int count = Math.min(this.buffer.remaining() / Long.BYTES, length - offset);
+			this.buffer.asLongBuffer().get(words, offset, count);
+			this.buffer.position(this.buffer.position() + count * Long.BYTES);
+			offset += count;
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+	
+	/**
+	 * Read the file until at least the given number of bytes are available in the buffer.
+	 * @param size - the number of bytes needed.
+	 * @throws IOException if the end of the file is reached before.
+	 */
+	private void fill(int size) throws IOException {
+		if(this.buffer.remaining() >= size) {
+			return;
+		}
+		
+		this.buffer.compact();
+		
+		while(this.buffer.position() < size) {
+			if(this.channel.read(this.buffer) < 0) {
+				throw new EOFException("Truncated checkpoint.");
+			}
+		}
+		
+		this.buffer.flip();
+	}
+	
+}
@@ -0,0 +1,186 @@
+package cellularAutomaton.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class CheckpointWriter implements Closeable {
+	
+	// Constants :
+	
+	private static final int BUFFER_SIZE = 1 << 20;
+	
+	// Fields :
+	
+	private final File file;
+	private final File tempFile;
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	private boolean committed = false;
+	
+	// Constructors :
+	
+	/**
+	 * Open a checkpoint for writing.<br />
+	 * The data is written in a temporary file next to the checkpoint, which only replaces the checkpoint when it is committed,
+	 * so a run which dies while writing never leaves a truncated checkpoint.
+	 * @param path - the path of the checkpoint.
+	 * @throws IOException if the temporary file can't be created.
+	 */
+	public CheckpointWriter(String path) throws IOException {
+		this.file = new File(path).getAbsoluteFile();
+		this.tempFile = new File(this.file.getPath() + ".tmp");
+		this.channel = FileChannel.open(this.tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+	
+	// Methods :
+	
+	public void writeBoolean(boolean value) throws IOException {
+		this.reserve(1);
+		this.buffer.put((byte) (value ? 1 : 0));
+	}
+	
+	public void writeInt(int value) throws IOException {
+		this.reserve(Integer.BYTES);
+		this.buffer.putInt(value);
+	}
+	
+	public void writeLong(long value) throws IOException {
+		this.reserve(Long.BYTES);
+		this.buffer.putLong(value);
+	}
+	
+	public void writeDouble(double value) throws IOException {
+		this.reserve(Double.BYTES);
+		this.buffer.putDouble(value);
+	}
+	
+	/**
+	 * Write a string, as its length followed by its UTF-8 bytes.
+	 * @param value - the string.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	public void writeString(String value) throws IOException {
+		this.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Write an array of bytes, as its length followed by the bytes.
+	 * @param values - the bytes.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	public void writeBytes(byte[] values) throws IOException {
+		this.writeInt(values.length);
+		
+		int offset = 0;
+		while(offset < values.length) {
+			this.reserve(1);
+			int length = Math.min(this.buffer.remaining(), values.length - offset);
+			this.buffer.put(values, offset, length);
+			offset += length;
+		}
+	}
+	
+	/**
+	 * Write the first words of an array, in bulk. The length is not written: the reader must know it.
+	 * @param words - the words.
+	 * @param length - the number of words to write.
+	 * @throws IOException if the checkpoint can't be written.
+	 */
+	public void writeLongs(long[] words, int length) throws IOException {
+		int offset = 0;
+		while(offset < length) {
+			this.reserve(Long.BYTES);
+			int count = Math.min(this.buffer.remaining() / Long.BYTES, length - offset);
+			this.buffer.asLongBuffer().put(words, offset, count);
+			this.buffer.position(this.buffer.position() + count * Long.BYTES);
+			offset += count;
+		}
+	}
+	
+	/**
+	 * Flush the data, force it to the disk, then atomically replace the checkpoint by the temporary file.
+	 * @throws IOException if the checkpoint can't be written or replaced.
+	 */
+	public void commit() throws IOException {
+		this.flush();
+		this.channel.force(false);
+		this.channel.close();
+		Files.move(this.tempFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.committed = true;
+	}
+	
+	/**
+	 * Close the checkpoint. If it was not committed, the temporary file is deleted and the previous checkpoint is kept.
+	 * @throws IOException if the file can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(!this.committed) {
+			this.channel.close();
+			Files.deleteIfExists(this.tempFile.toPath());
+		}
+	}
+	
+	/**
+	 * Make room in the buffer, flushing it if less than the given number of bytes remain.
+	 * @param size - the number of bytes to reserve.
+	 * @throws IOException if the buffer can't be flushed.
+	 */
+	private void reserve(int size) throws IOException {
+		if(this.buffer.remaining() < size) {
+			this.flush();
+		}
+	}
+	
+	/**
+	 * Write the content of the buffer to the file.
+	 * @throws IOException if the file can't be written.
+	 */
+	private void flush() throws IOException {
+		this.buffer.flip();
+		
+		while(this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+		
+		this.buffer.clear();
+	}
+	
+}
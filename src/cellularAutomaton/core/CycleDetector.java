@@ -0,0 +1,132 @@
+package cellularAutomaton.core;
+
+import java.util.Arrays;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+class CycleDetector {
+	
+	// Constants :
+	
+	private static final int HISTORY_SIZE = 64;
+	
+	// Fields :
+	
+	private final long[] hashes = new long[HISTORY_SIZE];
+	private final long[] iterations = new long[HISTORY_SIZE];
+	private int nbHashes = 0;
+	private int next = 0;
+	
+	private long period = 0;
+	private long candidateIteration;
+	private boolean proven = false;
+	private long[] frame;
+	private long[] checkFrame;
+	
+	// Constructors :
+	
+	/**
+	 * Build a cycle detector with an empty history.
+	 */
+	CycleDetector() {
+		// Nothing here.
+	}
+	
+	// Methods :
+	
+	/**
+	 * Forget the grids of the previous launch.
+	 */
+	void reset() {
+		this.nbHashes = 0;
+		this.next = 0;
+		this.period = 0;
+		this.proven = false;
+	}
+	
+	/**
+	 * Register the grid of the actual iteration, and return the period of the launch once it is proven.<br />
+	 * A grid whose hash was seen during the recent iterations gives a candidate period, the shortest one. The grid is then copied,
+	 * and the period is proven if the grid is exactly the same one period later, so a collision of the hashes is never trusted.
+	 * @param ca - the CA, which must be deterministic.
+	 * @return the period of the launch, in iterations, or 0 if the launch is not known to be periodic.
+	 */
+	long update(CellularAutomaton<?> ca) {
+		if(this.proven) {
+			return this.period;
+		}
+		
+		long iteration = ca.getNbIteration();
+		
+		if(this.period > 0) {
+			if(iteration < this.candidateIteration + this.period) {
+				return 0;
+			}
+			
+			if(iteration == this.candidateIteration + this.period) {
+				ca.readFrame(this.checkFrame);
+				
+				if(Arrays.equals(this.frame, this.checkFrame)) {
+					this.proven = true;
+					return this.period;
+				}
+			}
+			
+			this.period = 0;
+		}
+		
+		long hash = ca.getGridHash();
+		
+		for(int k = 1; k <= this.nbHashes; k++) {
+			int index = (this.next - k + HISTORY_SIZE) % HISTORY_SIZE;
+			
+			if(this.hashes[index] == hash) {
+				this.period = iteration - this.iterations[index];
+				this.candidateIteration = iteration;
+				
+				if(this.frame == null || this.frame.length != ca.getFrameSize()) {
+					this.frame = new long[ca.getFrameSize()];
+					this.checkFrame = new long[ca.getFrameSize()];
+				}
+				
+				ca.readFrame(this.frame);
+				break;
+			}
+		}
+		
+		this.hashes[this.next] = hash;
+		this.iterations[this.next] = iteration;
+		this.next = (this.next + 1) % HISTORY_SIZE;
+		this.nbHashes = Math.min(this.nbHashes + 1, HISTORY_SIZE);
+		
+		return 0;
+	}
+	
+}
@@ -0,0 +1,51 @@
+package cellularAutomaton.core;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public interface GenerationBuffer {
+	
+	/**
+	 * Return the generation stored in this buffer.
+	 * @return the number of the generation, or -1 if the buffer doesn't hold a complete generation.
+	 */
+	long getGeneration();
+	
+	/**
+	 * Change the generation stored in this buffer. Must be called once the whole generation is written.
+	 * @param generation - the number of the generation, or -1 before the buffer is overwritten.
+	 */
+	void setGeneration(long generation);
+	
+	/**
+	 * Release the resources used by the buffer. The buffer must not be used anymore.
+	 */
+	void close();
+	
+}
@@ -0,0 +1,166 @@
+package cellularAutomaton.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class LatencyHistogram {
+	
+	// Constants :
+	
+	public static final int NB_BUCKETS = 64;
+	
+	// Fields :
+	
+	private final AtomicLongArray buckets = new AtomicLongArray(NB_BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	
+	// Getters :
+	
+	/**
+	 * Return the number of measures.
+	 * @return the number of measures.
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+	
+	/**
+	 * Return the mean duration of the measures.
+	 * @return the mean duration, in nano-seconds, or 0 if nothing was measured.
+	 */
+	public double getMeanNanos() {
+		long count = this.count.get();
+		return (count > 0) ? this.totalNanos.get() / (double) count : 0.0;
+	}
+	
+	/**
+	 * Return the median duration of the measures, rounded up to the bound of its bucket.
+	 * @return the median duration, in nano-seconds.
+	 */
+	public long getMedianNanos() {
+		return this.getPercentileNanos(0.5);
+	}
+	
+	/**
+	 * Return the 99th percentile of the durations, rounded up to the bound of its bucket.
+	 * @return the 99th percentile, in nano-seconds.
+	 */
+	public long getP99Nanos() {
+		return this.getPercentileNanos(0.99);
+	}
+	
+	/**
+	 * Return the longest duration measured.
+	 * @return the longest duration, in nano-seconds.
+	 */
+	public long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+	
+	/**
+	 * Return the number of measures in each bucket. The bucket k holds the durations lower than 2^k nano-seconds,
+	 * and greater or equal to 2^(k-1) nano-seconds.
+	 * @return the counts of the buckets.
+	 */
+	public long[] getBuckets() {
+		long[] buckets = new long[NB_BUCKETS];
+		
+		for(int k = 0; k < NB_BUCKETS; k++) {
+			buckets[k] = this.buckets.get(k);
+		}
+		
+		return buckets;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Return a percentile of the durations, rounded up to the bound of its bucket, and never greater than the longest duration.
+	 * @param fraction - the fraction of the measures which are lower or equal to the percentile, between 0 and 1.
+	 * @return the percentile, in nano-seconds, or 0 if nothing was measured.
+	 */
+	public long getPercentileNanos(double fraction) {
+		long[] buckets = this.getBuckets();
+		long total = 0;
+		
+		for(long bucket : buckets) {
+			total += bucket;
+		}
+		
+		long rank = (long) Math.ceil(fraction * total);
+		long cumulated = 0;
+		
+		for(int k = 0; k < NB_BUCKETS; k++) {
+			cumulated += buckets[k];
+			
+			if(cumulated >= rank && cumulated > 0) {
+				return Math.min((1L << k) - 1, this.maxNanos.get());
+			}
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Add a measure. This method is lock-free, and can be called by several threads.
+	 * @param nanos - the measured duration, in nano-seconds.
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(nanos, 0);
+		int bucket = Math.min(64 - Long.numberOfLeadingZeros(nanos), NB_BUCKETS - 1);
+		
+		this.buckets.incrementAndGet(bucket);
+		this.count.incrementAndGet();
+		this.totalNanos.addAndGet(nanos);
+		
+		long max = this.maxNanos.get();
+		while(nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+			max = this.maxNanos.get();
+		}
+	}
+	
+	/**
+	 * Forget all the measures.
+	 */
+	public void reset() {
+		for(int k = 0; k < NB_BUCKETS; k++) {
+			this.buckets.set(k, 0);
+		}
+		
+		this.count.set(0);
+		this.totalNanos.set(0);
+		this.maxNanos.set(0);
+	}
+	
+}
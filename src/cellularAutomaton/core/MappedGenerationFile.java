@@ -0,0 +1,262 @@
+package cellularAutomaton.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class MappedGenerationFile {
+	
+	// Constants :
+	
+	private static final int HEADER_SIZE = 32;
+	private static final int HEIGHT_POSITION = 8;
+	private static final int WIDTH_POSITION = 12;
+	private static final int GENERATION_POSITION = 16;
+	private static final int NB_PLANES_POSITION = 24;
+	private static final long MAX_SEGMENT_SIZE = 1L << 30;
+	
+	// Fields :
+	
+	private final RandomAccessFile file;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer[] mappings;
+	private final LongBuffer[] segments;
+	private final int nbWords;
+	private final int rowsPerSegment;
+	private final boolean resumed;
+	private final long syncPeriod;
+	private long lastSync;
+	private boolean stamped = true;
+	
+	// Constructors :
+	
+	/**
+	 * Open the file of a generation buffer, whose rows of words are stored one after the other after a header.<br />
+	 * If resume is true and the file already holds a complete generation of a buffer of the same kind and size, this generation is kept.
+	 * Otherwise the file is emptied, and all its words are 0.<br />
+	 * A generation is only marked complete in the file once its rows are forced to the disk, at most once per sync period,
+	 * so a generation found in the file survives a crash of the host, and not only of the JVM.
+	 * @param path - the file where the buffer is stored.
+	 * @param magic - the number identifying the kind of buffer stored in the file.
+	 * @param height - the row count of a plane.
+	 * @param width - the column count.
+	 * @param nbPlanes - the number of planes, each one made of height rows.
+	 * @param nbWords - the number of words of a row.
+	 * @param resume - true if the content of the file must be kept when possible.
+	 * @param syncPeriod - the minimal time between two generations marked complete in the file, in seconds.
+	 * @throws IOException if the file can't be opened or mapped.
+	 */
+	public MappedGenerationFile(File path, long magic, int height, int width, int nbPlanes, int nbWords, boolean resume, int syncPeriod) throws IOException {
+		this.nbWords = nbWords;
+		this.syncPeriod = syncPeriod * 1000000000L;
+		this.lastSync = System.nanoTime();
+		
+		long rowSize = (long) nbWords * Long.BYTES;
+		long nbRows = (long) nbPlanes * height;
+		long size = HEADER_SIZE + rowSize * nbRows;
+		
+		this.file = new RandomAccessFile(path, "rw");
+		
+		try {
+			boolean sameBuffer = this.file.length() == size && this.readHeader(magic, height, width, nbPlanes);
+			this.resumed = resume && sameBuffer;
+			
+			if(!this.resumed) {
+				this.file.setLength(0);
+				this.file.setLength(size);
+			}
+			
+			FileChannel channel = this.file.getChannel();
+			
+			this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			this.header.order(ByteOrder.nativeOrder());
+			
+			this.rowsPerSegment = (int) Math.max(1, MAX_SEGMENT_SIZE / rowSize);
+			this.mappings = new MappedByteBuffer[(int) ((nbRows + this.rowsPerSegment - 1) / this.rowsPerSegment)];
+			this.segments = new LongBuffer[this.mappings.length];
+			
+			for(int s = 0; s < this.segments.length; s++) {
+				long position = HEADER_SIZE + rowSize * s * this.rowsPerSegment;
+				long length = rowSize * Math.min(this.rowsPerSegment, nbRows - (long) s * this.rowsPerSegment);
+				this.mappings[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+				this.segments[s] = this.mappings[s].order(ByteOrder.nativeOrder()).asLongBuffer();
+			}
+		}
+		catch(IOException argh) {
+			this.file.close();
+			throw argh;
+		}
+		
+		if(!this.resumed) {
+			this.header.putLong(0, magic);
+			this.header.putInt(HEIGHT_POSITION, height);
+			this.header.putInt(WIDTH_POSITION, width);
+			this.header.putInt(NB_PLANES_POSITION, nbPlanes);
+			this.stamp(-1);
+		}
+	}
+	
+	// Getters :
+	
+	/**
+	 * Indicate if the content of the file was kept when it was opened.
+	 * @return true if the file holds the generation found when it was opened, else false.
+	 */
+	public boolean isResumed() {
+		return this.resumed;
+	}
+	
+	/**
+	 * Return the generation marked complete in the file.
+	 * @return the number of the generation, or -1 if the file doesn't hold a complete generation.
+	 */
+	public long getGeneration() {
+		return this.header.getLong(GENERATION_POSITION);
+	}
+	
+	/**
+	 * Return a word of a row.
+	 * @param row - the index of the row, counted from the first row of the first plane.
+	 * @param w - the index of the word in the row.
+	 * @return the word.
+	 */
+	public long getWord(long row, int w) {
+		return this.segments[(int) (row / this.rowsPerSegment)].get((int) (row % this.rowsPerSegment) * this.nbWords + w);
+	}
+	
+	/**
+	 * Return a view of the words of a row, from its first word to its last one.
+	 * @param row - the index of the row, counted from the first row of the first plane.
+	 * @return the view of the row.
+	 */
+	public LongBuffer getRowBuffer(long row) {
+		LongBuffer segment = this.segments[(int) (row / this.rowsPerSegment)].duplicate();
+		int position = (int) (row % this.rowsPerSegment) * this.nbWords;
+		segment.limit(position + this.nbWords);
+		segment.position(position);
+		return segment;
+	}
+	
+	// Setters :
+	
+	/**
+	 * Change a word of a row.
+	 * @param row - the index of the row, counted from the first row of the first plane.
+	 * @param w - the index of the word in the row.
+	 * @param word - the new word.
+	 */
+	public void setWord(long row, int w, long word) {
+		this.segments[(int) (row / this.rowsPerSegment)].put((int) (row % this.rowsPerSegment) * this.nbWords + w, word);
+	}
+	
+	/**
+	 * Change the generation found in the header of the file, when it is safe.<br />
+	 * Before the rows are written, the generation found in the file is forced to -1, so a partly written generation is never resumed.
+	 * Once the sync period is elapsed, a complete generation is forced to the disk, then marked complete in the file.
+	 * @param generation - the number of the generation held by the rows, or -1 if the rows are about to be written.
+	 */
+	public void setGeneration(long generation) {
+		if(generation < 0 ? this.stamped : System.nanoTime() - this.lastSync >= this.syncPeriod) {
+			this.stamp(generation);
+		}
+	}
+	
+	// Methods :
+	
+	/**
+	 * Set all the words of the file to 0.
+	 */
+	public void clear() {
+		for(LongBuffer segment : this.segments) {
+			for(int i = 0; i < segment.capacity(); i++) {
+				segment.put(i, 0);
+			}
+		}
+	}
+	
+	/**
+	 * Mark the last complete generation in the file, then close it.
+	 * @param generation - the number of the generation held by the rows, or -1 if they don't hold a complete generation.
+	 */
+	public void close(long generation) {
+		if(!this.stamped && generation >= 0) {
+			this.stamp(generation);
+		}
+		
+		try {
+			this.file.close();
+		}
+		catch(IOException argh) {
+			argh.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Write the generation in the header of the file, and force it to the disk.<br />
+	 * A complete generation is only written once all its rows are forced to the disk, so the OS never writes the header before them.
+	 * @param generation - the number of the generation, or -1 if the rows are about to be written.
+	 */
+	private void stamp(long generation) {
+		if(generation >= 0) {
+			for(MappedByteBuffer mapping : this.mappings) {
+				mapping.force();
+			}
+			
+			this.lastSync = System.nanoTime();
+		}
+		
+		this.header.putLong(GENERATION_POSITION, generation);
+		this.header.force();
+		this.stamped = generation >= 0;
+	}
+	
+	/**
+	 * Check that the header of the file describes a complete generation of a buffer of the given kind and size.
+	 * @param magic - the number identifying the kind of buffer.
+	 * @param height - the row count of a plane.
+	 * @param width - the column count.
+	 * @param nbPlanes - the number of planes.
+	 * @return true if the file holds a complete generation of such a buffer, else false.
+	 * @throws IOException if the file can't be read.
+	 */
+	private boolean readHeader(long magic, int height, int width, int nbPlanes) throws IOException {
+		MappedByteBuffer buffer = this.file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		buffer.order(ByteOrder.nativeOrder());
+		return buffer.getLong(0) == magic && buffer.getInt(HEIGHT_POSITION) == height && buffer.getInt(WIDTH_POSITION) == width
+			&& buffer.getInt(NB_PLANES_POSITION) == nbPlanes && buffer.getLong(GENERATION_POSITION) >= 0;
+	}
+	
+}
@@ -0,0 +1,222 @@
+package cellularAutomaton.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class SweepScheduler {
+	
+	// Fields :
+	
+	private final CellularAutomaton<?> ca;
+	private final UpdateTask task;
+	
+	private final List<ForkJoinTask<?>> launches = new ArrayList<ForkJoinTask<?>>();
+	private AtomicReferenceArray<double[]> stats;
+	private int nbRegistered = 0;
+	private boolean variationStarted;
+	
+	private volatile RuntimeException failure = null;
+	private volatile boolean cancelled = false;
+	
+	// Constructors :
+	
+	/**
+	 * Build a sweep scheduler for the statistics loop of a CA.
+	 * @param ca - the CA whose variations and launches have to be run.
+	 * @param task - the task which runs the updates of the CA, woken up each time a launch terminates.
+	 */
+	SweepScheduler(CellularAutomaton<?> ca, UpdateTask task) {
+		this.ca = ca;
+		this.task = task;
+	}
+	
+	// Getters :
+	
+	/**
+	 * Indicate if the sweep has been cancelled.
+	 * @return true if the sweep has been cancelled, else false.
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Submit all the launches of all the variations of the CA to run in parallel, each one on its own copy of the CA,
+	 * with its own random generator, seeded with the seed of the launch derived from the master seed of the CA.<br />
+	 * The launches don't wait for each other: the task of the CA is woken up each time one of them terminates, so it can register it.
+	 * When the sweep is resumed from a checkpoint, only the launches which were not registered yet are run.
+	 * @param resumed - true if the counters of the CA were restored from a checkpoint, and the parameters of the actual variation are already set.
+	 */
+	void start(boolean resumed) {
+		int nbLaunch = (this.ca.getMaxNbVariation() - this.ca.getNbVariation()) * this.ca.getMaxNbLaunch() - this.ca.getNbLaunch();
+		
+		this.stats = new AtomicReferenceArray<double[]>(Math.max(nbLaunch, 0));
+		this.variationStarted = resumed;
+		
+		for(int v = this.ca.getNbVariation(); v < this.ca.getMaxNbVariation(); v++) {
+			for(int l = (v == this.ca.getNbVariation() ? this.ca.getNbLaunch() : 0); l < this.ca.getMaxNbLaunch(); l++) {
+				final int index = this.launches.size();
+				final int variation = v;
+				final long seed = this.ca.getLaunchSeed(v, l);
+				
+				this.launches.add(CellularAutomaton.POOL.submit(new Runnable() {
+					
+					@Override
+					public void run() {
+						SweepScheduler.this.completeLaunch(index, variation, seed);
+					}
+					
+				}));
+			}
+		}
+	}
+	
+	/**
+	 * Register in the CA the stats of the launches which are terminated, in the same order than the statistics loop,
+	 * so the results are the same than the statistics loop, and only depend on the master seed of the CA.<br />
+	 * It never waits for a launch: it returns as soon as the next launch is still running, and it is called again when it terminates.
+	 * A checkpoint can be written after each registered launch.
+	 * @param end - the date when the time slice of the task is over, in nano-seconds.
+	 * @return true if all the variations are done, else false.
+	 */
+	boolean registerLaunches(long end) {
+		while(this.ca.getNbVariation() < this.ca.getMaxNbVariation()) {
+			if(!this.variationStarted) {
+				this.ca.varyParameters();
+				this.variationStarted = true;
+			}
+			
+			while(this.ca.getNbLaunch() < this.ca.getMaxNbLaunch()) {
+				if(this.failure != null) {
+					this.cancel();
+					throw new IllegalStateException("A launch of the sweep failed.", this.failure);
+				}
+				
+				double[] stats = this.stats.getAndSet(this.nbRegistered, null);
+				
+				if(stats == null) {
+					return false;
+				}
+				
+				this.nbRegistered++;
+				this.ca.addLaunchStats(stats);
+				this.ca.notifyObservers();
+				this.ca.checkpointIfDue(false);
+				
+				if(System.nanoTime() >= end) {
+					this.task.wake();
+					return false;
+				}
+			}
+			
+			this.ca.registerStatsForVariation();
+			this.variationStarted = false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Run one launch, keep its stats or its failure, then wake up the task of the CA.
+	 * @param index - the index of the launch in the sweep.
+	 * @param variation - the index of the variation.
+	 * @param seed - the seed of the random generator of the launch.
+	 */
+	private void completeLaunch(int index, int variation, long seed) {
+		try {
+			double[] stats = this.runLaunch(variation, seed);
+			
+			if(stats != null) {
+				this.stats.set(index, stats);
+			}
+		}
+		catch(RuntimeException argh) {
+			this.failure = argh;
+		}
+		
+		this.task.wake();
+	}
+	
+	/**
+	 * Run one launch on a copy of the CA.
+	 * @param variation - the index of the variation.
+	 * @param seed - the seed of the random generator of the launch.
+	 * @return the stats of the launch, or null if the sweep has been cancelled.
+	 */
+	protected double[] runLaunch(int variation, long seed) {
+		if(this.isCancelled()) {
+			return null;
+		}
+		
+		CellularAutomaton<?> worker = this.ca.createWorker();
+		worker.seedRandom(seed);
+		worker.setNbVariation(variation);
+		worker.varyParameters();
+		worker.buildGrid();
+		
+		while(worker.getNbIteration() < worker.getFirstIteration()) {
+			if(this.isCancelled()) {
+				return null;
+			}
+			worker.updateGrid();
+			worker.skipPeriods(worker.getFirstIteration(), false);
+		}
+		
+		while(worker.getNbIteration() < worker.getFirstIteration() + worker.getMaxNbIteration()) {
+			if(this.isCancelled()) {
+				return null;
+			}
+			worker.updateGrid();
+			worker.updateStats();
+			worker.skipPeriods(worker.getFirstIteration() + worker.getMaxNbIteration(), true);
+		}
+		
+		return worker.collectLaunchStats();
+	}
+	
+	/**
+	 * Cancel the launches which are not terminated.
+	 */
+	void cancel() {
+		this.cancelled = true;
+		
+		for(ForkJoinTask<?> launch : this.launches) {
+			launch.cancel(false);
+		}
+	}
+	
+}
@@ -0,0 +1,298 @@
+package cellularAutomaton.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class TrajectoryReader implements Closeable {
+	
+	// Constants :
+	
+	private static final int INDEX_ENTRY_SIZE = Long.BYTES + 1 + Integer.BYTES + Integer.BYTES + Long.BYTES;
+	private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES;
+	
+	// Fields :
+	
+	private final RandomAccessFile file;
+	private final String type;
+	private final int height;
+	private final int width;
+	private final int frameSize;
+	private final boolean deflate;
+	
+	private final long[] positions;
+	private final boolean[] keyframes;
+	private final int[] variations;
+	private final int[] launches;
+	private final long[] generations;
+	
+	private final Inflater inflater = new Inflater();
+	private final ByteBuffer bytes;
+	private final long[] current;
+	private final long[] delta;
+	private int currentFrame = -1;
+	
+	// Constructors :
+	
+	/**
+	 * Open a trajectory written by a TrajectoryRecorder, and read its index.
+	 * @param path - the path of the file.
+	 * @throws IOException if the file can't be read, or is not a complete trajectory.
+	 */
+	public TrajectoryReader(String path) throws IOException {
+		this.file = new RandomAccessFile(path, "r");
+		
+		try {
+			if(this.file.readLong() != TrajectoryRecorder.MAGIC || this.file.readInt() != TrajectoryRecorder.VERSION) {
+				throw new IOException("Not a trajectory, or a trajectory of an unsupported version.");
+			}
+			
+			this.type = this.file.readUTF();
+			this.height = this.file.readInt();
+			this.width = this.file.readInt();
+			this.frameSize = this.file.readInt();
+			this.file.readInt();
+			this.deflate = this.file.readBoolean();
+			
+			this.file.seek(this.file.length() - TRAILER_SIZE);
+			long indexPosition = this.file.readLong();
+			int nbFrames = this.file.readInt();
+			
+			if(this.file.readLong() != TrajectoryRecorder.TRAILER_MAGIC || nbFrames < 0 || indexPosition + (long) nbFrames * INDEX_ENTRY_SIZE + TRAILER_SIZE != this.file.length()) {
+				throw new IOException("The trajectory has no index: the recorder was not closed.");
+			}
+			
+			this.positions = new long[nbFrames];
+			this.keyframes = new boolean[nbFrames];
+			this.variations = new int[nbFrames];
+			this.launches = new int[nbFrames];
+			this.generations = new long[nbFrames];
+			
+			this.file.seek(indexPosition);
+			
+			for(int k = 0; k < nbFrames; k++) {
+				this.positions[k] = this.file.readLong();
+				this.keyframes[k] = this.file.readBoolean();
+				this.variations[k] = this.file.readInt();
+				this.launches[k] = this.file.readInt();
+				this.generations[k] = this.file.readLong();
+			}
+		}
+		catch(IOException argh) {
+			this.file.close();
+			throw argh;
+		}
+		
+		this.bytes = ByteBuffer.allocate(TrajectoryRecorder.getMaxEncodedSize(this.frameSize)).order(ByteOrder.LITTLE_ENDIAN);
+		this.current = new long[this.frameSize];
+		this.delta = new long[this.frameSize];
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the name of the class of the recorded CA.
+	 * @return the type of the CA.
+	 */
+	public String getType() {
+		return this.type;
+	}
+	
+	public int getHeight() {
+		return this.height;
+	}
+	
+	public int getWidth() {
+		return this.width;
+	}
+	
+	/**
+	 * Return the number of words of a frame. The cells are packed like in CellularAutomaton.readFrame.
+	 * @return the size of a frame, in words.
+	 */
+	public int getFrameSize() {
+		return this.frameSize;
+	}
+	
+	public int getNbFrames() {
+		return this.generations.length;
+	}
+	
+	public int getVariation(int frame) {
+		return this.variations[frame];
+	}
+	
+	public int getLaunch(int frame) {
+		return this.launches[frame];
+	}
+	
+	public long getGeneration(int frame) {
+		return this.generations[frame];
+	}
+	
+	public boolean isKeyframe(int frame) {
+		return this.keyframes[frame];
+	}
+	
+	// Methods :
+	
+	/**
+	 * Decode a frame. Reading the frames in order only decodes one delta by frame,
+	 * otherwise the decoding starts from the last keyframe before the frame.
+	 * @param frame - the index of the frame.
+	 * @param words - the array which receives the packed cells, of getFrameSize() words.
+	 * @throws IOException if the frame can't be read.
+	 */
+	public void readFrame(int frame, long[] words) throws IOException {
+		if(frame != this.currentFrame) {
+			int first = frame;
+			
+			while(!this.keyframes[first] && first != this.currentFrame + 1) {
+				first--;
+			}
+			
+			for(int k = first; k <= frame; k++) {
+				if(this.keyframes[k]) {
+					this.inflate(k, this.current);
+				}
+				else {
+					this.inflate(k, this.delta);
+					
+					for(int w = 0; w < this.frameSize; w++) {
+						this.current[w] ^= this.delta[w];
+					}
+				}
+				
+				this.currentFrame = k;
+			}
+		}
+		
+		System.arraycopy(this.current, 0, words, 0, this.frameSize);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.inflater.end();
+		this.file.close();
+	}
+	
+	/**
+	 * Read and decode the words of a frame, without applying the delta.
+	 * @param frame - the index of the frame.
+	 * @param words - the array which receives the words.
+	 * @throws IOException if the frame can't be read or is corrupted.
+	 */
+	private void inflate(int frame, long[] words) throws IOException {
+		this.file.seek(this.positions[frame]);
+		int length = this.file.readInt();
+		
+		if(length < 0 || length > this.file.length()) {
+			throw new IOException("Corrupted frame " + frame + ".");
+		}
+		
+		byte[] data = new byte[length];
+		this.file.readFully(data);
+		this.bytes.clear();
+		
+		if(this.deflate) {
+			this.inflater.reset();
+			this.inflater.setInput(data);
+			
+			try {
+				while(this.bytes.hasRemaining() && !this.inflater.finished()) {
+					int count = this.inflater.inflate(this.bytes.array(), this.bytes.position(), this.bytes.remaining());
+					
+					if(count == 0 && this.inflater.needsInput()) {
+						break;
+					}
+					
+					this.bytes.position(this.bytes.position() + count);
+				}
+			}
+			catch(DataFormatException argh) {
+				throw new IOException("Corrupted frame " + frame + ".", argh);
+			}
+		}
+		else {
+			if(length > this.bytes.capacity()) {
+				throw new IOException("Corrupted frame " + frame + ".");
+			}
+			
+			this.bytes.put(data);
+		}
+		
+		this.bytes.flip();
+		
+		try {
+			int w = 0;
+			while(w < this.frameSize) {
+				int zeros = getCount(this.bytes);
+				Arrays.fill(words, w, w + zeros, 0);
+				w += zeros;
+				
+				int nonZeros = getCount(this.bytes);
+				for(int k = 0; k < nonZeros; k++) {
+					words[w++] = this.bytes.getLong();
+				}
+			}
+		}
+		catch(RuntimeException argh) {
+			throw new IOException("Corrupted frame " + frame + ".", argh);
+		}
+	}
+	
+	/**
+	 * Read a count written 7 bits per byte.
+	 * @param source - the buffer.
+	 * @return the count.
+	 */
+	private static int getCount(ByteBuffer source) {
+		int count = 0;
+		int shift = 0;
+		byte b;
+		
+		do {
+			b = source.get();
+			count |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while((b & 0x80) != 0);
+		
+		return count;
+	}
+	
+}
@@ -0,0 +1,423 @@
+package cellularAutomaton.core;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class TrajectoryRecorder implements GenerationListener {
+	
+	// Constants :
+	
+	static final long MAGIC = 0x4341545241434B31L;
+	static final long TRAILER_MAGIC = 0x43414E4445583031L;
+	static final int VERSION = 1;
+	
+	private static final int MIN_NB_BUFFERS = 2;
+	private static final int MIN_KEYFRAME_PERIOD = 1;
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+	private static final long MAX_BUFFER_WAIT = 60;
+	
+	// Fields :
+	
+	private final CellularAutomaton<?> ca;
+	private final int frameSize;
+	private final int keyframePeriod;
+	private final boolean deflate;
+	private final boolean dropLate;
+	
+	private final BlockingQueue<TrajectoryFrame> freeBuffers;
+	private final BlockingQueue<TrajectoryFrame> frames;
+	private final Thread writerThread;
+	private final long[] rowVersions;
+	private long version = 0;
+	
+	private final DataOutputStream out;
+	private long position = 0;
+	private final DataOutputStream index;
+	private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream compressedFrame = new ByteArrayOutputStream();
+	private int nbFrames = 0;
+	
+	private volatile long nbDroppedFrames = 0;
+	private volatile IOException error = null;
+	private boolean closed = false;
+	
+	// Constructors :
+	
+	/**
+	 * Start recording the trajectory of a CA in a file: from now, each generation of the CA is copied in a buffer,
+	 * and a background thread writes it in the file as a compressed XOR delta against the previous recorded generation.
+	 * The frames are compressed by run-length encoding of the zero words, which is cheap and efficient on the deltas,
+	 * then optionally with Deflate.<br />
+	 * Only the rows which changed since the generation held by the buffer are copied, so the copy costs little on the simulation thread.<br />
+	 * If all the buffers are in use because the disk or the compression is slower than the CA, the simulation waits for a free buffer,
+	 * so every generation is recorded. A generation is only dropped if no buffer is freed after a minute, or at once if dropLate is true,
+	 * so the recording never blocks the simulation. The dropped generations are counted, and the following delta is simply computed
+	 * against the last recorded generation.
+	 * @param ca - the CA to record. Its grid size must not change until the recorder is closed.
+	 * @param path - the path of the file.
+	 * @param keyframePeriod - the number of frames between two keyframes, which are written whole so the reader can seek.
+	 * @param deflate - true if the frames are compressed with Deflate after the run-length encoding, for smaller files but a slower writer thread.
+	 * @param nbBuffers - the number of generations which can wait to be written.
+	 * @param dropLate - true if the generations are dropped instead of waiting for a free buffer, else false.
+	 * @throws IOException if the file can't be created.
+	 */
+	public TrajectoryRecorder(CellularAutomaton<?> ca, String path, int keyframePeriod, boolean deflate, int nbBuffers, boolean dropLate) throws IOException {
+		if(keyframePeriod < MIN_KEYFRAME_PERIOD) {
+			throw new IllegalArgumentException("The keyframe period must be greater or equals to " + MIN_KEYFRAME_PERIOD + ".");
+		}
+		
+		if(nbBuffers < MIN_NB_BUFFERS) {
+			throw new IllegalArgumentException("The number of buffers must be greater or equals to " + MIN_NB_BUFFERS + ".");
+		}
+		
+		this.ca = ca;
+		this.frameSize = ca.getFrameSize();
+		this.keyframePeriod = keyframePeriod;
+		this.deflate = deflate;
+		this.dropLate = dropLate;
+		this.rowVersions = new long[ca.getHeight()];
+		
+		// One more buffer holds the last written generation, against which the writer thread computes the next delta.
+		this.freeBuffers = new ArrayBlockingQueue<TrajectoryFrame>(nbBuffers + 1);
+		this.frames = new ArrayBlockingQueue<TrajectoryFrame>(nbBuffers + 1);
+		
+		for(int k = 0; k <= nbBuffers; k++) {
+			this.freeBuffers.add(new TrajectoryFrame(new long[this.frameSize], 0, 0, 0, -1));
+		}
+		
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), OUTPUT_BUFFER_SIZE));
+		this.index = new DataOutputStream(this.indexBytes);
+		this.writeHeader();
+		
+		this.writerThread = new Thread("Trajectory recorder") {
+			
+			@Override
+			public void run() {
+				TrajectoryRecorder.this.writeLoop();
+			}
+			
+		};
+		
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+		
+		ca.addGenerationListener(this);
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the number of generations which were not recorded, because the writer thread was late, or because the grid size changed.
+	 * @return the number of dropped generations.
+	 */
+	public long getNbDroppedFrames() {
+		return this.nbDroppedFrames;
+	}
+	
+	/**
+	 * Indicate if the generations are dropped instead of waiting for a free buffer.
+	 * @return true if the late generations are dropped, else false.
+	 */
+	public boolean isDropLate() {
+		return this.dropLate;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Copy the new generation in a free buffer and give it to the writer thread, or drop it if there is no free buffer.<br />
+	 * Each row remembers the last generation seen by the recorder where it changed, so only the rows which changed
+	 * since the generation held by the buffer are copied. The generations of a grid whose size has changed are dropped.
+	 */
+	@Override
+	public void generationDone(CellularAutomaton<?> ca) {
+		if(ca.getFrameSize() != this.frameSize || ca.getHeight() != this.rowVersions.length) {
+			this.nbDroppedFrames++;
+			return;
+		}
+		
+		this.version++;
+		
+		for(int i = 0; i < this.rowVersions.length; i++) {
+			if(ca.isFrameRowChanged(i)) {
+				this.rowVersions[i] = this.version;
+			}
+		}
+		
+		TrajectoryFrame free = this.takeFreeBuffer();
+		
+		if(free == null) {
+			this.nbDroppedFrames++;
+			return;
+		}
+		
+		for(int i = 0; i < this.rowVersions.length; i++) {
+			if(this.rowVersions[i] > free.version) {
+				ca.readFrameRow(i, free.words);
+			}
+		}
+		
+		this.frames.add(new TrajectoryFrame(free.words, ca.getNbVariation(), ca.getNbLaunch(), ca.getNbIteration(), this.version));
+	}
+	
+	/**
+	 * Return a free buffer: wait for the writer thread to free one, at most a minute, unless the late generations are dropped.
+	 * It never waits once the writer thread has failed, because no buffer will be freed anymore.
+	 * @return the free buffer, or null if there is none.
+	 */
+	protected TrajectoryFrame takeFreeBuffer() {
+		if(this.dropLate || this.error != null || !this.writerThread.isAlive()) {
+			return this.freeBuffers.poll();
+		}
+		
+		try {
+			return this.freeBuffers.poll(MAX_BUFFER_WAIT, TimeUnit.SECONDS);
+		}
+		catch(InterruptedException argh) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+	
+	/**
+	 * Stop recording: wait for the writer thread to write the waiting generations, then write the index and close the file.
+	 * @throws IOException if the file can't be written.
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the writer thread.
+	 */
+	public void close() throws IOException, InterruptedException {
+		if(this.closed) {
+			return;
+		}
+		
+		this.closed = true;
+		this.ca.removeGenerationListener(this);
+		this.frames.put(new TrajectoryFrame(null, 0, 0, 0, -1));
+		this.writerThread.join();
+		
+		try {
+			if(this.error == null) {
+				this.writeIndex();
+			}
+		}
+		catch(IOException argh) {
+			this.error = argh;
+		}
+		finally {
+			this.out.close();
+		}
+		
+		if(this.error != null) {
+			throw this.error;
+		}
+	}
+	
+	/**
+	 * The loop of the writer thread: compress and write the frames until the recorder is closed.<br />
+	 * A frame is a keyframe every keyframePeriod frames, and when the generation doesn't follow the previous one (new launch, or new grid).
+	 */
+	protected void writeLoop() {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		ByteBuffer bytes = ByteBuffer.allocate(getMaxEncodedSize(this.frameSize)).order(ByteOrder.LITTLE_ENDIAN);
+		byte[] compressed = new byte[OUTPUT_BUFFER_SIZE];
+		long[] delta = new long[this.frameSize];
+		TrajectoryFrame last = null;
+		int framesSinceKeyframe = 0;
+		
+		try {
+			while(true) {
+				TrajectoryFrame frame = this.frames.take();
+				
+				if(frame.words == null) {
+					break;
+				}
+				
+				boolean keyframe = last == null || framesSinceKeyframe >= this.keyframePeriod - 1 || frame.variation != last.variation || frame.launch != last.launch || frame.generation <= last.generation;
+				framesSinceKeyframe = keyframe ? 0 : framesSinceKeyframe + 1;
+				
+				if(!keyframe) {
+					for(int w = 0; w < this.frameSize; w++) {
+						delta[w] = last.words[w] ^ frame.words[w];
+					}
+				}
+				
+				bytes.clear();
+				encodeZeroRuns(keyframe ? frame.words : delta, bytes);
+				
+				if(this.error == null) {
+					this.writeFrame(frame, keyframe, bytes, deflater, compressed);
+				}
+				
+				// The buffer of the previous frame still holds its generation, so it is given back with its version.
+				if(last != null) {
+					this.freeBuffers.add(last);
+				}
+				last = frame;
+			}
+		}
+		catch(InterruptedException argh) {
+			this.error = new IOException("The trajectory recorder was interrupted.", argh);
+		}
+		catch(IOException argh) {
+			this.error = argh;
+		}
+		finally {
+			deflater.end();
+		}
+	}
+	
+	/**
+	 * Write the header of the file: the type of CA and the size of the grid and of the frames.
+	 * @throws IOException if the file can't be written.
+	 */
+	protected void writeHeader() throws IOException {
+		this.out.writeLong(MAGIC);
+		this.out.writeInt(VERSION);
+		this.out.writeUTF(this.ca.getClass().getName());
+		this.out.writeInt(this.ca.getHeight());
+		this.out.writeInt(this.ca.getWidth());
+		this.out.writeInt(this.frameSize);
+		this.out.writeInt(this.keyframePeriod);
+		this.out.writeBoolean(this.deflate);
+		this.position = this.out.size();
+	}
+	
+	/**
+	 * Return the maximal size of a frame encoded by encodeZeroRuns: the words themselves, plus the counts of the first run.
+	 * @param frameSize - the number of words of the frame.
+	 * @return the maximal size of the encoded frame, in bytes.
+	 */
+	static int getMaxEncodedSize(int frameSize) {
+		return frameSize * Long.BYTES + 16;
+	}
+	
+	/**
+	 * Encode words as a sequence of runs: the number of zero words, the number of non zero words, then the non zero words.
+	 * The counts are written 7 bits per byte, so the encoded words never take more space than the words themselves, except the first counts.
+	 * @param words - the words to encode.
+	 * @param dest - the buffer which receives the encoded words.
+	 */
+	static void encodeZeroRuns(long[] words, ByteBuffer dest) {
+		int w = 0;
+		
+		while(w < words.length) {
+			int start = w;
+			while(w < words.length && words[w] == 0) {
+				w++;
+			}
+			putCount(dest, w - start);
+			
+			start = w;
+			while(w < words.length && words[w] != 0) {
+				w++;
+			}
+			putCount(dest, w - start);
+			
+			for(int k = start; k < w; k++) {
+				dest.putLong(words[k]);
+			}
+		}
+	}
+	
+	/**
+	 * Write a count, 7 bits per byte, the high bit of a byte telling if another byte follows.
+	 * @param dest - the buffer.
+	 * @param count - the count.
+	 */
+	private static void putCount(ByteBuffer dest, int count) {
+		while((count & ~0x7F) != 0) {
+			dest.put((byte) ((count & 0x7F) | 0x80));
+			count >>>= 7;
+		}
+		dest.put((byte) count);
+	}
+	
+	/**
+	 * Compress a frame with Deflate if needed, write it, and register it in the index.
+	 * @param frame - the frame.
+	 * @param keyframe - true if the bytes are the frame itself, false if they are the XOR delta against the previous frame.
+	 * @param bytes - the frame encoded by encodeZeroRuns, from 0 to the position of the buffer.
+	 * @param deflater - the compressor.
+	 * @param compressed - the buffer which receives the compressed bytes.
+	 * @throws IOException if the file can't be written.
+	 */
+	protected void writeFrame(TrajectoryFrame frame, boolean keyframe, ByteBuffer bytes, Deflater deflater, byte[] compressed) throws IOException {
+		this.index.writeLong(this.position);
+		this.index.writeBoolean(keyframe);
+		this.index.writeInt(frame.variation);
+		this.index.writeInt(frame.launch);
+		this.index.writeLong(frame.generation);
+		this.nbFrames++;
+		
+		if(!this.deflate) {
+			this.out.writeInt(bytes.position());
+			this.out.write(bytes.array(), 0, bytes.position());
+			this.position += Integer.BYTES + bytes.position();
+			return;
+		}
+		
+		deflater.reset();
+		deflater.setInput(bytes.array(), 0, bytes.position());
+		deflater.finish();
+		
+		this.compressedFrame.reset();
+		while(!deflater.finished()) {
+			int length = deflater.deflate(compressed);
+			this.compressedFrame.write(compressed, 0, length);
+		}
+		
+		this.out.writeInt(this.compressedFrame.size());
+		this.compressedFrame.writeTo(this.out);
+		this.position += Integer.BYTES + this.compressedFrame.size();
+	}
+	
+	/**
+	 * Write the index of the frames at the end of the file, followed by its position, so a reader can seek to any frame.
+	 * @throws IOException if the file can't be written.
+	 */
+	protected void writeIndex() throws IOException {
+		long indexPosition = this.position;
+		this.indexBytes.writeTo(this.out);
+		this.out.writeLong(indexPosition);
+		this.out.writeInt(this.nbFrames);
+		this.out.writeLong(TRAILER_MAGIC);
+	}
+	
+}
@@ -0,0 +1,140 @@
+package cellularAutomaton.core;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class UpdateClock {
+	
+	// Constants :
+	
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	private static final long RATE_WINDOW = NANOS_PER_SECOND / 2;
+	
+	// Fields :
+	
+	private volatile boolean started = false;
+	private long nextUpdate;
+	private boolean scheduled = false;
+	
+	private long windowStart;
+	private long windowGenerations;
+	private volatile double generationsPerSecond = 0.0;
+	
+	// Getters :
+	
+	/**
+	 * Return the number of generations per second, measured over the last half second.
+	 * @return the actual number of generations per second, or 0 if the clock is not started.
+	 */
+	public double getGenerationsPerSecond() {
+		return this.started ? this.generationsPerSecond : 0.0;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Stop the clock: the next update will be done immediately and will start a new measure of the rate.<br />
+	 * This method can be called from any thread, for example when the CA is paused.
+	 */
+	public void reset() {
+		this.started = false;
+	}
+	
+	/**
+	 * Return the time left before the date of the next update, without waiting.<br />
+	 * The updates are scheduled at a fixed rate from the first one, so the time spent by the transitions is not added to the period.
+	 * If the updates are late by more than one period, the missed updates are dropped instead of being done in a burst.
+	 * The date is computed once per update, so this can be called again after the delay, until the generations are counted.
+	 * @param period - the period between two updates, in nano-seconds.
+	 * @return the time left before the next update, in nano-seconds, or 0 if the update has to be done now.
+	 */
+	public long getUpdateDelay(long period) {
+		long now = System.nanoTime();
+		
+		if(!this.start(now) && !this.scheduled) {
+			this.nextUpdate += period;
+			
+			if(this.nextUpdate < now - period) {
+				this.nextUpdate = now;
+			}
+		}
+		
+		this.scheduled = true;
+		return Math.max(this.nextUpdate - now, 0);
+	}
+	
+	/**
+	 * Do not wait before the next update, but keep measuring the rate.
+	 */
+	public void skipWait() {
+		long now = System.nanoTime();
+		
+		if(!this.start(now)) {
+			this.nextUpdate = now;
+		}
+	}
+	
+	/**
+	 * Register the generations computed by an update, and refresh the rate when the measure window is over.
+	 * @param nbGenerations - the number of generations computed by the update.
+	 */
+	public void countGenerations(int nbGenerations) {
+		long now = System.nanoTime();
+		long elapsed = now - this.windowStart;
+		
+		this.scheduled = false;
+		this.windowGenerations += nbGenerations;
+		
+		if(elapsed >= RATE_WINDOW) {
+			this.generationsPerSecond = this.windowGenerations * (double) NANOS_PER_SECOND / elapsed;
+			this.windowStart = now;
+			this.windowGenerations = 0;
+		}
+	}
+	
+	/**
+	 * Start the clock if it is stopped.
+	 * @param now - the actual time, in nano-seconds.
+	 * @return true if the clock has just been started, else false.
+	 */
+	private boolean start(long now) {
+		if(this.started) {
+			return false;
+		}
+		
+		this.nextUpdate = now;
+		this.scheduled = false;
+		this.windowStart = now;
+		this.windowGenerations = 0;
+		this.generationsPerSecond = 0.0;
+		this.started = true;
+		return true;
+	}
+	
+}
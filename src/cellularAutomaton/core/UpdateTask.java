@@ -0,0 +1,229 @@
+package cellularAutomaton.core;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+class UpdateTask implements Runnable {
+	
+	// Constants :
+	
+	public static final String NB_THREADS_PROPERTY = "cellularAutomaton.updateThreads";
+	
+	static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+	
+	// Fields :
+	
+	private final CellularAutomaton<?> ca;
+	
+	private Future<?> future = null;
+	private Thread runner = null;
+	private boolean scheduled = false;
+	private boolean wakeRequested = false;
+	private long wakeDelay;
+	private volatile boolean cancelled = false;
+	private boolean done = false;
+	
+	// Constructors :
+	
+	/**
+	 * Build the task which updates a CA. It is not submitted until it is woken up.
+	 * @param ca - the CA.
+	 */
+	UpdateTask(CellularAutomaton<?> ca) {
+		this.ca = ca;
+	}
+	
+	// Getters :
+	
+	/**
+	 * Indicate if the task has been cancelled, so the CA must not be updated anymore.
+	 * @return true if the task is cancelled, else false.
+	 */
+	boolean isCancelled() {
+		return this.cancelled;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Create the executor shared by all the CA. Its number of threads is bounded by the system property cellularAutomaton.updateThreads,
+	 * or by the number of processors, whatever the number of CA.
+	 * @return the executor.
+	 */
+	private static ScheduledThreadPoolExecutor createExecutor() {
+		int nbThreads = Runtime.getRuntime().availableProcessors();
+		
+		try {
+			nbThreads = Integer.parseInt(System.getProperty(NB_THREADS_PROPERTY, String.valueOf(nbThreads)));
+		}
+		catch(NumberFormatException argh) {
+			argh.printStackTrace();
+		}
+		
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(nbThreads, 1), new ThreadFactory() {
+			
+			private final AtomicInteger nbCreated = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "CA update " + this.nbCreated.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+			
+		});
+		
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+	
+	/**
+	 * Submit the task to the executor, unless it is already waiting for a thread.
+	 * If the task is running, it is submitted again when it returns, so a CA is never updated by two threads.
+	 */
+	synchronized void wake() {
+		this.schedule(0);
+	}
+	
+	/**
+	 * Submit the task to the executor after a delay, unless it is already waiting for a thread.
+	 * @param delay - the delay, in nano-seconds.
+	 */
+	synchronized void schedule(long delay) {
+		if(this.cancelled || this.done || this.scheduled) {
+			return;
+		}
+		
+		if(this.runner != null) {
+			this.wakeDelay = this.wakeRequested ? Math.min(this.wakeDelay, delay) : delay;
+			this.wakeRequested = true;
+			return;
+		}
+		
+		this.scheduled = true;
+		this.future = EXECUTOR.schedule(this, delay, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Mark the task as done: the CA has nothing left to update.
+	 */
+	synchronized void finish() {
+		this.done = true;
+		this.notifyAll();
+	}
+	
+	/**
+	 * Cancel the task, then wait for the updates in progress to return.
+	 * If they are waiting for something, like a checkpoint being written, they are interrupted.
+	 */
+	synchronized void cancel() {
+		this.cancelled = true;
+		
+		if(this.future != null) {
+			this.future.cancel(false);
+		}
+		
+		if(this.runner == Thread.currentThread()) {
+			return;
+		}
+		
+		if(this.runner != null) {
+			this.runner.interrupt();
+		}
+		
+		boolean interrupted = false;
+		
+		while(this.runner != null) {
+			try {
+				this.wait();
+			}
+			catch(InterruptedException argh) {
+				interrupted = true;
+			}
+		}
+		
+		this.done = true;
+		this.notifyAll();
+		
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Wait until the CA has nothing left to update, or the task is cancelled.
+	 * @throws InterruptedException if the calling thread is interrupted while waiting.
+	 */
+	synchronized void waitEnd() throws InterruptedException {
+		while(!this.done) {
+			this.wait();
+		}
+	}
+	
+	@Override
+	public void run() {
+		synchronized(this) {
+			this.scheduled = false;
+			
+			if(this.cancelled || this.done) {
+				return;
+			}
+			
+			this.runner = Thread.currentThread();
+		}
+		
+		try {
+			this.ca.runUpdates(this);
+		}
+		catch(RuntimeException argh) {
+			argh.printStackTrace();
+			this.finish();
+		}
+		finally {
+			synchronized(this) {
+				this.runner = null;
+				Thread.interrupted();
+				
+				if(this.wakeRequested) {
+					this.wakeRequested = false;
+					this.schedule(this.wakeDelay);
+				}
+				
+				this.notifyAll();
+			}
+		}
+	}
+	
+}
@@ -1,6 +1,15 @@
 package cellularAutomaton.core.binaryCA;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.CheckpointReader;
+import cellularAutomaton.core.CheckpointWriter;
+import cellularAutomaton.core.RowBandTransition;
+import ec.util.MersenneTwisterFast;
 
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
@@ -31,25 +40,52 @@ import cellularAutomaton.core.CellularAutomaton;
  * 
  * @author William Philbert, Kevin Grandemange.
  */
-public abstract class BinaryCA extends CellularAutomaton<Boolean> {
+public abstract class BinaryCA extends CellularAutomaton<BitGrid> {
 	
 	// Constants :
 	
 	public static final double MIN_UPDATE_PROBA = 0.5;
 	public static final double MAX_UPDATE_PROBA = 1.0;
 	
+	public static final int TILE_HEIGHT = 8;
+	
+	private static final int MAX_GRID_SIZE = 1 << 17;
+	private static final double GEOMETRIC_SKIP_PROBA = 1.0 / 32;
+	
 	public static final String PROBA_UPDATE = "Update proba";
 	public static final String LOOP_ON_EDGES = "Loop on edges";
+	public static final String ACTIVE_TILES = "Only update active tiles";
+	public static final String BULK_SAMPLING = "Draw updated cells in bulk";
+	public static final String CYCLE_DETECTION = "End periodic launches early";
 	
 	// Fields :
 	
 	private double probaUpdate;
 	private boolean loop;
+	private boolean activeTiles;
+	private boolean bulkSampling;
+	private boolean cycleDetection;
 	
 	private boolean varyProbaUpdate = false;
 	private double probaUpdate1 = MIN_UPDATE_PROBA;
 	private double probaUpdate2 = MAX_UPDATE_PROBA;
 	
+	private boolean[] birth;
+	private boolean[] survival;
+	
+	private boolean[][] changedTiles;
+	private boolean[][] nextChangedTiles;
+	private boolean[][] activeTilesMask;
+	private boolean[] activeTileRows;
+	private BitGrid tilesTab;
+	private boolean tilesLoop;
+	
+	private long gridHash;
+	private long hashDelta;
+	private BitGrid hashTab;
+	
+	private boolean[] changedRows;
+	
 	// Constructors :
 	
 	protected BinaryCA() {
@@ -98,6 +134,40 @@ public abstract class BinaryCA extends CellularAutomaton<Boolean> {
 		return this.probaUpdate2;
 	}
 	
+	/**
+	 * Indicate if only the tiles which changed during the previous generation, and their neighbors, are updated.
+	 * @return true if the active tiles mode is selected, else false.
+	 */
+	public boolean isActiveTiles() {
+		return this.activeTiles;
+	}
+	
+	/**
+	 * Indicate if the cells which are updated, when the update probability is lower than 1, are drawn in bulk instead of one draw per cell.
+	 * @return true if the cells are drawn in bulk, else false.
+	 */
+	public boolean isBulkSampling() {
+		return this.bulkSampling;
+	}
+	
+	/**
+	 * Indicate if the launches are ended as soon as their grid is fixed or cycles, when the update probability is 1.
+	 * @return true if the periodic launches are ended early, else false.
+	 */
+	public boolean isCycleDetection() {
+		return this.cycleDetection;
+	}
+	
+	/**
+	 * Return the state of a cell.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return true if the cell is alive, else false.
+	 */
+	public boolean getCell(int y, int x) {
+		return this.getTab().get(y, x);
+	}
+	
 	// Setters :
 	
 	/**
@@ -118,6 +188,33 @@ public abstract class BinaryCA extends CellularAutomaton<Boolean> {
 		this.setChanged();
 	}
 	
+	/**
+	 * Change the fact that only the tiles which changed during the previous generation, and their neighbors, are updated.
+	 * @param activeTiles - true if the active tiles mode is selected, else false.
+	 */
+	protected void setActiveTiles(boolean activeTiles) {
+		this.activeTiles = activeTiles;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the fact that the cells which are updated are drawn in bulk.
+	 * @param bulkSampling - true if the cells are drawn in bulk, else false.
+	 */
+	protected void setBulkSampling(boolean bulkSampling) {
+		this.bulkSampling = bulkSampling;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the fact that the launches are ended as soon as their grid is fixed or cycles.
+	 * @param cycleDetection - true if the periodic launches are ended early, else false.
+	 */
+	protected void setCycleDetection(boolean cycleDetection) {
+		this.cycleDetection = cycleDetection;
+		this.setChanged();
+	}
+	
 	/**
 	 * Change the fact that update probability vary.
 	 * @param varyProbaUpdate - true if update probability must vary, else false.
@@ -170,87 +267,808 @@ public abstract class BinaryCA extends CellularAutomaton<Boolean> {
 		this.setLoop(this.getDefaultLoop());
 	}
 	
+	@Override
+	protected void setPattern(boolean[][] pattern, int patternXPos, int patternYPos) {
+		super.setPattern(pattern, patternXPos, patternYPos);
+		this.compileRule();
+	}
+	
+	/**
+	 * Tabulate the rule for every possible count of surounding living cells.<br />
+	 * The tiles which were quiescent under the previous rule may change under the new one, so the next tiled generation updates every tile.
+	 */
+	protected void compileRule() {
+		this.resetActiveTiles();
+		this.resetCycleDetection();
+		
+		this.birth = new boolean[this.getNbOfOneInPattern() + 1];
+		this.survival = new boolean[this.getNbOfOneInPattern() + 1];
+		
+		for(int k = 0; k <= this.getNbOfOneInPattern(); k++) {
+			this.birth[k] = this.getNewState(false, k);
+			this.survival[k] = this.getNewState(true, k);
+		}
+	}
+	
+	@Override
+	protected void copySettingsFrom(CellularAutomaton<?> ca) {
+		if(ca instanceof BinaryCA) {
+			BinaryCA binaryCA = (BinaryCA) ca;
+			this.setProbaUpdate(binaryCA.getProbaUpdate());
+			this.setLoop(binaryCA.isLoop());
+			this.setActiveTiles(binaryCA.isActiveTiles());
+			this.setBulkSampling(binaryCA.isBulkSampling());
+			this.setCycleDetection(binaryCA.isCycleDetection());
+			this.setVaryProbaUpdate(binaryCA.isVaryProbaUpdate());
+			this.setProbaUpdate1(binaryCA.getProbaUpdate1());
+			this.setProbaUpdate2(binaryCA.getProbaUpdate2());
+		}
+		
+		super.copySettingsFrom(ca);
+	}
+	
+	@Override
+	protected void writeMetadata(PrintWriter writer) {
+		super.writeMetadata(writer);
+		writer.println("probaUpdate=" + this.probaUpdate);
+		writer.println("loop=" + this.loop);
+		writer.println("activeTiles=" + this.activeTiles);
+		writer.println("bulkSampling=" + this.bulkSampling);
+		writer.println("cycleDetection=" + this.cycleDetection);
+		
+		if(this.varyProbaUpdate) {
+			writer.println("probaUpdate1=" + this.probaUpdate1);
+			writer.println("probaUpdate2=" + this.probaUpdate2);
+		}
+	}
+	
+	@Override
+	protected int getMaxGridSize() {
+		return MAX_GRID_SIZE;
+	}
+	
 	@Override
 	protected void buildGrid() {
 		super.buildGrid();
 		
-		this.setTab(new Boolean[this.getHeight()][this.getWidth()]);
-		this.setOldTab(new Boolean[this.getHeight()][this.getWidth()]);
+		this.resetChangedRows();
+		
+		if(this.openGrids()) {
+			return;
+		}
+		
+		if(this.getProbaInit() > 0) {
+			long[] row = new long[this.getTab().getNbWords()];
+			double[] draws = new double[this.getWidth()];
+			
+			for(int i = 0; i < this.getHeight(); i++) {
+				Arrays.fill(row, 0);
+				this.rand.nextDoubles(draws);
+				
+				for(int j = 0; j < this.getWidth(); j++) {
+					if(draws[j] <= this.getProbaInit()) {
+						row[j / BitGrid.WORD_SIZE] |= (1L << j);
+					}
+				}
+				
+				this.getTab().setRow(i, row);
+			}
+		}
+		
+		this.getTab().setGeneration(0);
+	}
+	
+	@Override
+	protected BitGrid[] createGrids() {
+		BitGrid[] grids = new BitGrid[3];
+		
+		if(this.getGridDirectory() != null) {
+			try {
+				for(int k = 0; k < grids.length; k++) {
+					grids[k] = new MappedBitGrid(new File(this.getGridDirectory(), "grid" + k + ".bin"), this.getHeight(), this.getWidth(), this.isResumeGrid(), this.getCheckpointPeriod());
+				}
+				
+				return grids;
+			}
+			catch(IOException argh) {
+				argh.printStackTrace();
+				
+				for(BitGrid grid : grids) {
+					if(grid != null) {
+						grid.close();
+					}
+				}
+			}
+		}
+		
+		for(int k = 0; k < grids.length; k++) {
+			grids[k] = new BitGrid(this.getHeight(), this.getWidth());
+		}
+		
+		return grids;
+	}
+	
+	/**
+	 * A frame holds the words of the rows, one after the other.
+	 */
+	@Override
+	public int getFrameSize() {
+		return this.getHeight() * ((this.getWidth() + BitGrid.WORD_SIZE - 1) / BitGrid.WORD_SIZE);
+	}
+	
+	@Override
+	public void readFrame(long[] frame) {
+		BitGrid tab = this.getTab();
+		int nbWords = tab.getNbWords();
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			tab.readRow(i, frame, i * nbWords);
+		}
+	}
+	
+	@Override
+	public void readFrameRow(int y, long[] frame) {
+		BitGrid tab = this.getTab();
+		tab.readRow(y, frame, y * tab.getNbWords());
+	}
+	
+	/**
+	 * The rows which changed are known when the last generation was computed by the transitions of this class.
+	 */
+	@Override
+	public boolean isFrameRowChanged(int y) {
+		return this.changedRows == null || this.changedRows[y];
+	}
+	
+	/**
+	 * Write the cells 64 at a time: for each row, whether it is allocated, then its words if it is.
+	 */
+	@Override
+	protected void writeGrid(CheckpointWriter out) throws IOException {
+		BitGrid tab = this.getTab();
+		long[] row = new long[tab.getNbWords()];
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			boolean allocated = tab.isRowAllocated(i);
+			out.writeBoolean(allocated);
+			
+			if(allocated) {
+				tab.readRow(i, row, 0);
+				out.writeLongs(row, tab.getNbWords());
+			}
+		}
+	}
+	
+	@Override
+	protected void readGrid(CheckpointReader in) throws IOException {
+		this.resetChangedRows();
+		this.setResumeGrid(false);
+		this.openGrids();
+		
+		BitGrid tab = this.getTab();
+		long[] row = new long[tab.getNbWords()];
 		
 		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				this.getTab()[i][j] = this.rand.nextDouble() <= this.getProbaInit();
+			if(in.readBoolean()) {
+				in.readLongs(row, row.length);
+				row[row.length - 1] &= tab.getLastWordMask();
+				tab.setRow(i, row);
 			}
 		}
+		
+		tab.setGeneration(this.getNbIteration());
+		this.resetActiveTiles();
 	}
 	
 	@Override
-	protected Boolean cloneCell(Boolean cell) {
-		return new Boolean(cell);
+	protected String cellToString(int y, int x) {
+		return String.valueOf(this.getCell(y, x));
 	}
 	
+	/**
+	 * Update all the cells, 64 at a time.<br />
+	 * The neighbors of the cells of a row are counted with bit-sliced adders: the shifted rows of the old grid
+	 * are added in a few counter words, the bit p of the counters giving the bit p of the count for each cell.
+	 */
 	@Override
 	protected void doCellsTransitions() {
-		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				if(this.rand.nextDouble() <= this.getProbaUpdate()) {
-					this.transition(i, j);
+		final boolean tiled = this.isTiledUpdate();
+		
+		final boolean hashed = this.hashTab == this.getTab();
+		
+		if(tiled) {
+			this.computeActiveTiles();
+		}
+		
+		if(this.changedRows == null || this.changedRows.length != this.getHeight()) {
+			this.changedRows = new boolean[this.getHeight()];
+		}
+		
+		this.hashDelta = 0;
+		this.doRowBandsTransitions(new RowBandTransition() {
+			
+			@Override
+			public boolean isRandom() {
+				return !tiled && BinaryCA.this.getProbaUpdate() < MAX_UPDATE_PROBA;
+			}
+			
+			@Override
+			public void doRows(int firstRow, int lastRow, MersenneTwisterFast rand) {
+				if(tiled) {
+					BinaryCA.this.doActiveTilesTransitions(firstRow, lastRow);
+				}
+				else {
+					BinaryCA.this.doRowsTransitions(firstRow, lastRow, rand);
+				}
+			}
+			
+		});
+		
+		this.swapTabs();
+		
+		if(hashed) {
+			this.gridHash ^= this.hashDelta;
+			this.hashTab = this.getTab();
+		}
+		else {
+			this.resetGridHash();
+		}
+		
+		if(tiled) {
+			boolean[][] changedTiles = this.changedTiles;
+			this.changedTiles = this.nextChangedTiles;
+			this.nextChangedTiles = changedTiles;
+			this.tilesTab = this.getTab();
+			this.tilesLoop = this.isLoop();
+		}
+		else {
+			this.resetActiveTiles();
+		}
+	}
+	
+	/**
+	 * Indicate if the active tiles can be used for the next generation.
+	 * The update must be deterministic, and the pattern must not reach further than the neighboring tiles.
+	 * @return true if only the active tiles are updated, else false.
+	 */
+	protected boolean isTiledUpdate() {
+		return this.isActiveTiles() && this.getProbaUpdate() >= MAX_UPDATE_PROBA && this.getPatternRadiusY() <= TILE_HEIGHT && this.getPatternRadiusX() <= BitGrid.WORD_SIZE;
+	}
+	
+	/**
+	 * Compute which tiles have to be updated: the tiles which changed during the previous generation, and their neighbors.
+	 * A tile is made of TILE_HEIGHT rows and one word (64 columns). Every tile is active after the grid was modified by something else.
+	 */
+	protected void computeActiveTiles() {
+		int nbTileRows = (this.getHeight() + TILE_HEIGHT - 1) / TILE_HEIGHT;
+		int nbWords = this.getTab().getNbWords();
+		
+		if(this.changedTiles == null || this.changedTiles.length != nbTileRows || this.changedTiles[0].length != nbWords) {
+			this.changedTiles = new boolean[nbTileRows][nbWords];
+			this.nextChangedTiles = new boolean[nbTileRows][nbWords];
+			this.activeTilesMask = new boolean[nbTileRows][nbWords];
+			this.activeTileRows = new boolean[nbTileRows];
+			this.tilesTab = null;
+		}
+		
+		boolean[][] active = this.activeTilesMask;
+		boolean[] activeRows = this.activeTileRows;
+		boolean all = this.tilesTab != this.getTab() || this.tilesLoop != this.isLoop();
+		
+		Arrays.fill(activeRows, all);
+		for(int ty = 0; ty < nbTileRows; ty++) {
+			Arrays.fill(active[ty], all);
+			Arrays.fill(this.nextChangedTiles[ty], false);
+		}
+		
+		if(!all) {
+			int[][] neighborsY = this.getNeighborTiles(nbTileRows, TILE_HEIGHT, this.getHeight(), this.getPatternRadiusY());
+			int[][] neighborsX = this.getNeighborTiles(nbWords, BitGrid.WORD_SIZE, this.getWidth(), this.getPatternRadiusX());
+			
+			for(int ty = 0; ty < nbTileRows; ty++) {
+				for(int tx = 0; tx < nbWords; tx++) {
+					if(this.changedTiles[ty][tx]) {
+						for(int ny : neighborsY[ty]) {
+							activeRows[ny] = true;
+							for(int nx : neighborsX[tx]) {
+								active[ny][nx] = true;
+							}
+						}
+					}
 				}
 			}
 		}
 	}
 	
 	/**
-	 * Update one cell.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
+	 * Forget the tiles which changed during the previous generation, so every tile is updated at the next tiled generation.
+	 * Must be called when the grid is computed without tracking the changed tiles.
 	 */
-	protected void transition(int y, int x) {
-		this.getTab()[y][x] = this.getNewState(this.getOldTab()[y][x], this.getNbLivingCells(y, x));
+	protected void resetActiveTiles() {
+		this.tilesTab = null;
 	}
 	
 	/**
-	 * Calculate the new state of the cell, from it's old state and the count of surounding living cells.
-	 * @param oldState - the old state of the cell.
-	 * @param nbLivingCells - the count of surounding living cells.
-	 * @return the new state of the cell.
+	 * Forget the rows which changed during the previous generation, so every row is considered changed until the next generation.
+	 * Must be called when the grid is computed without tracking the changed rows.
 	 */
-	protected abstract boolean getNewState(boolean oldState, int nbLivingCells);
+	protected void resetChangedRows() {
+		this.changedRows = null;
+	}
 	
 	/**
-	 * Get the living cells count, in the pattern, around the cell at the given coordinates.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
-	 * @return the living cells count.
+	 * Forget the hash of the grid, so it is computed from all the cells when it is needed.
+	 * Must be called when the grid is computed without updating the hash.
 	 */
-	protected int getNbLivingCells(int y, int x) {
-		int nbLivingCells = 0;
+	protected void resetGridHash() {
+		this.hashTab = null;
+	}
+	
+	/**
+	 * Return a Zobrist-style hash of the grid: the XOR of the hashes of the non-empty words, each one depending on its position.<br />
+	 * Once computed, the hash is updated by each generation from the words which changed, so it costs nothing for the cells which are stable.
+	 */
+	@Override
+	protected long getGridHash() {
+		BitGrid tab = this.getTab();
 		
-		for(int i = 0; i < this.getPattern().length; i++) {
-			for(int j = 0; j < this.getPattern()[0].length; j++) {
-				if(this.getPattern()[i][j]) {
-					int y2 = y + i - this.getPatternYPos();
-					int x2 = x + j - this.getPatternXPos();
+		if(this.hashTab != tab) {
+			long hash = 0;
+			int nbWords = tab.getNbWords();
+			long[] row = new long[nbWords];
+			
+			for(int i = 0; i < this.getHeight(); i++) {
+				if(tab.isRowAllocated(i)) {
+					tab.readRow(i, row, 0);
 					
-					if(y2 < 0 || y2 >= this.getHeight() || x2 < 0 || x2 >= this.getWidth()) {
+					for(int w = 0; w < nbWords; w++) {
+						hash ^= hashWord((long) i * nbWords + w, row[w]);
+					}
+				}
+			}
+			
+			this.gridHash = hash;
+			this.hashTab = tab;
+		}
+		
+		return this.gridHash;
+	}
+	
+	/**
+	 * Add the changes of the hash computed by a band of rows.
+	 * @param delta - the XOR of the hashes of the old and new words of the band.
+	 */
+	private synchronized void addHashDelta(long delta) {
+		this.hashDelta ^= delta;
+	}
+	
+	/**
+	 * Hash a word of the grid. An empty word has a null hash, so the rows which are not allocated are skipped.
+	 * @param index - the position of the word in the grid.
+	 * @param word - the cells of the word.
+	 * @return the hash of the word at this position.
+	 */
+	private static long hashWord(long index, long word) {
+		if(word == 0) {
+			return 0;
+		}
+		
+		long z = word ^ (0x9E3779B97F4A7C15L * (index + 1));
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * The launches can be ended early if the update is deterministic, because the grid then cycles forever once it has been seen twice.
+	 */
+	@Override
+	protected boolean isCycleDetectable() {
+		return this.isCycleDetection() && this.getProbaUpdate() >= MAX_UPDATE_PROBA;
+	}
+	
+	@Override
+	protected void skipIterations(long nbIterations) {
+		super.skipIterations(nbIterations);
+		this.getTab().setGeneration(this.getNbIteration());
+	}
+	
+	/**
+	 * Return, for each tile along one axis, the tiles containing a cell at a distance lower or equal to the radius.
+	 * @param nbTiles - the number of tiles along the axis.
+	 * @param tileSize - the number of cells per tile.
+	 * @param size - the number of cells along the axis.
+	 * @param radius - the maximal distance.
+	 * @return the indexes of the neighboring tiles of each tile.
+	 */
+	private int[][] getNeighborTiles(int nbTiles, int tileSize, int size, int radius) {
+		int[][] neighbors = new int[nbTiles][];
+		boolean[] found = new boolean[nbTiles];
+		
+		for(int t = 0; t < nbTiles; t++) {
+			int nbFound = 0;
+			
+			for(int c = t * tileSize - radius; c <= Math.min((t + 1) * tileSize, size) - 1 + radius; c++) {
+				int cell = c;
+				
+				if(cell < 0 || cell >= size) {
+					if(!this.isLoop()) {
+						continue;
+					}
+					
+					cell = ((cell % size) + size) % size;
+				}
+				
+				if(!found[cell / tileSize]) {
+					found[cell / tileSize] = true;
+					nbFound++;
+				}
+			}
+			
+			neighbors[t] = new int[nbFound];
+			int i = 0;
+			
+			for(int n = 0; n < nbTiles; n++) {
+				if(found[n]) {
+					neighbors[t][i++] = n;
+					found[n] = false;
+				}
+			}
+		}
+		
+		return neighbors;
+	}
+	
+	/**
+	 * Update the active tiles of a band of rows, and copy the other ones. Only used when the update is deterministic.
+	 * @param firstRow - the first row of the band.
+	 * @param lastRow - the row after the last row of the band.
+	 */
+	protected void doActiveTilesTransitions(int firstRow, int lastRow) {
+		BitGrid oldGrid = this.getTab();
+		BitGrid grid = this.getNextTab();
+		int nbWords = grid.getNbWords();
+		int nbCounters = 32 - Integer.numberOfLeadingZeros(this.getNbOfOneInPattern());
+		
+		long[][] counters = new long[nbCounters][1];
+		long[] oldRow = new long[nbWords];
+		long[] row = new long[nbWords];
+		boolean hashed = this.hashTab == oldGrid;
+		long hashDelta = 0;
+		
+		for(int i = firstRow; i < lastRow; i++) {
+			int ty = i / TILE_HEIGHT;
+			
+			if(!this.activeTileRows[ty]) {
+				grid.copyRow(i, oldGrid);
+				this.changedRows[i] = false;
+				continue;
+			}
+			
+			oldGrid.readRow(i, oldRow, 0);
+			boolean changed = false;
+			
+			for(int w = 0; w < nbWords; w++) {
+				if(!this.activeTilesMask[ty][w]) {
+					row[w] = oldRow[w];
+					continue;
+				}
+				
+				for(int p = 0; p < nbCounters; p++) {
+					counters[p][0] = 0;
+				}
+				
+				for(int k = 0; k < this.getPatternOffsetsY().length; k++) {
+					int y = i + this.getPatternOffsetsY()[k];
+					
+					if(y < 0 || y >= this.getHeight()) {
 						if(!this.isLoop()) {
 							continue;
 						}
 						
-						y2 = (y2 + this.getHeight()) % this.getHeight();
-						x2 = (x2 + this.getWidth()) % this.getWidth();
+						y = Math.floorMod(y, this.getHeight());
+					}
+					
+					long carry = oldGrid.readShiftedWord(y, w, this.getPatternOffsetsX()[k], this.isLoop());
+					for(int p = 0; p < nbCounters && carry != 0; p++) {
+						long sum = counters[p][0] ^ carry;
+						carry &= counters[p][0];
+						counters[p][0] = sum;
+					}
+				}
+				
+				long newWord = this.applyRule(counters, 0, oldRow[w]);
+				
+				if(w == nbWords - 1) {
+					newWord &= grid.getLastWordMask();
+				}
+				
+				row[w] = newWord;
+				
+				if(newWord != oldRow[w]) {
+					this.nextChangedTiles[ty][w] = true;
+					changed = true;
+					
+					if(hashed) {
+						long index = (long) i * nbWords + w;
+						hashDelta ^= hashWord(index, oldRow[w]) ^ hashWord(index, newWord);
+					}
+				}
+			}
+			
+			grid.setRow(i, row);
+			this.changedRows[i] = changed;
+		}
+		
+		if(hashed) {
+			this.addHashDelta(hashDelta);
+		}
+	}
+	
+	/**
+	 * Update the cells of a band of rows, from the actual grid to the back buffer.<br />
+	 * The rows read by the pattern are kept in a sliding window of rows padded with a halo, refreshed once per row,
+	 * so the offsets of the pattern are applied to each word without bounds checks.
+	 * @param firstRow - the first row of the band.
+	 * @param lastRow - the row after the last row of the band.
+	 * @param rand - the random generator of the band.
+	 */
+	protected void doRowsTransitions(int firstRow, int lastRow, MersenneTwisterFast rand) {
+		BitGrid oldGrid = this.getTab();
+		BitGrid grid = this.getNextTab();
+		int nbWords = grid.getNbWords();
+		int nbCounters = 32 - Integer.numberOfLeadingZeros(this.getNbOfOneInPattern());
+		int[] offsetsY = this.getPatternOffsetsY();
+		int[] offsetsX = this.getPatternOffsetsX();
+		int radiusY = this.getPatternRadiusY();
+		int haloWords = (this.getPatternRadiusX() + BitGrid.WORD_MASK) >>> BitGrid.WORD_SHIFT;
+		
+		long[][] window = new long[2 * radiusY + 1][nbWords + 2 * haloWords + 1];
+		int[] wordOffsets = new int[offsetsX.length];
+		int[] bitOffsets = new int[offsetsX.length];
+		
+		for(int k = 0; k < offsetsX.length; k++) {
+			int start = (haloWords << BitGrid.WORD_SHIFT) + offsetsX[k];
+			wordOffsets[k] = start >>> BitGrid.WORD_SHIFT;
+			bitOffsets[k] = start & BitGrid.WORD_MASK;
+		}
+		
+		for(int d = 1; d < window.length; d++) {
+			this.readHaloRow(oldGrid, firstRow - radiusY + d - 1, haloWords, window[d]);
+		}
+		
+		long[][] counters = new long[nbCounters][nbWords];
+		long[] updateMask = new long[nbWords];
+		long[] oldRow = new long[nbWords];
+		long[] row = new long[nbWords];
+		boolean updateAll = this.getProbaUpdate() >= MAX_UPDATE_PROBA;
+		boolean hashed = this.hashTab == oldGrid;
+		long hashDelta = 0;
+		double[] draws = (updateAll || this.isBulkSampling()) ? null : new double[oldGrid.getWidth()];
+		
+		for(int i = firstRow; i < lastRow; i++) {
+			long[] recycled = window[0];
+			System.arraycopy(window, 1, window, 0, window.length - 1);
+			window[window.length - 1] = recycled;
+			this.readHaloRow(oldGrid, i + radiusY, haloWords, recycled);
+			
+			if(!this.birth[0] && this.isNeighborhoodEmpty(oldGrid, i)) {
+				if(!updateAll && !this.isBulkSampling()) {
+					this.drawUpdateMask(updateMask, draws, rand);
+				}
+				
+				grid.copyRow(i, oldGrid);
+				this.changedRows[i] = false;
+				continue;
+			}
+			
+			for(int p = 0; p < nbCounters; p++) {
+				for(int w = 0; w < nbWords; w++) {
+					counters[p][w] = 0;
+				}
+			}
+			
+			for(int k = 0; k < offsetsY.length; k++) {
+				long[] source = window[offsetsY[k] + radiusY];
+				int a = wordOffsets[k];
+				int shift = bitOffsets[k];
+				
+				for(int w = 0; w < nbWords; w++) {
+					long carry = (source[w + a] >>> shift) | ((source[w + a + 1] << 1) << (BitGrid.WORD_MASK - shift));
+					for(int p = 0; p < nbCounters && carry != 0; p++) {
+						long sum = counters[p][w] ^ carry;
+						carry &= counters[p][w];
+						counters[p][w] = sum;
 					}
+				}
+			}
+			
+			if(!updateAll) {
+				this.drawUpdateMask(updateMask, draws, rand);
+			}
+			
+			oldGrid.readRow(i, oldRow, 0);
+			
+			for(int w = 0; w < nbWords; w++) {
+				long newWord = this.applyRule(counters, w, oldRow[w]);
+				row[w] = updateAll ? newWord : (newWord & updateMask[w]) | (oldRow[w] & ~updateMask[w]);
+			}
+			
+			row[nbWords - 1] &= grid.getLastWordMask();
+			boolean changed = false;
+			
+			for(int w = 0; w < nbWords; w++) {
+				if(row[w] != oldRow[w]) {
+					changed = true;
 					
-					if(this.getOldTab()[y2][x2]) {
-						nbLivingCells++;
+					if(hashed) {
+						long index = (long) i * nbWords + w;
+						hashDelta ^= hashWord(index, oldRow[w]) ^ hashWord(index, row[w]);
 					}
 				}
 			}
+			
+			grid.setRow(i, row);
+			this.changedRows[i] = changed;
+		}
+		
+		if(hashed) {
+			this.addHashDelta(hashDelta);
+		}
+	}
+	
+	/**
+	 * Fill a buffer with a row of the grid padded with a halo. Rows outside of the grid are wrapped if the edges are connected,
+	 * else they are read as dead cells.
+	 * @param grid - the grid.
+	 * @param y - the Y coordinate of the row, which may be outside of the grid.
+	 * @param haloWords - the number of words of the halo on each side.
+	 * @param dest - the buffer to fill.
+	 */
+	private void readHaloRow(BitGrid grid, int y, int haloWords, long[] dest) {
+		if(y < 0 || y >= this.getHeight()) {
+			if(!this.isLoop()) {
+				Arrays.fill(dest, 0);
+				return;
+			}
+			
+			y = Math.floorMod(y, this.getHeight());
+		}
+		
+		grid.readPaddedRow(y, haloWords, this.isLoop(), dest);
+	}
+	
+	/**
+	 * Indicate if all the rows read to update a row are not allocated, so all their cells are dead.
+	 * @param grid - the grid.
+	 * @param y - the Y coordinate of the updated row.
+	 * @return true if all the cells around the row are dead, else false.
+	 */
+	private boolean isNeighborhoodEmpty(BitGrid grid, int y) {
+		if(grid.isRowAllocated(y)) {
+			return false;
+		}
+		
+		for(int k = 0; k < this.getPatternOffsetsY().length; k++) {
+			int i = y + this.getPatternOffsetsY()[k];
+			
+			if(i < 0 || i >= this.getHeight()) {
+				if(!this.isLoop()) {
+					continue;
+				}
+				
+				i = Math.floorMod(i, this.getHeight());
+			}
+			
+			if(grid.isRowAllocated(i)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Apply the tabulated rule to 64 cells.
+	 * @param counters - the bit-sliced counts of surounding living cells.
+	 * @param w - the index of the word.
+	 * @param oldWord - the old states of the cells.
+	 * @return the new states of the cells.
+	 */
+	private long applyRule(long[][] counters, int w, long oldWord) {
+		long newWord = 0;
+		
+		for(int k = 0; k < this.birth.length; k++) {
+			if(this.birth[k] || this.survival[k]) {
+				long equals = -1L;
+				for(int p = 0; p < counters.length; p++) {
+					equals &= (((k >>> p) & 1) != 0) ? counters[p][w] : ~counters[p][w];
+				}
+				
+				if(this.birth[k] && this.survival[k]) {
+					newWord |= equals;
+				}
+				else if(this.birth[k]) {
+					newWord |= equals & ~oldWord;
+				}
+				else {
+					newWord |= equals & oldWord;
+				}
+			}
+		}
+		
+		return newWord;
+	}
+	
+	/**
+	 * Draw, for each cell of a row, if it has to be updated, in the same order than a cell by cell update.
+	 * @param updateMask - the words receiving a 1 for each cell which has to be updated.
+	 * @param draws - the buffer receiving one draw for each cell of the row, or null if the cells are drawn in bulk.
+	 * @param rand - the random generator to use.
+	 */
+	private void drawUpdateMask(long[] updateMask, double[] draws, MersenneTwisterFast rand) {
+		if(this.isBulkSampling()) {
+			this.drawBulkUpdateMask(updateMask, this.getWidth(), rand);
+			return;
 		}
 		
-		return nbLivingCells;
+		for(int w = 0; w < updateMask.length; w++) {
+			updateMask[w] = 0;
+		}
+		
+		rand.nextDoubles(draws);
+		
+		for(int j = 0; j < draws.length; j++) {
+			if(draws[j] <= this.getProbaUpdate()) {
+				updateMask[j >>> 6] |= (1L << j);
+			}
+		}
+	}
+	
+	/**
+	 * Draw, for each cell of a row, if it has to be updated, with the same distribution than a cell by cell update, but without one draw per cell.<br />
+	 * If the cells which are not updated are rare, the gaps between them are drawn from a geometric distribution,
+	 * else the cells are drawn 64 at a time, by the bit-parallel coin flips of the random generator.
+	 * @param updateMask - the words receiving a 1 for each cell which has to be updated.
+	 * @param width - the number of cells in the row.
+	 * @param rand - the random generator to use.
+	 */
+	private void drawBulkUpdateMask(long[] updateMask, int width, MersenneTwisterFast rand) {
+		if(1.0 - this.getProbaUpdate() < GEOMETRIC_SKIP_PROBA) {
+			Arrays.fill(updateMask, -1L);
+			
+			double logProbaUpdate = Math.log(this.getProbaUpdate());
+			int j = -1;
+			
+			while(true) {
+				double gap = Math.floor(Math.log(1.0 - rand.nextDouble()) / logProbaUpdate);
+				
+				if(gap >= width - 1 - j) {
+					return;
+				}
+				
+				j += 1 + (int) gap;
+				updateMask[j >>> 6] &= ~(1L << j);
+			}
+		}
+		else {
+			double probaMask = Math.nextUp(this.getProbaUpdate());
+			
+			for(int w = 0; w < updateMask.length; w++) {
+				updateMask[w] = rand.nextBooleanMask(probaMask);
+			}
+		}
 	}
 	
+	/**
+	 * Calculate the new state of the cell, from it's old state and the count of surounding living cells.<br />
+	 * This is only called when the pattern changes, to tabulate the rule.
+	 * @param oldState - the old state of the cell.
+	 * @param nbLivingCells - the count of surounding living cells.
+	 * @return the new state of the cell.
+	 */
+	protected abstract boolean getNewState(boolean oldState, int nbLivingCells);
+	
 	@Override
 	protected void computeStats() {
 		// Recolter les stats ici.
@@ -271,7 +1089,9 @@ public abstract class BinaryCA extends CellularAutomaton<Boolean> {
 				this.setProbaUpdate(this.getProbaUpdate1() + ((this.getProbaUpdate2() - this.getProbaUpdate1()) * this.getNbVariation() / (this.getMaxNbVariation() - 1)));
 			}
 			
-			System.out.println("Proba update : " + this.getProbaUpdate());
+			if(!this.isWorker()) {
+				System.out.println("Proba update : " + this.getProbaUpdate());
+			}
 		}
 	}
 	
@@ -305,6 +1125,33 @@ public abstract class BinaryCA extends CellularAutomaton<Boolean> {
 		this.notifyObservers();
 	}
 	
+	/**
+	 * Choose if only the tiles which changed during the previous generation, and their neighbors, are updated, then notify observers.
+	 * @param activeTiles - true if the active tiles mode is selected, else false.
+	 */
+	public void changeActiveTiles(boolean activeTiles) {
+		this.setActiveTiles(activeTiles);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Choose if the cells which are updated are drawn in bulk, then notify observers.
+	 * @param bulkSampling - true if the cells are drawn in bulk, else false.
+	 */
+	public void changeBulkSampling(boolean bulkSampling) {
+		this.setBulkSampling(bulkSampling);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Choose if the launches are ended as soon as their grid is fixed or cycles, then notify observers.
+	 * @param cycleDetection - true if the periodic launches are ended early, else false.
+	 */
+	public void changeCycleDetection(boolean cycleDetection) {
+		this.setCycleDetection(cycleDetection);
+		this.notifyObservers();
+	}
+	
 	/**
 	 * Change all dynamic Settings.
 	 * @param probaUpdate - the probability for a cell to be updated during the grid update.
@@ -0,0 +1,422 @@
+package cellularAutomaton.core.binaryCA;
+
+import java.util.Arrays;
+
+import cellularAutomaton.core.GenerationBuffer;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class BitGrid implements GenerationBuffer {
+	
+	// Constants :
+	
+	public static final int WORD_SIZE = Long.SIZE;
+	
+	protected static final int WORD_SHIFT = 6;
+	protected static final int WORD_MASK = WORD_SIZE - 1;
+	
+	// Fields :
+	
+	private final int height;
+	private final int width;
+	private final int nbWords;
+	private final long lastWordMask;
+	
+	private final long[][] rows;
+	private final long[] emptyRow;
+	
+	private long generation = -1;
+	
+	// Constructors :
+	
+	/**
+	 * Build an empty grid, where all the cells are dead.
+	 * @param height - the row count.
+	 * @param width - the column count.
+	 */
+	public BitGrid(int height, int width) {
+		this.height = height;
+		this.width = width;
+		this.nbWords = (width + WORD_MASK) >>> WORD_SHIFT;
+		this.lastWordMask = ((width & WORD_MASK) == 0) ? -1L : (1L << (width & WORD_MASK)) - 1;
+		this.rows = new long[height][];
+		this.emptyRow = new long[this.nbWords];
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the row count.
+	 * @return the height of the grid.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+	
+	/**
+	 * Return the column count.
+	 * @return the width of the grid.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+	
+	/**
+	 * Return the number of words used to store one row.
+	 * @return the number of words per row.
+	 */
+	public int getNbWords() {
+		return this.nbWords;
+	}
+	
+	/**
+	 * Return the mask of the bits of the last word of a row which are inside of the grid.
+	 * @return the mask of the last word of a row.
+	 */
+	public long getLastWordMask() {
+		return this.lastWordMask;
+	}
+	
+	/**
+	 * Return the words of a row, which must not be modified. The cell at column x is the bit (x % 64) of the word (x / 64).<br />
+	 * The bits of the last word which are outside of the grid are always 0.
+	 * @param y - the Y coordinate of the row.
+	 * @return the words of the row.
+	 */
+	public long[] getRow(int y) {
+		long[] row = this.rows[y];
+		return (row != null) ? row : this.emptyRow;
+	}
+	
+	/**
+	 * Copy the words of a row in a buffer owned by the caller, without allocating anything.
+	 * @param y - the Y coordinate of the row.
+	 * @param dest - the buffer which receives the words.
+	 * @param offset - the index of the buffer which receives the first word.
+	 */
+	public void readRow(int y, long[] dest, int offset) {
+		long[] row = this.rows[y];
+		
+		if(row != null) {
+			System.arraycopy(row, 0, dest, offset, this.nbWords);
+		}
+		else {
+			Arrays.fill(dest, offset, offset + this.nbWords, 0);
+		}
+	}
+	
+	/**
+	 * Return one word of a row.
+	 * @param y - the Y coordinate of the row.
+	 * @param w - the index of the word.
+	 * @return the word.
+	 */
+	public long getWord(int y, int w) {
+		long[] row = this.rows[y];
+		return (row != null) ? row[w] : 0;
+	}
+	
+	/**
+	 * Return the generation stored in this grid.
+	 * @return the number of the generation, or -1 if the grid doesn't hold a complete generation.
+	 */
+	@Override
+	public long getGeneration() {
+		return this.generation;
+	}
+	
+	/**
+	 * Indicate if the words of a row are allocated. Rows are only allocated when a cell of the row becomes alive,
+	 * and released when a whole row is written with dead cells.
+	 * @param y - the Y coordinate of the row.
+	 * @return true if the row is allocated, else false.
+	 */
+	public boolean isRowAllocated(int y) {
+		return this.rows[y] != null;
+	}
+	
+	/**
+	 * Return the state of a cell.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return true if the cell is alive, else false.
+	 */
+	public boolean get(int y, int x) {
+		return (this.getWord(y, x >>> WORD_SHIFT) & (1L << x)) != 0;
+	}
+	
+	// Setters :
+	
+	/**
+	 * Change the state of a cell.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @param alive - true if the cell is alive, else false.
+	 */
+	public void set(int y, int x, boolean alive) {
+		if(alive) {
+			this.allocateRow(y)[x >>> WORD_SHIFT] |= (1L << x);
+		}
+		else if(this.rows[y] != null) {
+			this.rows[y][x >>> WORD_SHIFT] &= ~(1L << x);
+		}
+	}
+	
+	/**
+	 * Change the words of a row. The memory of the row is released if all the words are 0.
+	 * @param y - the Y coordinate of the row.
+	 * @param words - the new words of the row, the bits of the last word outside of the grid must be 0.
+	 */
+	public void setRow(int y, long[] words) {
+		int w = 0;
+		while(w < this.nbWords && words[w] == 0) {
+			w++;
+		}
+		
+		if(w == this.nbWords) {
+			this.rows[y] = null;
+		}
+		else {
+			System.arraycopy(words, 0, this.allocateRow(y), 0, this.nbWords);
+		}
+	}
+	
+	/**
+	 * Copy a row of another grid of the same size in this grid.
+	 * @param y - the Y coordinate of the row.
+	 * @param grid - the grid to copy.
+	 */
+	public void copyRow(int y, BitGrid grid) {
+		if(grid.isRowAllocated(y)) {
+			grid.readRow(y, this.allocateRow(y), 0);
+		}
+		else {
+			this.rows[y] = null;
+		}
+	}
+	
+	/**
+	 * Change the generation stored in this grid. Must be called once the whole generation is written.
+	 * @param generation - the number of the generation.
+	 */
+	@Override
+	public void setGeneration(long generation) {
+		this.generation = generation;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Copy the content of another grid of the same size in this grid.
+	 * @param grid - the grid to copy.
+	 */
+	public void copy(BitGrid grid) {
+		for(int i = 0; i < this.height; i++) {
+			this.copyRow(i, grid);
+		}
+	}
+	
+	/**
+	 * Kill all the cells of the grid, and release the memory of the rows.
+	 */
+	public void clear() {
+		Arrays.fill(this.rows, null);
+		this.setGeneration(-1);
+	}
+	
+	/**
+	 * Release the resources used by the grid. The grid must not be used anymore.
+	 */
+	@Override
+	public void close() {
+		
+	}
+	
+	/**
+	 * Return the number of living cells in the grid.
+	 * @return the number of living cells.
+	 */
+	public long countLivingCells() {
+		long nbLivingCells = 0;
+		
+		for(int i = 0; i < this.height; i++) {
+			if(this.isRowAllocated(i)) {
+				for(int w = 0; w < this.nbWords; w++) {
+					nbLivingCells += Long.bitCount(this.getWord(i, w));
+				}
+			}
+		}
+		
+		return nbLivingCells;
+	}
+	
+	/**
+	 * Fill a buffer with a row shifted horizontally: the bit x of the buffer receives the cell at column (x + dx).<br />
+	 * Columns outside of the grid are wrapped if loop is true, else they are read as dead cells.
+	 * @param y - the Y coordinate of the row.
+	 * @param dx - the horizontal offset.
+	 * @param loop - true if the opposite edges of the grid are connected.
+	 * @param dest - the buffer to fill, of at least getNbWords() words.
+	 */
+	public void readShiftedRow(int y, int dx, boolean loop, long[] dest) {
+		for(int w = 0; w < this.nbWords; w++) {
+			dest[w] = this.readShiftedWord(y, w, dx, loop);
+		}
+	}
+	
+	/**
+	 * Return one word of a row shifted horizontally: the bit b of the word receives the cell at column (w * 64 + b + dx).<br />
+	 * Columns outside of the grid are wrapped if loop is true, else they are read as dead cells.
+	 * @param y - the Y coordinate of the row.
+	 * @param w - the index of the word.
+	 * @param dx - the horizontal offset.
+	 * @param loop - true if the opposite edges of the grid are connected.
+	 * @return the shifted word.
+	 */
+	public long readShiftedWord(int y, int w, int dx, boolean loop) {
+		long word = this.readWord(y, (w << WORD_SHIFT) + dx, loop);
+		return (w == this.nbWords - 1) ? (word & this.lastWordMask) : word;
+	}
+	
+	/**
+	 * Return the 64 cells of a row starting at any column: the bit b of the word receives the cell at column (start + b).<br />
+	 * Columns outside of the grid are wrapped if loop is true, else they are read as dead cells.
+	 * @param y - the Y coordinate of the row.
+	 * @param start - the column of the first bit of the word.
+	 * @param loop - true if the opposite edges of the grid are connected.
+	 * @return the word.
+	 */
+	public long readWord(int y, int start, boolean loop) {
+		if(start >= 0 && start + WORD_MASK < this.width) {
+			return this.readBits(y, start, WORD_SIZE);
+		}
+		
+		if(!loop) {
+			int from = Math.max(start, 0);
+			int to = Math.min(start + WORD_SIZE, this.width);
+			return (from < to) ? this.readBits(y, from, to - from) << (from - start) : 0;
+		}
+		
+		if(this.width < WORD_SIZE) {
+			return this.readEdgeWord(y, start);
+		}
+		
+		int from = Math.floorMod(start, this.width);
+		int length = Math.min(WORD_SIZE, this.width - from);
+		long word = this.readBits(y, from, length);
+		
+		if(length < WORD_SIZE) {
+			word |= this.readBits(y, 0, WORD_SIZE - length) << length;
+		}
+		
+		return word;
+	}
+	
+	/**
+	 * Fill a buffer with a row surrounded by a halo of words on each side: the word j of the buffer receives the cells
+	 * starting at column ((j - haloWords) * 64).<br />
+	 * Columns outside of the grid are wrapped if loop is true, else they are read as dead cells. The bits of the last word
+	 * of the row which are outside of the grid receive the halo, so any shifted word can be read without bounds checks.
+	 * @param y - the Y coordinate of the row.
+	 * @param haloWords - the number of words of the halo on each side.
+	 * @param loop - true if the opposite edges of the grid are connected.
+	 * @param dest - the buffer to fill.
+	 */
+	public void readPaddedRow(int y, int haloWords, boolean loop, long[] dest) {
+		if(!this.isRowAllocated(y)) {
+			Arrays.fill(dest, 0);
+			return;
+		}
+		
+		int nbFullWords = this.width >>> WORD_SHIFT;
+		this.readRow(y, dest, haloWords);
+		
+		for(int j = 0; j < haloWords; j++) {
+			dest[j] = this.readWord(y, (j - haloWords) << WORD_SHIFT, loop);
+		}
+		
+		for(int j = haloWords + nbFullWords; j < dest.length; j++) {
+			dest[j] = this.readWord(y, (j - haloWords) << WORD_SHIFT, loop);
+		}
+	}
+	
+	/**
+	 * Return the words of a row, after allocating them if needed.
+	 * @param y - the Y coordinate of the row.
+	 * @return the words of the row.
+	 */
+	private long[] allocateRow(int y) {
+		if(this.rows[y] == null) {
+			this.rows[y] = new long[this.nbWords];
+		}
+		
+		return this.rows[y];
+	}
+	
+	/**
+	 * Return up to 64 consecutive cells of a row, inside of the grid.
+	 * @param y - the Y coordinate of the row.
+	 * @param from - the column of the first cell.
+	 * @param length - the number of cells, between 1 and 64.
+	 * @return the cells, in the lowest bits of the word.
+	 */
+	private long readBits(int y, int from, int length) {
+		int i = from >>> WORD_SHIFT;
+		int shift = from & WORD_MASK;
+		long word = this.getWord(y, i) >>> shift;
+		
+		if(shift + length > WORD_SIZE) {
+			word |= this.getWord(y, i + 1) << (WORD_SIZE - shift);
+		}
+		
+		return (length == WORD_SIZE) ? word : word & ((1L << length) - 1);
+	}
+	
+	/**
+	 * Read, bit by bit, a word of a looped row narrower than a word.
+	 * @param y - the Y coordinate of the row.
+	 * @param start - the column of the first bit of the word.
+	 * @return the word.
+	 */
+	private long readEdgeWord(int y, int start) {
+		long word = 0;
+		
+		for(int b = 0; b < WORD_SIZE; b++) {
+			int x = Math.floorMod(start + b, this.width);
+			
+			if((this.getWord(y, x >>> WORD_SHIFT) & (1L << x)) != 0) {
+				word |= (1L << b);
+			}
+		}
+		
+		return word;
+	}
+	
+}
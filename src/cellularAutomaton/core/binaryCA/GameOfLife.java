@@ -1,5 +1,11 @@
 package cellularAutomaton.core.binaryCA;
 
+import java.io.PrintWriter;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.enums.LifeEngine;
+import cellularAutomaton.core.enums.RulePreset;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -31,17 +37,187 @@ package cellularAutomaton.core.binaryCA;
  */
 public class GameOfLife extends BinaryCA {
 	
+	// Constants :
+	
+	public static final int MIN_STEP_EXPONENT = 0;
+	public static final int MAX_STEP_EXPONENT = 20;
+	
+	public static final String ENGINE = "Engine";
+	public static final String STEP_SIZE = "Step size (2^k)";
+	
+	// Fields :
+	
+	private LifeEngine engine;
+	private int stepExponent;
+	
+	private HashLifeUniverse universe;
+	private BitGrid universeTab;
+	
 	// Constructors :
 	
 	public GameOfLife() {
 		super();
 	}
 	
+	// Getters :
+	
+	/**
+	 * Return the engine which computes the generations.
+	 * @return the engine.
+	 */
+	public LifeEngine getEngine() {
+		return this.engine;
+	}
+	
+	/**
+	 * Return the exponent k of the number of generations (2^k) computed by each update of the hashlife engine.
+	 * @return the step exponent.
+	 */
+	public int getStepExponent() {
+		return this.stepExponent;
+	}
+	
+	/**
+	 * Indicate if the generations are computed by the hashlife engine.
+	 * It needs a deterministic update, so the dense engine is used if the update proba is lower than 1.
+	 * @return true if the hashlife engine is used, else false.
+	 */
+	public boolean isHashLifeUsed() {
+		return this.getEngine() == LifeEngine.HASHLIFE && this.getProbaUpdate() >= MAX_UPDATE_PROBA;
+	}
+	
+	// Setters :
+	
+	/**
+	 * Change the engine which computes the generations.
+	 * @param engine - the new engine.
+	 */
+	protected void setEngine(LifeEngine engine) {
+		this.engine = engine;
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the exponent k of the number of generations (2^k) computed by each update of the hashlife engine.
+	 * @param stepExponent - the new step exponent.
+	 */
+	protected void setStepExponent(int stepExponent) {
+		this.stepExponent = stepExponent;
+		this.setChanged();
+	}
+	
 	// Methods :
 	
+	@Override
+	protected void initSettings() {
+		super.initSettings();
+		this.setEngine(LifeEngine.DENSE);
+		this.setStepExponent(MIN_STEP_EXPONENT);
+	}
+	
+	@Override
+	protected void copySettingsFrom(CellularAutomaton<?> ca) {
+		if(ca instanceof GameOfLife) {
+			GameOfLife gameOfLife = (GameOfLife) ca;
+			this.setEngine(gameOfLife.getEngine());
+			this.setStepExponent(gameOfLife.getStepExponent());
+		}
+		
+		super.copySettingsFrom(ca);
+	}
+	
+	@Override
+	protected void writeMetadata(PrintWriter writer) {
+		super.writeMetadata(writer);
+		writer.println("engine=" + this.engine);
+		writer.println("stepExponent=" + this.stepExponent);
+	}
+	
+	@Override
+	protected int getNbGenerationsPerUpdate() {
+		return this.isHashLifeUsed() ? (1 << this.getStepExponent()) : 1;
+	}
+	
+	/**
+	 * Update all the cells, with the dense engine or with the hashlife engine.<br />
+	 * With edges loop, hashlife computes exactly the same torus than the dense engine.
+	 * Without edges loop, hashlife computes an unbounded plane, and the grid only shows a window on it:
+	 * cells which leave the grid are not lost, unlike the dense engine where the cells outside of the grid are always dead.
+	 */
+	@Override
+	protected void doCellsTransitions() {
+		if(!this.isHashLifeUsed()) {
+			this.universeTab = null;
+			super.doCellsTransitions();
+			return;
+		}
+		
+		if(this.universe == null) {
+			this.universe = new HashLifeUniverse();
+		}
+		
+		this.resetActiveTiles();
+		this.resetGridHash();
+		this.resetChangedRows();
+		
+		if(this.isLoop()) {
+			this.universe.stepTorus(this.getTab(), this.getStepExponent(), this.getNextTab());
+			this.swapTabs();
+			this.universeTab = null;
+		}
+		else {
+			if(this.universeTab != this.getTab()) {
+				this.universe.setPattern(this.getTab());
+			}
+			
+			this.universe.step(this.getStepExponent());
+			this.universe.writeWindow(this.getNextTab());
+			this.swapTabs();
+			this.universeTab = this.getTab();
+		}
+	}
+	
+	/**
+	 * Without edges loop, the hashlife universe is not bounded by the grid, so the grid may repeat while the cells which left it still evolve.
+	 */
+	@Override
+	protected boolean isCycleDetectable() {
+		return super.isCycleDetectable() && (!this.isHashLifeUsed() || this.isLoop());
+	}
+	
 	@Override
 	protected boolean getNewState(boolean oldState, int nbLivingCells) {
-		return nbLivingCells == 3 || (nbLivingCells == 2 && oldState);
+		return RulePreset.GAME_OF_LIFE.getNewState(oldState, nbLivingCells, this.getNbOfOneInPattern());
+	}
+	
+	/**
+	 * Check that a step exponent is valid.
+	 * @param stepExponent - the step exponent to check.
+	 */
+	protected static void checkStepExponent(int stepExponent) {
+		if(stepExponent < MIN_STEP_EXPONENT || stepExponent > MAX_STEP_EXPONENT) {
+			throw new IllegalArgumentException(STEP_SIZE + " exponent must be between " + MIN_STEP_EXPONENT + " and " + MAX_STEP_EXPONENT + ".");
+		}
+	}
+	
+	/**
+	 * Change the engine which computes the generations, then notify observers.
+	 * @param engine - the new engine.
+	 */
+	public void changeEngine(LifeEngine engine) {
+		this.setEngine(engine);
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Change the exponent k of the number of generations (2^k) computed by each update of the hashlife engine, then notify observers.
+	 * @param stepExponent - the new step exponent.
+	 */
+	public void changeStepExponent(int stepExponent) {
+		checkStepExponent(stepExponent);
+		
+		this.setStepExponent(stepExponent);
+		this.notifyObservers();
 	}
 	
 }
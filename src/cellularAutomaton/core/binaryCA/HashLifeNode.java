@@ -0,0 +1,207 @@
+package cellularAutomaton.core.binaryCA;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class HashLifeNode {
+	
+	// Fields :
+	
+	private final HashLifeNode nw;
+	private final HashLifeNode ne;
+	private final HashLifeNode sw;
+	private final HashLifeNode se;
+	
+	private final int level;
+	private final long population;
+	private final int hash;
+	
+	private HashLifeNode result;
+	private int resultStep = -1;
+	
+	// Constructors :
+	
+	/**
+	 * Build a leaf, which is a single cell.
+	 * @param alive - true if the cell is alive, else false.
+	 */
+	protected HashLifeNode(boolean alive) {
+		this.nw = null;
+		this.ne = null;
+		this.sw = null;
+		this.se = null;
+		this.level = 0;
+		this.population = alive ? 1 : 0;
+		this.hash = alive ? 1 : 0;
+	}
+	
+	/**
+	 * Build a node from its four quadrants, which must have the same level.
+	 * @param nw - the north-west quadrant.
+	 * @param ne - the north-east quadrant.
+	 * @param sw - the south-west quadrant.
+	 * @param se - the south-east quadrant.
+	 */
+	protected HashLifeNode(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+		this.nw = nw;
+		this.ne = ne;
+		this.sw = sw;
+		this.se = se;
+		this.level = nw.level + 1;
+		this.population = nw.population + ne.population + sw.population + se.population;
+		this.hash = hash(nw, ne, sw, se);
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the north-west quadrant.
+	 * @return the north-west quadrant, or null for a leaf.
+	 */
+	public HashLifeNode getNw() {
+		return this.nw;
+	}
+	
+	/**
+	 * Return the north-east quadrant.
+	 * @return the north-east quadrant, or null for a leaf.
+	 */
+	public HashLifeNode getNe() {
+		return this.ne;
+	}
+	
+	/**
+	 * Return the south-west quadrant.
+	 * @return the south-west quadrant, or null for a leaf.
+	 */
+	public HashLifeNode getSw() {
+		return this.sw;
+	}
+	
+	/**
+	 * Return the south-east quadrant.
+	 * @return the south-east quadrant, or null for a leaf.
+	 */
+	public HashLifeNode getSe() {
+		return this.se;
+	}
+	
+	/**
+	 * Return the level of the node. A node of level k is a square of 2^k cells per side.
+	 * @return the level of the node.
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+	
+	/**
+	 * Return the number of living cells in the node.
+	 * @return the population of the node.
+	 */
+	public long getPopulation() {
+		return this.population;
+	}
+	
+	/**
+	 * Indicate if a leaf is a living cell.
+	 * @return true if the node is a living cell, else false.
+	 */
+	public boolean isAlive() {
+		return this.population > 0;
+	}
+	
+	/**
+	 * Return the memoized future of this node, if it has been computed for the given step.
+	 * @param step - the exponent of the number of generations.
+	 * @return the memoized result, or null.
+	 */
+	protected HashLifeNode getResult(int step) {
+		return (this.resultStep == step) ? this.result : null;
+	}
+	
+	// Setters :
+	
+	/**
+	 * Memoize the future of this node.
+	 * @param step - the exponent of the number of generations.
+	 * @param result - the center of the node, 2^step generations later.
+	 */
+	protected void setResult(int step, HashLifeNode result) {
+		this.result = result;
+		this.resultStep = step;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Compute the hash code of a node from its quadrants. Nodes are canonical, so quadrants are compared by identity.
+	 * @param nw - the north-west quadrant.
+	 * @param ne - the north-east quadrant.
+	 * @param sw - the south-west quadrant.
+	 * @param se - the south-east quadrant.
+	 * @return the hash code.
+	 */
+	protected static int hash(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+		int hash = System.identityHashCode(nw);
+		hash = hash * 31 + System.identityHashCode(ne);
+		hash = hash * 31 + System.identityHashCode(sw);
+		hash = hash * 31 + System.identityHashCode(se);
+		return hash;
+	}
+	
+	/**
+	 * Indicate if this node has the given quadrants.
+	 * @param nw - the north-west quadrant.
+	 * @param ne - the north-east quadrant.
+	 * @param sw - the south-west quadrant.
+	 * @param se - the south-east quadrant.
+	 * @return true if the quadrants are the same objects, else false.
+	 */
+	protected boolean hasQuadrants(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+		return this.nw == nw && this.ne == ne && this.sw == sw && this.se == se;
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) {
+			return true;
+		}
+		if(!(o instanceof HashLifeNode)) {
+			return false;
+		}
+		HashLifeNode node = (HashLifeNode) o;
+		return this.level > 0 && node.hasQuadrants(this.nw, this.ne, this.sw, this.se);
+	}
+	
+}
@@ -0,0 +1,425 @@
+package cellularAutomaton.core.binaryCA;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class HashLifeUniverse {
+	
+	// Constants :
+	
+	public static final int MAX_NB_NODES = 1 << 21;
+	
+	// Fields :
+	
+	private final HashLifeNode dead = new HashLifeNode(false);
+	private final HashLifeNode alive = new HashLifeNode(true);
+	
+	private Map<HashLifeNode, HashLifeNode> nodes = new HashMap<HashLifeNode, HashLifeNode>();
+	private final List<HashLifeNode> emptyNodes = new ArrayList<HashLifeNode>();
+	
+	private HashLifeNode root;
+	private long originY;
+	private long originX;
+	
+	// Constructors :
+	
+	/**
+	 * Build an empty universe: an unbounded plane where all the cells are dead.
+	 */
+	public HashLifeUniverse() {
+		this.emptyNodes.add(this.dead);
+		this.root = this.getEmptyNode(2);
+		this.originY = 0;
+		this.originX = 0;
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the number of living cells in the universe.
+	 * @return the population of the universe.
+	 */
+	public long getPopulation() {
+		return this.root.getPopulation();
+	}
+	
+	/**
+	 * Return the number of canonical nodes in the cache.
+	 * @return the number of nodes.
+	 */
+	public int getNbNodes() {
+		return this.nodes.size();
+	}
+	
+	// Setters :
+	
+	/**
+	 * Replace the content of the universe by a grid, at the origin. The cells outside of the grid are dead.
+	 * @param grid - the grid to copy.
+	 */
+	public void setPattern(BitGrid grid) {
+		this.collectGarbage();
+		
+		int level = 2;
+		while((1L << level) < Math.max(grid.getHeight(), grid.getWidth())) {
+			level++;
+		}
+		
+		this.root = this.build(grid, level, 0, 0, false);
+		this.originY = 0;
+		this.originX = 0;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Advance the unbounded plane by 2^step generations.
+	 * @param step - the exponent of the number of generations.
+	 */
+	public void step(int step) {
+		this.collectGarbage();
+		
+		while(this.root.getLevel() < step + 2 || !this.isPadded(this.root)) {
+			this.expand();
+		}
+		this.expand();
+		
+		long offset = 1L << (this.root.getLevel() - 2);
+		this.root = this.successor(this.root, step);
+		this.originY += offset;
+		this.originX += offset;
+	}
+	
+	/**
+	 * Write the cells of the plane which are inside of a grid placed at the origin.
+	 * @param grid - the grid to fill.
+	 */
+	public void writeWindow(BitGrid grid) {
+		grid.clear();
+		this.write(this.root, this.originY, this.originX, grid);
+	}
+	
+	/**
+	 * Advance a grid whose opposite edges are connected by 2^step generations.<br />
+	 * The torus is computed exactly by advancing a periodic tiling of the grid. To keep the tiling small,
+	 * big steps are done as several jumps of 2^k generations, where 2^k is about the size of the grid.
+	 * @param source - the grid to advance, which is not modified.
+	 * @param step - the exponent of the number of generations.
+	 * @param dest - the grid receiving the result, of the same size than the source.
+	 */
+	public void stepTorus(BitGrid source, int step, BitGrid dest) {
+		int minLevel = 1;
+		while((1L << (minLevel - 1)) < Math.max(source.getHeight(), source.getWidth())) {
+			minLevel++;
+		}
+		
+		int jump = Math.min(step, Math.max(0, minLevel - 2));
+		int level = Math.max(minLevel, jump + 2);
+		long nbJumps = 1L << (step - jump);
+		long origin = -(1L << (level - 2));
+		BitGrid grid = source;
+		
+		for(long n = 0; n < nbJumps; n++) {
+			this.collectGarbage();
+			
+			HashLifeNode node = this.build(grid, level, origin, origin, true);
+			HashLifeNode result = this.successor(node, jump);
+			
+			dest.clear();
+			this.write(result, 0, 0, dest);
+			grid = dest;
+		}
+		
+		this.root = this.getEmptyNode(2);
+	}
+	
+	/**
+	 * Return the canonical node having the given quadrants.
+	 * @param nw - the north-west quadrant.
+	 * @param ne - the north-east quadrant.
+	 * @param sw - the south-west quadrant.
+	 * @param se - the south-east quadrant.
+	 * @return the canonical node.
+	 */
+	protected HashLifeNode join(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+		HashLifeNode node = new HashLifeNode(nw, ne, sw, se);
+		HashLifeNode canonical = this.nodes.get(node);
+		
+		if(canonical == null) {
+			this.nodes.put(node, node);
+			canonical = node;
+		}
+		
+		return canonical;
+	}
+	
+	/**
+	 * Return the canonical node of the given level where all the cells are dead.
+	 * @param level - the level of the node.
+	 * @return the empty node.
+	 */
+	protected HashLifeNode getEmptyNode(int level) {
+		while(this.emptyNodes.size() <= level) {
+			HashLifeNode empty = this.emptyNodes.get(this.emptyNodes.size() - 1);
+			this.emptyNodes.add(this.join(empty, empty, empty, empty));
+		}
+		
+		return this.emptyNodes.get(level);
+	}
+	
+	/**
+	 * Build the node of the given level whose north-west corner is at the given coordinates.
+	 * @param grid - the grid to copy.
+	 * @param level - the level of the node.
+	 * @param y - the Y coordinate of the north-west corner.
+	 * @param x - the X coordinate of the north-west corner.
+	 * @param loop - true if the grid is tiled over the whole plane, false if the cells outside of the grid are dead.
+	 * @return the node.
+	 */
+	protected HashLifeNode build(BitGrid grid, int level, long y, long x, boolean loop) {
+		long size = 1L << level;
+		
+		if(!loop && (y >= grid.getHeight() || x >= grid.getWidth() || y + size <= 0 || x + size <= 0)) {
+			return this.getEmptyNode(level);
+		}
+		
+		if(level == 0) {
+			int cellY = (int) (loop ? Math.floorMod(y, (long) grid.getHeight()) : y);
+			int cellX = (int) (loop ? Math.floorMod(x, (long) grid.getWidth()) : x);
+			return grid.get(cellY, cellX) ? this.alive : this.dead;
+		}
+		
+		long half = size >>> 1;
+		return this.join(this.build(grid, level - 1, y, x, loop), this.build(grid, level - 1, y, x + half, loop), this.build(grid, level - 1, y + half, x, loop), this.build(grid, level - 1, y + half, x + half, loop));
+	}
+	
+	/**
+	 * Write the living cells of a node which are inside of a grid.
+	 * @param node - the node.
+	 * @param y - the Y coordinate of the north-west corner of the node.
+	 * @param x - the X coordinate of the north-west corner of the node.
+	 * @param grid - the grid to fill.
+	 */
+	protected void write(HashLifeNode node, long y, long x, BitGrid grid) {
+		long size = 1L << node.getLevel();
+		
+		if(node.getPopulation() == 0 || y >= grid.getHeight() || x >= grid.getWidth() || y + size <= 0 || x + size <= 0) {
+			return;
+		}
+		
+		if(node.getLevel() == 0) {
+			grid.set((int) y, (int) x, true);
+			return;
+		}
+		
+		long half = size >>> 1;
+		this.write(node.getNw(), y, x, grid);
+		this.write(node.getNe(), y, x + half, grid);
+		this.write(node.getSw(), y + half, x, grid);
+		this.write(node.getSe(), y + half, x + half, grid);
+	}
+	
+	/**
+	 * Compute the center of a node of level k, 2^step generations later, with step &lt;= k - 2.
+	 * @param node - the node.
+	 * @param step - the exponent of the number of generations.
+	 * @return the node of level k - 1.
+	 */
+	protected HashLifeNode successor(HashLifeNode node, int step) {
+		int level = node.getLevel();
+		
+		if(node.getPopulation() == 0) {
+			return this.getEmptyNode(level - 1);
+		}
+		
+		HashLifeNode result = node.getResult(step);
+		
+		if(result != null) {
+			return result;
+		}
+		
+		if(level == 2) {
+			result = this.lifeStep(node);
+		}
+		else {
+			HashLifeNode nw = node.getNw();
+			HashLifeNode ne = node.getNe();
+			HashLifeNode sw = node.getSw();
+			HashLifeNode se = node.getSe();
+			
+			HashLifeNode n00 = nw;
+			HashLifeNode n01 = this.join(nw.getNe(), ne.getNw(), nw.getSe(), ne.getSw());
+			HashLifeNode n02 = ne;
+			HashLifeNode n10 = this.join(nw.getSw(), nw.getSe(), sw.getNw(), sw.getNe());
+			HashLifeNode n11 = this.join(nw.getSe(), ne.getSw(), sw.getNe(), se.getNw());
+			HashLifeNode n12 = this.join(ne.getSw(), ne.getSe(), se.getNw(), se.getNe());
+			HashLifeNode n20 = sw;
+			HashLifeNode n21 = this.join(sw.getNe(), se.getNw(), sw.getSe(), se.getSw());
+			HashLifeNode n22 = se;
+			
+			boolean fullSpeed = step == level - 2;
+			int nextStep = fullSpeed ? level - 3 : step;
+			
+			HashLifeNode r00 = fullSpeed ? this.successor(n00, nextStep) : this.center(n00);
+			HashLifeNode r01 = fullSpeed ? this.successor(n01, nextStep) : this.center(n01);
+			HashLifeNode r02 = fullSpeed ? this.successor(n02, nextStep) : this.center(n02);
+			HashLifeNode r10 = fullSpeed ? this.successor(n10, nextStep) : this.center(n10);
+			HashLifeNode r11 = fullSpeed ? this.successor(n11, nextStep) : this.center(n11);
+			HashLifeNode r12 = fullSpeed ? this.successor(n12, nextStep) : this.center(n12);
+			HashLifeNode r20 = fullSpeed ? this.successor(n20, nextStep) : this.center(n20);
+			HashLifeNode r21 = fullSpeed ? this.successor(n21, nextStep) : this.center(n21);
+			HashLifeNode r22 = fullSpeed ? this.successor(n22, nextStep) : this.center(n22);
+			
+			result = this.join(this.successor(this.join(r00, r01, r10, r11), nextStep), this.successor(this.join(r01, r02, r11, r12), nextStep), this.successor(this.join(r10, r11, r20, r21), nextStep), this.successor(this.join(r11, r12, r21, r22), nextStep));
+		}
+		
+		node.setResult(step, result);
+		return result;
+	}
+	
+	/**
+	 * Return the center of a node of level k.
+	 * @param node - the node.
+	 * @return the node of level k - 1.
+	 */
+	protected HashLifeNode center(HashLifeNode node) {
+		return this.join(node.getNw().getSe(), node.getNe().getSw(), node.getSw().getNe(), node.getSe().getNw());
+	}
+	
+	/**
+	 * Compute the center of a node of level 2, one generation later, with the rules of the game of life.
+	 * @param node - the node of 4 x 4 cells.
+	 * @return the node of 2 x 2 cells.
+	 */
+	protected HashLifeNode lifeStep(HashLifeNode node) {
+		boolean[][] cells = new boolean[4][4];
+		
+		for(int i = 0; i < 4; i++) {
+			for(int j = 0; j < 4; j++) {
+				HashLifeNode quadrant = (i < 2) ? ((j < 2) ? node.getNw() : node.getNe()) : ((j < 2) ? node.getSw() : node.getSe());
+				HashLifeNode leaf = ((i & 1) == 0) ? (((j & 1) == 0) ? quadrant.getNw() : quadrant.getNe()) : (((j & 1) == 0) ? quadrant.getSw() : quadrant.getSe());
+				cells[i][j] = leaf.isAlive();
+			}
+		}
+		
+		HashLifeNode[] result = new HashLifeNode[4];
+		
+		for(int i = 1; i <= 2; i++) {
+			for(int j = 1; j <= 2; j++) {
+				int nbLivingCells = 0;
+				
+				for(int di = -1; di <= 1; di++) {
+					for(int dj = -1; dj <= 1; dj++) {
+						if((di != 0 || dj != 0) && cells[i + di][j + dj]) {
+							nbLivingCells++;
+						}
+					}
+				}
+				
+				boolean state = nbLivingCells == 3 || (nbLivingCells == 2 && cells[i][j]);
+				result[(i - 1) * 2 + (j - 1)] = state ? this.alive : this.dead;
+			}
+		}
+		
+		return this.join(result[0], result[1], result[2], result[3]);
+	}
+	
+	/**
+	 * Indicate if all the living cells of a node are in its center, so that it can be advanced without losing cells.
+	 * @param node - the node.
+	 * @return true if the border of the node is empty, else false.
+	 */
+	protected boolean isPadded(HashLifeNode node) {
+		HashLifeNode nw = node.getNw();
+		HashLifeNode ne = node.getNe();
+		HashLifeNode sw = node.getSw();
+		HashLifeNode se = node.getSe();
+		
+		return nw.getPopulation() == nw.getSe().getPopulation() && ne.getPopulation() == ne.getSw().getPopulation() && sw.getPopulation() == sw.getNe().getPopulation() && se.getPopulation() == se.getNw().getPopulation();
+	}
+	
+	/**
+	 * Double the size of the root, keeping its content at the center.
+	 */
+	protected void expand() {
+		HashLifeNode empty = this.getEmptyNode(this.root.getLevel() - 1);
+		long offset = 1L << (this.root.getLevel() - 1);
+		
+		HashLifeNode nw = this.join(empty, empty, empty, this.root.getNw());
+		HashLifeNode ne = this.join(empty, empty, this.root.getNe(), empty);
+		HashLifeNode sw = this.join(empty, this.root.getSw(), empty, empty);
+		HashLifeNode se = this.join(this.root.getSe(), empty, empty, empty);
+		
+		this.root = this.join(nw, ne, sw, se);
+		this.originY -= offset;
+		this.originX -= offset;
+	}
+	
+	/**
+	 * Empty the cache if it is too big. The nodes of the root are moved into a new cache, the memoized results are lost.
+	 */
+	protected void collectGarbage() {
+		if(this.nodes.size() < MAX_NB_NODES) {
+			return;
+		}
+		
+		this.nodes = new HashMap<HashLifeNode, HashLifeNode>();
+		this.emptyNodes.clear();
+		this.emptyNodes.add(this.dead);
+		this.root = this.copy(this.root, new IdentityHashMap<HashLifeNode, HashLifeNode>());
+	}
+	
+	/**
+	 * Copy a node into the cache.
+	 * @param node - the node to copy.
+	 * @param copies - the nodes which have already been copied.
+	 * @return the copy of the node.
+	 */
+	private HashLifeNode copy(HashLifeNode node, Map<HashLifeNode, HashLifeNode> copies) {
+		if(node.getLevel() == 0) {
+			return node;
+		}
+		
+		HashLifeNode copy = copies.get(node);
+		
+		if(copy == null) {
+			copy = this.join(this.copy(node.getNw(), copies), this.copy(node.getNe(), copies), this.copy(node.getSw(), copies), this.copy(node.getSe(), copies));
+			copies.put(node, copy);
+		}
+		
+		return copy;
+	}
+	
+}
@@ -0,0 +1,216 @@
+package cellularAutomaton.core.binaryCA;
+
+import java.io.File;
+import java.io.IOException;
+
+import cellularAutomaton.core.MappedGenerationFile;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class MappedBitGrid extends BitGrid {
+	
+	// Constants :
+	
+	private static final long MAGIC = 0x4341424954475244L;
+	
+	// Fields :
+	
+	private final MappedGenerationFile file;
+	private final boolean[] allocatedRows;
+	
+	// Constructors :
+	
+	/**
+	 * Build a grid stored in a memory-mapped file.<br />
+	 * If resume is true and the file already holds a complete generation of a grid of the same size, this generation is kept.
+	 * Otherwise the file is emptied and all the cells are dead.<br />
+	 * A generation is only marked complete in the file once its rows are forced to the disk, at most once per sync period,
+	 * so a generation found in the file survives a crash of the host, and not only of the JVM.
+	 * @param path - the file where the grid is stored.
+	 * @param height - the row count.
+	 * @param width - the column count.
+	 * @param resume - true if the content of the file must be kept when possible.
+	 * @param syncPeriod - the minimal time between two generations marked complete in the file, in seconds.
+	 * @throws IOException if the file can't be opened or mapped.
+	 */
+	public MappedBitGrid(File path, int height, int width, boolean resume, int syncPeriod) throws IOException {
+		super(height, width);
+		
+		this.file = new MappedGenerationFile(path, MAGIC, height, width, 1, this.getNbWords(), resume, syncPeriod);
+		this.allocatedRows = new boolean[height];
+		
+		if(this.file.isResumed()) {
+			for(int i = 0; i < height; i++) {
+				for(int w = 0; w < this.getNbWords() && !this.allocatedRows[i]; w++) {
+					this.allocatedRows[i] = this.getWord(i, w) != 0;
+				}
+			}
+			
+			super.setGeneration(this.file.getGeneration());
+		}
+	}
+	
+	// Getters :
+	
+	/**
+	 * Indicate if the content of the file was kept when the grid was built.
+	 * @return true if the grid holds the generation found in the file, else false.
+	 */
+	public boolean isResumed() {
+		return this.file.isResumed();
+	}
+	
+	/**
+	 * Return a copy of the words of a row. The cell at column x is the bit (x % 64) of the word (x / 64).<br />
+	 * Each call allocates the copy: the loops over the rows should use {@link #readRow(int, long[], int)} with their own buffer.
+	 * @param y - the Y coordinate of the row.
+	 * @return the words of the row.
+	 */
+	@Override
+	public long[] getRow(int y) {
+		long[] row = new long[this.getNbWords()];
+		this.readRow(y, row, 0);
+		return row;
+	}
+	
+	@Override
+	public void readRow(int y, long[] dest, int offset) {
+		this.file.getRowBuffer(y).get(dest, offset, this.getNbWords());
+	}
+	
+	@Override
+	public long getWord(int y, int w) {
+		return this.file.getWord(y, w);
+	}
+	
+	@Override
+	public boolean isRowAllocated(int y) {
+		return this.allocatedRows[y];
+	}
+	
+	// Setters :
+	
+	@Override
+	public void set(int y, int x, boolean alive) {
+		int w = x >>> WORD_SHIFT;
+		
+		if(alive) {
+			this.file.setWord(y, w, this.file.getWord(y, w) | (1L << x));
+			this.allocatedRows[y] = true;
+		}
+		else {
+			this.file.setWord(y, w, this.file.getWord(y, w) & ~(1L << x));
+		}
+	}
+	
+	@Override
+	public void setRow(int y, long[] words) {
+		boolean empty = true;
+		for(int w = 0; w < this.getNbWords() && empty; w++) {
+			empty = words[w] == 0;
+		}
+		
+		if(empty) {
+			this.releaseRow(y);
+		}
+		else {
+			this.writeRow(y, words);
+		}
+	}
+	
+	@Override
+	public void copyRow(int y, BitGrid grid) {
+		if(!grid.isRowAllocated(y)) {
+			this.releaseRow(y);
+		}
+		else if(grid instanceof MappedBitGrid) {
+			this.file.getRowBuffer(y).put(((MappedBitGrid) grid).file.getRowBuffer(y));
+			this.allocatedRows[y] = true;
+		}
+		else {
+			this.writeRow(y, grid.getRow(y));
+		}
+	}
+	
+	/**
+	 * Change the generation stored in this grid, and in the header of the file when it is safe.
+	 * @param generation - the number of the generation.
+	 * @see MappedGenerationFile#setGeneration(long)
+	 */
+	@Override
+	public void setGeneration(long generation) {
+		super.setGeneration(generation);
+		this.file.setGeneration(generation);
+	}
+	
+	// Methods :
+	
+	@Override
+	public void clear() {
+		this.setGeneration(-1);
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			this.releaseRow(i);
+		}
+	}
+	
+	/**
+	 * Mark the last complete generation in the file, then close it.
+	 */
+	@Override
+	public void close() {
+		this.file.close(this.getGeneration());
+	}
+	
+	/**
+	 * Write the words of a row in the file.
+	 * @param y - the Y coordinate of the row.
+	 * @param words - the new words of the row.
+	 */
+	private void writeRow(int y, long[] words) {
+		this.file.getRowBuffer(y).put(words, 0, this.getNbWords());
+		this.allocatedRows[y] = true;
+	}
+	
+	/**
+	 * Kill all the cells of a row.
+	 * @param y - the Y coordinate of the row.
+	 */
+	private void releaseRow(int y) {
+		if(this.allocatedRows[y]) {
+			for(int w = 0; w < this.getNbWords(); w++) {
+				this.file.setWord(y, w, 0);
+			}
+			
+			this.allocatedRows[y] = false;
+		}
+	}
+	
+}
@@ -1,5 +1,7 @@
 package cellularAutomaton.core.binaryCA;
 
+import cellularAutomaton.core.enums.RulePreset;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -46,7 +48,7 @@ public class RuleOfMajority extends BinaryCA {
 	
 	@Override
 	protected boolean getNewState(boolean oldState, int nbLivingCells) {
-		return nbLivingCells > (this.getNbOfOneInPattern() / 2);
+		return RulePreset.RULE_OF_MAJORITY.getNewState(oldState, nbLivingCells, this.getNbOfOneInPattern());
 	}
 	
 }
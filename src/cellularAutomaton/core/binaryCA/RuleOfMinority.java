@@ -1,5 +1,7 @@
 package cellularAutomaton.core.binaryCA;
 
+import cellularAutomaton.core.enums.RulePreset;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -41,7 +43,7 @@ public class RuleOfMinority extends BinaryCA {
 	
 	@Override
 	protected boolean getNewState(boolean oldState, int nbLivingCells) {
-		return nbLivingCells < (this.getNbOfOneInPattern() / 2);
+		return RulePreset.RULE_OF_MINORITY.getNewState(oldState, nbLivingCells, this.getNbOfOneInPattern());
 	}
 	
 }
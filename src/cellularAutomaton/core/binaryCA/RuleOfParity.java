@@ -1,5 +1,7 @@
 package cellularAutomaton.core.binaryCA;
 
+import cellularAutomaton.core.enums.RulePreset;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -41,7 +43,7 @@ public class RuleOfParity extends BinaryCA {
 	
 	@Override
 	protected boolean getNewState(boolean oldState, int nbLivingCells) {
-		return (nbLivingCells % 2) == 0;
+		return RulePreset.RULE_OF_PARITY.getNewState(oldState, nbLivingCells, this.getNbOfOneInPattern());
 	}
 	
 }
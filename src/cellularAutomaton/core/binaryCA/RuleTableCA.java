@@ -0,0 +1,316 @@
+package cellularAutomaton.core.binaryCA;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.enums.RulePreset;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class RuleTableCA extends BinaryCA {
+	
+	// Constants :
+	
+	public static final String RULE = "Rule";
+	public static final String RULE_PRESET = "Preset";
+	
+	private static final String DEFAULT_RULE = "B3/S23";
+	private static final int MAX_COUNT = 1000;
+	
+	// Fields :
+	
+	private String rule;
+	private boolean[] birthCounts;
+	private boolean[] survivalCounts;
+	private RulePreset rulePreset = null;
+	
+	// Constructors :
+	
+	public RuleTableCA() {
+		super();
+		this.setRule(DEFAULT_RULE);
+		this.compileRule();
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the rule, in Birth/Survival notation.
+	 * @return the rule, like B3/S23.
+	 */
+	public String getRule() {
+		return this.rule;
+	}
+	
+	/**
+	 * Return the predefined rule, which is tabulated again each time the pattern changes.
+	 * @return the predefined rule, or null if the rule was given explicitly.
+	 */
+	public RulePreset getRulePreset() {
+		return this.rulePreset;
+	}
+	
+	// Setters :
+	
+	/**
+	 * Change the rule.
+	 * @param rule - the new rule, in Birth/Survival notation.
+	 */
+	protected void setRule(String rule) {
+		this.setRuleTable(parseCounts(rule, 'B'), parseCounts(rule, 'S'));
+	}
+	
+	/**
+	 * Change the rule.
+	 * @param birthCounts - the numbers of living cells in the pattern for which a dead cell becomes alive.
+	 * @param survivalCounts - the numbers of living cells in the pattern for which a living cell stays alive.
+	 */
+	protected void setRuleTable(boolean[] birthCounts, boolean[] survivalCounts) {
+		this.birthCounts = Arrays.copyOf(birthCounts, birthCounts.length);
+		this.survivalCounts = Arrays.copyOf(survivalCounts, survivalCounts.length);
+		this.rule = formatRule(birthCounts, survivalCounts);
+		this.setChanged();
+	}
+	
+	/**
+	 * Change the predefined rule.
+	 * @param rulePreset - the predefined rule, or null if the rule is given explicitly.
+	 */
+	protected void setRulePreset(RulePreset rulePreset) {
+		this.rulePreset = rulePreset;
+		this.setChanged();
+	}
+	
+	// Methods :
+	
+	@Override
+	protected void copySettingsFrom(CellularAutomaton<?> ca) {
+		if(ca instanceof RuleTableCA) {
+			RuleTableCA ruleTableCA = (RuleTableCA) ca;
+			this.setRulePreset(ruleTableCA.rulePreset);
+			this.setRuleTable(ruleTableCA.birthCounts, ruleTableCA.survivalCounts);
+			this.compileRule();
+		}
+		
+		super.copySettingsFrom(ca);
+	}
+	
+	@Override
+	protected void writeMetadata(PrintWriter writer) {
+		super.writeMetadata(writer);
+		writer.println("rule=" + this.rule);
+		
+		if(this.rulePreset != null) {
+			writer.println("preset=" + this.rulePreset.name());
+		}
+	}
+	
+	/**
+	 * Tabulate the predefined rule, if there is one, for the actual pattern, then the rule for every possible count.
+	 */
+	@Override
+	protected void compileRule() {
+		if(this.rulePreset != null) {
+			boolean[] birthCounts = new boolean[this.getNbOfOneInPattern() + 1];
+			boolean[] survivalCounts = new boolean[this.getNbOfOneInPattern() + 1];
+			
+			for(int k = 0; k <= this.getNbOfOneInPattern(); k++) {
+				birthCounts[k] = this.rulePreset.getNewState(false, k, this.getNbOfOneInPattern());
+				survivalCounts[k] = this.rulePreset.getNewState(true, k, this.getNbOfOneInPattern());
+			}
+			
+			this.setRuleTable(birthCounts, survivalCounts);
+		}
+		
+		super.compileRule();
+	}
+	
+	@Override
+	protected boolean getNewState(boolean oldState, int nbLivingCells) {
+		boolean[] counts = oldState ? this.survivalCounts : this.birthCounts;
+		return counts != null && nbLivingCells < counts.length && counts[nbLivingCells];
+	}
+	
+	/**
+	 * Read the counts of one part of a rule in Birth/Survival notation.<br />
+	 * Counts are written as digits (B3/S23), or separated by commas when a count is greater than 9 (B3,10/S2,3).
+	 * @param rule - the rule.
+	 * @param prefix - the letter of the part, B or S.
+	 * @return the counts of the part, or null if the rule is not valid.
+	 */
+	private static boolean[] parseCounts(String rule, char prefix) {
+		String[] parts = rule.trim().toUpperCase().split("/", -1);
+		
+		if(parts.length != 2) {
+			return null;
+		}
+		
+		for(String part : parts) {
+			if(part.isEmpty() || part.charAt(0) != prefix) {
+				continue;
+			}
+			
+			String counts = part.substring(1).trim();
+			
+			if(counts.isEmpty()) {
+				return new boolean[0];
+			}
+			
+			String[] values = counts.contains(",") ? counts.split(",", -1) : counts.split("");
+			int[] numbers = new int[values.length];
+			int max = 0;
+			
+			for(int i = 0; i < values.length; i++) {
+				String value = values[i].trim();
+				
+				if(!value.matches("[0-9]{1,4}") || Integer.parseInt(value) > MAX_COUNT) {
+					return null;
+				}
+				
+				numbers[i] = Integer.parseInt(value);
+				max = Math.max(max, numbers[i]);
+			}
+			
+			boolean[] table = new boolean[max + 1];
+			for(int number : numbers) {
+				table[number] = true;
+			}
+			
+			return table;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Write a rule in Birth/Survival notation.
+	 * @param birthCounts - the numbers of living cells in the pattern for which a dead cell becomes alive.
+	 * @param survivalCounts - the numbers of living cells in the pattern for which a living cell stays alive.
+	 * @return the rule, like B3/S23.
+	 */
+	private static String formatRule(boolean[] birthCounts, boolean[] survivalCounts) {
+		return "B" + formatCounts(birthCounts, birthCounts.length > 10 || survivalCounts.length > 10) + "/S" + formatCounts(survivalCounts, birthCounts.length > 10 || survivalCounts.length > 10);
+	}
+	
+	/**
+	 * Write the counts of one part of a rule.
+	 * @param counts - the counts.
+	 * @param commas - true if the counts must be separated by commas.
+	 * @return the counts, as text.
+	 */
+	private static String formatCounts(boolean[] counts, boolean commas) {
+		StringBuilder builder = new StringBuilder();
+		
+		for(int k = 0; k < counts.length; k++) {
+			if(counts[k]) {
+				if(commas && builder.length() > 0) {
+					builder.append(",");
+				}
+				
+				builder.append(k);
+			}
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * Check that a rule is valid.
+	 * @param rule - the rule to check.
+	 */
+	protected static void checkRule(String rule) {
+		if(rule == null || parseCounts(rule, 'B') == null || parseCounts(rule, 'S') == null) {
+			throw new IllegalArgumentException(RULE + " must be written as B<counts>/S<counts>, like B3/S23 or B3,10/S2,3.");
+		}
+	}
+	
+	/**
+	 * Check that a rule table is valid.
+	 * @param birthCounts - the birth counts to check.
+	 * @param survivalCounts - the survival counts to check.
+	 */
+	protected static void checkRuleTable(boolean[] birthCounts, boolean[] survivalCounts) {
+		if(birthCounts == null || survivalCounts == null || birthCounts.length > MAX_COUNT + 1 || survivalCounts.length > MAX_COUNT + 1) {
+			throw new IllegalArgumentException(RULE + " must have a table of birth counts and a table of survival counts, for counts up to " + MAX_COUNT + ".");
+		}
+	}
+	
+	/**
+	 * Check that a predefined rule is valid.
+	 * @param rulePreset - the predefined rule to check.
+	 */
+	protected static void checkRulePreset(RulePreset rulePreset) {
+		if(rulePreset == null) {
+			throw new IllegalArgumentException(RULE_PRESET + " must be one of the predefined rules.");
+		}
+	}
+	
+	/**
+	 * Change the rule, then notify observers.
+	 * @param rule - the new rule, in Birth/Survival notation.
+	 */
+	public void changeRule(String rule) {
+		checkRule(rule);
+		
+		this.setRulePreset(null);
+		this.setRule(rule);
+		this.compileRule();
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Change the rule with an explicit table, then notify observers.
+	 * @param birthCounts - for each number of living cells in the pattern, true if a dead cell becomes alive.
+	 * @param survivalCounts - for each number of living cells in the pattern, true if a living cell stays alive.
+	 */
+	public void changeRuleTable(boolean[] birthCounts, boolean[] survivalCounts) {
+		checkRuleTable(birthCounts, survivalCounts);
+		
+		this.setRulePreset(null);
+		this.setRuleTable(birthCounts, survivalCounts);
+		this.compileRule();
+		this.notifyObservers();
+	}
+	
+	/**
+	 * Change the rule to one of the predefined rules, then notify observers.<br />
+	 * The predefined rule is tabulated for the actual pattern, and again each time the pattern changes, until another rule is chosen.
+	 * @param preset - the predefined rule.
+	 */
+	public void changeRulePreset(RulePreset preset) {
+		checkRulePreset(preset);
+		
+		this.setRulePreset(preset);
+		this.compileRule();
+		this.notifyObservers();
+	}
+	
+}
@@ -1,5 +1,13 @@
 package cellularAutomaton.core.enums;
 
+import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.binaryCA.GameOfLife;
+import cellularAutomaton.core.binaryCA.RuleOfMajority;
+import cellularAutomaton.core.binaryCA.RuleOfMinority;
+import cellularAutomaton.core.binaryCA.RuleOfParity;
+import cellularAutomaton.core.binaryCA.RuleTableCA;
+import cellularAutomaton.core.latticeGas.Swarming;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -37,6 +45,7 @@ public enum ActiveCA {
 	RULE_OF_MAJORITY("Rule of majority"),
 	RULE_OF_MINORITY("Rule of minority"),
 	RULE_OF_PARITY("Rule of parity"),
+	RULE_TABLE("Rule table"),
 	SWARMING("Swarming");
 	
 	// Fields :
@@ -51,6 +60,29 @@ public enum ActiveCA {
 	
 	// Methods :
 	
+	/**
+	 * Build a new cellular automaton of this type, with default settings.
+	 * @return the new cellular automaton.
+	 */
+	public CellularAutomaton<?> newInstance() {
+		switch(this) {
+			case GAME_OF_LIFE:
+				return new GameOfLife();
+			case RULE_OF_MAJORITY:
+				return new RuleOfMajority();
+			case RULE_OF_MINORITY:
+				return new RuleOfMinority();
+			case RULE_OF_PARITY:
+				return new RuleOfParity();
+			case RULE_TABLE:
+				return new RuleTableCA();
+			case SWARMING:
+				return new Swarming();
+			default:
+				throw new IllegalArgumentException("Unknown cellular automaton : " + this + ".");
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return this.toString;
@@ -1,6 +1,15 @@
 package cellularAutomaton.core.latticeGas;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 import cellularAutomaton.core.CellularAutomaton;
+import cellularAutomaton.core.CheckpointReader;
+import cellularAutomaton.core.CheckpointWriter;
+import cellularAutomaton.core.RowBandTransition;
+import ec.util.MersenneTwisterFast;
 
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
@@ -31,7 +40,7 @@ import cellularAutomaton.core.CellularAutomaton;
  * 
  * @author William Philbert, Kevin Grandemange.
  */
-public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
+public abstract class LatticeGasCA extends CellularAutomaton<ParticleGrid> {
 	
 	// Constants :
 	
@@ -44,6 +53,8 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	public static final String PROBA_PROPAGATION = "Propagation proba";
 	public static final String PRESERVE_PARTICULES = "Preserve particules";
 	
+	private static final int MAX_GRID_SIZE = 1 << 15;
+	
 	// Fields :
 	
 	private double probaInteraction;
@@ -57,6 +68,10 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	private double probaPropagation1 = 0.8;
 	private double probaPropagation2 = 1.0;
 	
+	private ParticleGrid interactionTab;
+	private int[] haloRows;
+	private int[] haloColumns;
+	
 	// Constructors :
 	
 	protected LatticeGasCA() {
@@ -137,6 +152,25 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 		return this.probaPropagation2;
 	}
 	
+	/**
+	 * Return the grid where the interaction part of the grid update is written, before the propagation.
+	 * Unlike the other grids, it also holds the move flags.
+	 * @return the interaction grid.
+	 */
+	protected ParticleGrid getInteractionTab() {
+		return this.interactionTab;
+	}
+	
+	/**
+	 * Return the particles of a cell of the actual grid, as an object for the display.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return the particles of the cell.
+	 */
+	public Particles getParticles(int y, int x) {
+		return new Particles(this.getTab().getCell(y, x));
+	}
+	
 	// Setters :
 	
 	/**
@@ -220,8 +254,25 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 		this.setChanged();
 	}
 	
+	/**
+	 * Change the grid where the interaction part of the grid update is written.
+	 * @param interactionTab - the new interaction grid.
+	 */
+	protected void setInteractionTab(ParticleGrid interactionTab) {
+		this.interactionTab = interactionTab;
+	}
+	
 	// Methods :
 	
+	/**
+	 * The grids cost 21 bits per cell (the particles of the 3 grids, and the particles and move flags of the interaction grid),
+	 * so the limit is 32768 cells per side, about 2.8 GB. With a grid directory, only the interaction grid stays in the heap.
+	 */
+	@Override
+	protected int getMaxGridSize() {
+		return MAX_GRID_SIZE;
+	}
+	
 	@Override
 	protected boolean[][] getDefaultPattern() {
 		return new boolean[][] { {false, true, false}, {true, false, true}, {false, true, false}};
@@ -251,121 +302,374 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 		this.setParticlesPreserving(true);
 	}
 	
+	@Override
+	protected void copySettingsFrom(CellularAutomaton<?> ca) {
+		if(ca instanceof LatticeGasCA) {
+			LatticeGasCA latticeGasCA = (LatticeGasCA) ca;
+			this.setProbaInteraction(latticeGasCA.getProbaInteraction());
+			this.setProbaPropagation(latticeGasCA.getProbaPropagation());
+			this.setParticlesPreserving(latticeGasCA.isParticlesPreserving());
+			this.setVaryProbaInteraction(latticeGasCA.isVaryProbaInteraction());
+			this.setVaryProbaPropagation(latticeGasCA.isVaryProbaPropagation());
+			this.setProbaInteraction1(latticeGasCA.getProbaInteraction1());
+			this.setProbaInteraction2(latticeGasCA.getProbaInteraction2());
+			this.setProbaPropagation1(latticeGasCA.getProbaPropagation1());
+			this.setProbaPropagation2(latticeGasCA.getProbaPropagation2());
+		}
+		
+		super.copySettingsFrom(ca);
+	}
+	
+	@Override
+	protected void writeMetadata(PrintWriter writer) {
+		super.writeMetadata(writer);
+		writer.println("probaInteraction=" + this.probaInteraction);
+		writer.println("probaPropagation=" + this.probaPropagation);
+		writer.println("particlesPreserving=" + this.particlesPreserving);
+		
+		if(this.varyProbaInteraction) {
+			writer.println("probaInteraction1=" + this.probaInteraction1);
+			writer.println("probaInteraction2=" + this.probaInteraction2);
+		}
+		
+		if(this.varyProbaPropagation) {
+			writer.println("probaPropagation1=" + this.probaPropagation1);
+			writer.println("probaPropagation2=" + this.probaPropagation2);
+		}
+	}
+	
 	@Override
 	protected void buildGrid() {
 		super.buildGrid();
 		
-		this.setTab(new Particles[this.getHeight()][this.getWidth()]);
-		this.setOldTab(new Particles[this.getHeight()][this.getWidth()]);
+		if(this.openGrids()) {
+			return;
+		}
+		
+		double[] draws = new double[ParticleGrid.NB_DIRECTIONS * this.getWidth()];
 		
 		for(int i = 0; i < this.getHeight(); i++) {
+			this.rand.nextDoubles(draws);
+			
 			for(int j = 0; j < this.getWidth(); j++) {
-				boolean top = this.rand.nextDouble() <= (this.getProbaInit());
-				boolean bottom = this.rand.nextDouble() <= (this.getProbaInit());
-				boolean right = this.rand.nextDouble() <= (this.getProbaInit());
-				boolean left = this.rand.nextDouble() <= (this.getProbaInit());
-				this.getTab()[i][j] = new Particles(top, bottom, right, left);
+				for(int direction = 0; direction < ParticleGrid.NB_DIRECTIONS; direction++) {
+					this.getTab().set(direction, i, j, draws[ParticleGrid.NB_DIRECTIONS * j + direction] <= (this.getProbaInit()));
+				}
 			}
 		}
+		
+		this.getTab().setGeneration(0);
 	}
 	
+	/**
+	 * Write the particles of the cells, packed in 4 bits per cell (top, bottom, right, left), so 16 cells per word.<br />
+	 * The move flags are not written: they are drawn again by the next interaction.
+	 */
 	@Override
-	protected Particles cloneCell(Particles cell) {
-		return cell.clone();
+	protected void writeGrid(CheckpointWriter out) throws IOException {
+		long[] words = new long[this.getNbWordsPerRow()];
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			this.packRow(i, words, 0);
+			out.writeLongs(words, words.length);
+		}
 	}
 	
+	/**
+	 * A frame holds the packed rows, one after the other.
+	 */
 	@Override
-	protected void doCellsTransitions() {
+	public int getFrameSize() {
+		return this.getHeight() * this.getNbWordsPerRow();
+	}
+	
+	@Override
+	public void readFrameRow(int y, long[] frame) {
+		this.packRow(y, frame, y * this.getNbWordsPerRow());
+	}
+	
+	/**
+	 * Return the number of words of a packed row, with 4 bits per cell.
+	 * @return the number of words of a row.
+	 */
+	protected int getNbWordsPerRow() {
+		return (this.getWidth() + 15) / 16;
+	}
+	
+	/**
+	 * Pack the particles of a row in 4 bits per cell (top, bottom, right, left), so 16 cells per word.
+	 * @param y - the Y coordinate of the row.
+	 * @param words - the array which receives the words.
+	 * @param offset - the index of the first word of the row in the array.
+	 */
+	protected void packRow(int y, long[] words, int offset) {
+		Arrays.fill(words, offset, offset + this.getNbWordsPerRow(), 0);
+		
+		for(int j = 0; j < this.getWidth(); j++) {
+			long bits = this.getTab().getCell(y, j);
+			words[offset + (j >>> 4)] |= bits << ((j & 15) << 2);
+		}
+	}
+	
+	@Override
+	protected void readGrid(CheckpointReader in) throws IOException {
+		this.setResumeGrid(false);
+		this.openGrids();
+		
+		long[] words = new long[this.getNbWordsPerRow()];
+		
 		for(int i = 0; i < this.getHeight(); i++) {
+			in.readLongs(words, words.length);
+			
 			for(int j = 0; j < this.getWidth(); j++) {
-				this.interaction(i, j);
-				this.getTab()[i][j].setMove(this.rand.nextDouble() <= this.getProbaPropagation());
+				this.getTab().setCell(i, j, (int) (words[j >>> 4] >>> ((j & 15) << 2)) & 15);
 			}
 		}
 		
-		if(this.isParticlesPreserving()) {
-			for(int i = 0; i < this.getHeight(); i++) {
-				for(int j = 0; j < this.getWidth(); j++) {
-					this.propagateDontMove(i, j);
+		this.getTab().setGeneration(this.getNbIteration());
+	}
+	
+	/**
+	 * Create the grids: the three generation buffers, which hold only the particles, in the heap or in memory-mapped files,
+	 * and the interaction grid, which also holds the move flags. The interaction grid is rebuilt by each generation, so it stays in the heap.<br />
+	 * If the memory-mapped files can't be opened, the generation buffers are created in the heap.
+	 * @return the three generation buffers, whose generation is -1 unless they were resumed from the files.
+	 */
+	@Override
+	protected ParticleGrid[] createGrids() {
+		ParticleGrid[] grids = new ParticleGrid[3];
+		this.setInteractionTab(new ParticleGrid(this.getHeight(), this.getWidth(), ParticleGrid.NB_PLANES));
+		
+		if(this.getGridDirectory() != null) {
+			try {
+				for(int k = 0; k < grids.length; k++) {
+					grids[k] = new MappedParticleGrid(new File(this.getGridDirectory(), "particles" + k + ".bin"), this.getHeight(), this.getWidth(), ParticleGrid.NB_DIRECTIONS, this.isResumeGrid(), this.getCheckpointPeriod());
 				}
+				
+				return grids;
 			}
+			catch(IOException argh) {
+				argh.printStackTrace();
+				
+				for(ParticleGrid grid : grids) {
+					if(grid != null) {
+						grid.close();
+					}
+				}
+			}
+		}
+		
+		for(int k = 0; k < grids.length; k++) {
+			grids[k] = new ParticleGrid(this.getHeight(), this.getWidth(), ParticleGrid.NB_DIRECTIONS);
 		}
 		
-		this.saveOldTab();
+		return grids;
+	}
+	
+	/**
+	 * A cell is written as a hexadecimal digit, the particles packed like in the checkpoints.
+	 */
+	@Override
+	protected String cellToString(int y, int x) {
+		return Integer.toHexString(this.getTab().getCell(y, x));
+	}
+	
+	/**
+	 * Update all the cells: the interaction reads the actual grid and writes the interaction grid,
+	 * then the propagation reads the interaction grid and writes the back buffer, which becomes the actual grid.
+	 */
+	@Override
+	protected void doCellsTransitions() {
+		this.prepareInteractions();
+		
+		this.doRowBandsTransitions(new RowBandTransition() {
+			
+			@Override
+			public boolean isRandom() {
+				return true;
+			}
+			
+			@Override
+			public void doRows(int firstRow, int lastRow, MersenneTwisterFast rand) {
+				LatticeGasCA.this.doRowsInteractions(firstRow, lastRow, rand);
+			}
+			
+		});
 		
 		if(this.isParticlesPreserving()) {
-			for(int i = 0; i < this.getHeight(); i++) {
-				for(int j = 0; j < this.getWidth(); j++) {
-					this.propagation(i, j);
+			this.propagateDontMove();
+		}
+		
+		this.doRowBandsTransitions(new RowBandTransition() {
+			
+			@Override
+			public boolean isRandom() {
+				return false;
+			}
+			
+			@Override
+			public void doRows(int firstRow, int lastRow, MersenneTwisterFast rand) {
+				LatticeGasCA.this.doRowsPropagations(firstRow, lastRow);
+			}
+			
+		});
+		
+		this.swapTabs();
+	}
+	
+	/**
+	 * Do the interaction part of the update of a band of rows.
+	 * @param firstRow - the first row of the band.
+	 * @param lastRow - the row after the last row of the band.
+	 * @param rand - the random generator of the band.
+	 */
+	protected void doRowsInteractions(int firstRow, int lastRow, MersenneTwisterFast rand) {
+		ParticleGrid tab = this.getTab();
+		ParticleGrid interactionTab = this.getInteractionTab();
+		Flux directorField = new Flux();
+		long[] moves = new long[tab.getNbWords()];
+		double probaPropagation = this.getProbaPropagation();
+		
+		for(int i = firstRow; i < lastRow; i++) {
+			for(int direction = 0; direction < ParticleGrid.NB_DIRECTIONS; direction++) {
+				interactionTab.copyRow(direction, i, tab);
+			}
+			
+			Arrays.fill(moves, 0);
+			
+			for(int j = 0; j < this.getWidth(); j++) {
+				this.interaction(i, j, directorField, rand);
+				
+				if(rand.nextDouble() <= probaPropagation) {
+					moves[j >>> 6] |= (1L << j);
 				}
 			}
+			
+			interactionTab.setRow(ParticleGrid.MOVE, i, moves);
+			interactionTab.setRow(ParticleGrid.MOVE_TOP, i, moves);
+			interactionTab.setRow(ParticleGrid.MOVE_BOTTOM, i, moves);
+			interactionTab.setRow(ParticleGrid.MOVE_RIGHT, i, moves);
+			interactionTab.setRow(ParticleGrid.MOVE_LEFT, i, moves);
 		}
-		else {
-			for(int i = 0; i < this.getHeight(); i++) {
-				for(int j = 0; j < this.getWidth(); j++) {
-					this.propagationWithoutParticlesConservation(i, j);
-				}
+	}
+	
+	/**
+	 * Do the propagation part of the update of a band of rows.
+	 * @param firstRow - the first row of the band.
+	 * @param lastRow - the row after the last row of the band.
+	 */
+	protected void doRowsPropagations(int firstRow, int lastRow) {
+		ParticleGrid nextTab = this.getNextTab();
+		long[][] next = new long[ParticleGrid.NB_DIRECTIONS][nextTab.getNbWords()];
+		
+		for(int i = firstRow; i < lastRow; i++) {
+			if(this.isParticlesPreserving()) {
+				this.propagation(i, next);
+			}
+			else {
+				this.propagationWithoutParticlesConservation(i, next);
+			}
+			
+			for(int direction = 0; direction < ParticleGrid.NB_DIRECTIONS; direction++) {
+				nextTab.setRow(direction, i, next[direction]);
 			}
 		}
 	}
 	
 	/**
-	 * Do the interaction part of the update of a cell.
+	 * Prepare what the interactions read in parallel, before the interactions of a generation: the halo,
+	 * and what the subclasses precompute from the settings.
+	 */
+	protected void prepareInteractions() {
+		this.refreshHalo();
+	}
+	
+	/**
+	 * Do the interaction part of the update of a cell: read the actual grid, write the particles of the interaction grid.<br />
+	 * The director field buffer is shared by the cells of a band of rows, so the interaction doesn't allocate anything.
 	 * @param y - the Y coordinate of the cell.
 	 * @param x - the X coordinate of the cell.
+	 * @param directorField - a buffer which can receive the director field of the cell.
+	 * @param rand - the random generator to use.
 	 */
-	protected abstract void interaction(int y, int x);
+	protected abstract void interaction(int y, int x, Flux directorField, MersenneTwisterFast rand);
 	
 	/**
-	 * Get the director field of neighboring cells, in the pattern, around the cell at the given coordinates, in the old or the new table.
+	 * Get the director field of neighboring cells, in the pattern, around the cell at the given coordinates, in the actual grid.
+	 * The halo must have been refreshed.
 	 * @param y - the Y coordinate of the cell.
 	 * @param x - the X coordinate of the cell.
-	 * @param old - true if the director field has to be calculated from the old tab, false if it has to be calculated from the new tab.
-	 * @return the director field of neighboring cells.
-	 */
-	private Flux getDirectorField(int y, int x, boolean old) {
-		Flux directorField = new Flux();
+	 * @param directorField - the flux which receives the director field of neighboring cells.
+	 */
+	protected void getDirectorField(int y, int x, Flux directorField) {
+		ParticleGrid tab = this.getTab();
+		int[] offsetsY = this.getPatternOffsetsY();
+		int[] offsetsX = this.getPatternOffsetsX();
+		int y0 = y + this.getPatternRadiusY();
+		int x0 = x + this.getPatternRadiusX();
+		int fluxX = 0;
+		int fluxY = 0;
 		
-		for(int i = 0; i < this.getPattern().length; i++) {
-			for(int j = 0; j < this.getPattern()[0].length; j++) {
-				if(this.getPattern()[i][j]) {
-					int y2 = y + i - this.getPatternYPos();
-					int x2 = x + j - this.getPatternXPos();
-					
-					if(y2 < 0 || y2 >= this.getHeight() || x2 < 0 || x2 >= this.getWidth()) {
-						y2 = (y2 + this.getHeight()) % this.getHeight();
-						x2 = (x2 + this.getWidth()) % this.getWidth();
-					}
-					
-					Particles[][] tab = old ? this.getOldTab() : this.getTab();
-					Flux flux = tab[y2][x2].getFlux();
-					directorField.y += flux.y;
-					directorField.x += flux.x;
-				}
-			}
+		for(int k = 0; k < offsetsY.length; k++) {
+			int i = this.haloRows[y0 + offsetsY[k]];
+			int j = this.haloColumns[x0 + offsetsX[k]];
+			int w = j >>> 6;
+			fluxX += (int) ((tab.getWord(ParticleGrid.RIGHT, i, w) >>> j) & 1) - (int) ((tab.getWord(ParticleGrid.LEFT, i, w) >>> j) & 1);
+			fluxY += (int) ((tab.getWord(ParticleGrid.TOP, i, w) >>> j) & 1) - (int) ((tab.getWord(ParticleGrid.BOTTOM, i, w) >>> j) & 1);
 		}
 		
-		return directorField;
+		directorField.x = fluxX;
+		directorField.y = fluxY;
 	}
 	
 	/**
-	 * Get the director field of neighboring cells, in the pattern, around the cell at the given coordinates, in the old table.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
-	 * @return the director field of neighboring cells.
+	 * Rebuild the halo, which maps the coordinates around the grid, up to the pattern radius, to the cells of the opposite edges:
+	 * the row (y + patternRadiusY) of the halo is the row y of the grid wrapped, the same goes for the columns.
+	 * It only holds indexes, so it is cheap to rebuild.<br />
+	 * Must be called before the director fields are read in parallel.
 	 */
-	protected Flux getOldDirectorField(int y, int x) {
-		return this.getDirectorField(y, x, true);
+	protected void refreshHalo() {
+		int radiusY = this.getPatternRadiusY();
+		int radiusX = this.getPatternRadiusX();
+		boolean sameSize = this.haloRows != null && this.haloRows.length == this.getHeight() + 2 * radiusY && this.haloColumns.length == this.getWidth() + 2 * radiusX;
+		
+		int[] rows = sameSize ? this.haloRows : new int[this.getHeight() + 2 * radiusY];
+		int[] columns = sameSize ? this.haloColumns : new int[this.getWidth() + 2 * radiusX];
+		
+		for(int i = 0; i < rows.length; i++) {
+			rows[i] = Math.floorMod(i - radiusY, this.getHeight());
+		}
+		
+		for(int j = 0; j < columns.length; j++) {
+			columns[j] = Math.floorMod(j - radiusX, this.getWidth());
+		}
+		
+		this.haloColumns = columns;
+		this.haloRows = rows;
 	}
 	
 	/**
-	 * Get the director field of neighboring cells, in the pattern, around the cell at the given coordinates, in the new table.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
-	 * @return the director field of neighboring cells.
+	 * Tell the neighboring cells of all the cells which don't have to do the propagation step, in the order of the rows then of the columns.
 	 */
-	protected Flux getNewDirectorField(int y, int x) {
-		return this.getDirectorField(y, x, false);
+	protected void propagateDontMove() {
+		ParticleGrid tab = this.getInteractionTab();
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			long[] move = tab.getRow(ParticleGrid.MOVE, i);
+			long[] top = tab.getRow(ParticleGrid.TOP, i);
+			long[] bottom = tab.getRow(ParticleGrid.BOTTOM, i);
+			long[] right = tab.getRow(ParticleGrid.RIGHT, i);
+			long[] left = tab.getRow(ParticleGrid.LEFT, i);
+			
+			for(int w = 0; w < tab.getNbWords(); w++) {
+				long stopped = ~move[w] & (top[w] | bottom[w] | right[w] | left[w]);
+				
+				while(stopped != 0) {
+					this.propagateDontMove(i, (w << 6) + Long.numberOfTrailingZeros(stopped));
+					stopped &= stopped - 1;
+				}
+			}
+		}
 	}
 	
 	/**
@@ -375,119 +679,121 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	 * @param x - the X coordinate of the cell.
 	 */
 	protected void propagateDontMove(int y, int x) {
-		Particles cell = this.getTab()[y][x];
+		ParticleGrid tab = this.getInteractionTab();
 		
-		if(!cell.isMove()) {
-			Particles nextCell;
-			boolean propagate;
-			int i, j;
-			
-			if(cell.isTop()) {
-				propagate = true;
-				i = y;
-				j = x;
-				while(propagate) {
-					i = (i + 1) % this.getHeight();
-					nextCell = this.getTab()[i][j];
-					if(nextCell.isTop() && nextCell.isMoveTop()) {
-						nextCell.setMoveTop(false);
-					}
-					else {
-						propagate = false;
-					}
-				}
+		if(!tab.get(ParticleGrid.MOVE, y, x)) {
+			if(tab.get(ParticleGrid.TOP, y, x)) {
+				this.stopParticles(ParticleGrid.TOP, ParticleGrid.MOVE_TOP, y, x, 1, 0);
 			}
 			
-			if(cell.isBottom()) {
-				propagate = true;
-				i = y;
-				j = x;
-				while(propagate) {
-					i = (i - 1 + this.getHeight()) % this.getHeight();
-					nextCell = this.getTab()[i][j];
-					if(nextCell.isBottom() && nextCell.isMoveBottom()) {
-						nextCell.setMoveBottom(false);
-					}
-					else {
-						propagate = false;
-					}
-				}
+			if(tab.get(ParticleGrid.BOTTOM, y, x)) {
+				this.stopParticles(ParticleGrid.BOTTOM, ParticleGrid.MOVE_BOTTOM, y, x, -1, 0);
 			}
 			
-			if(cell.isRight()) {
-				propagate = true;
-				i = y;
-				j = x;
-				while(propagate) {
-					j = (j - 1 + this.getWidth()) % this.getWidth();
-					nextCell = this.getTab()[i][j];
-					if(nextCell.isRight() && nextCell.isMoveRight()) {
-						nextCell.setMoveRight(false);
-					}
-					else {
-						propagate = false;
-					}
-				}
+			if(tab.get(ParticleGrid.RIGHT, y, x)) {
+				this.stopParticles(ParticleGrid.RIGHT, ParticleGrid.MOVE_RIGHT, y, x, 0, -1);
 			}
 			
-			if(cell.isLeft()) {
-				propagate = true;
-				i = y;
-				j = x;
-				while(propagate) {
-					j = (j + 1) % this.getWidth();
-					nextCell = this.getTab()[i][j];
-					if(nextCell.isLeft() && nextCell.isMoveLeft()) {
-						nextCell.setMoveLeft(false);
-					}
-					else {
-						propagate = false;
-					}
-				}
+			if(tab.get(ParticleGrid.LEFT, y, x)) {
+				this.stopParticles(ParticleGrid.LEFT, ParticleGrid.MOVE_LEFT, y, x, 0, 1);
 			}
 		}
 	}
 	
 	/**
-	 * Do the propagation part of the update of a cell.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
+	 * Stop the particles of a direction which would move into a cell, then the particles which would move into those ones, and so on.
+	 * @param direction - the plane of the particles.
+	 * @param moveDirection - the plane of the move flags of those particles.
+	 * @param y - the Y coordinate of the cell which keeps its particle.
+	 * @param x - the X coordinate of the cell which keeps its particle.
+	 * @param dy - the vertical offset of the cell where the particles come from.
+	 * @param dx - the horizontal offset of the cell where the particles come from.
 	 */
-	protected void propagation(int y, int x) {
-		Particles cell = this.getOldTab()[y][x];
-		Particles otherCell;
+	private void stopParticles(int direction, int moveDirection, int y, int x, int dy, int dx) {
+		ParticleGrid tab = this.getInteractionTab();
+		int i = (y + dy + this.getHeight()) % this.getHeight();
+		int j = (x + dx + this.getWidth()) % this.getWidth();
 		
-		otherCell = this.getOldTab()[(y + 1) % this.getHeight()][x];
-		boolean top = (!cell.isMoveTop() && cell.isTop()) || (otherCell.isMoveTop() && otherCell.isTop());
-		
-		otherCell = this.getOldTab()[(y - 1 + this.getHeight()) % this.getHeight()][x];
-		boolean bottom = (!cell.isMoveBottom() && cell.isBottom()) || (otherCell.isMoveBottom() && otherCell.isBottom());
+		while(tab.get(direction, i, j) && tab.get(moveDirection, i, j)) {
+			tab.set(moveDirection, i, j, false);
+			i = (i + dy + this.getHeight()) % this.getHeight();
+			j = (j + dx + this.getWidth()) % this.getWidth();
+		}
+	}
+	
+	/**
+	 * Do the propagation part of the update of a row: read the interaction grid, write the row of the back buffer in the buffers.<br />
+	 * The 64 cells of a word are propagated at once: the particles going to the top or to the bottom come from the word
+	 * of the next or previous row, the particles going to the right or to the left come from the word shifted by one column.
+	 * @param y - the Y coordinate of the row.
+	 * @param next - the buffers which receive the row of the back buffer, one per direction.
+	 */
+	protected void propagation(int y, long[][] next) {
+		ParticleGrid tab = this.getInteractionTab();
+		int up = (y + 1 == this.getHeight()) ? 0 : y + 1;
+		int down = (y == 0) ? this.getHeight() - 1 : y - 1;
 		
-		otherCell = this.getOldTab()[y][(x - 1 + this.getWidth()) % this.getWidth()];
-		boolean right = (!cell.isMoveRight() && cell.isRight()) || (otherCell.isMoveRight() && otherCell.isRight());
+		long[] top = tab.getRow(ParticleGrid.TOP, y);
+		long[] bottom = tab.getRow(ParticleGrid.BOTTOM, y);
+		long[] right = tab.getRow(ParticleGrid.RIGHT, y);
+		long[] left = tab.getRow(ParticleGrid.LEFT, y);
+		long[] moveTop = tab.getRow(ParticleGrid.MOVE_TOP, y);
+		long[] moveBottom = tab.getRow(ParticleGrid.MOVE_BOTTOM, y);
+		long[] moveRight = tab.getRow(ParticleGrid.MOVE_RIGHT, y);
+		long[] moveLeft = tab.getRow(ParticleGrid.MOVE_LEFT, y);
+		long[] topUp = tab.getRow(ParticleGrid.TOP, up);
+		long[] moveTopUp = tab.getRow(ParticleGrid.MOVE_TOP, up);
+		long[] bottomDown = tab.getRow(ParticleGrid.BOTTOM, down);
+		long[] moveBottomDown = tab.getRow(ParticleGrid.MOVE_BOTTOM, down);
 		
-		otherCell = this.getOldTab()[y][(x + 1) % this.getWidth()];
-		boolean left = (!cell.isMoveLeft() && cell.isLeft()) || (otherCell.isMoveLeft() && otherCell.isLeft());
+		long[] nextTop = next[ParticleGrid.TOP];
+		long[] nextBottom = next[ParticleGrid.BOTTOM];
+		long[] nextRight = next[ParticleGrid.RIGHT];
+		long[] nextLeft = next[ParticleGrid.LEFT];
 		
-		cell = this.getTab()[y][x];
-		cell.setTop(top);
-		cell.setBottom(bottom);
-		cell.setRight(right);
-		cell.setLeft(left);
+		for(int w = 0; w < tab.getNbWords(); w++) {
+			long rightFromPrevious = tab.readShiftedWord(ParticleGrid.MOVE_RIGHT, y, w, -1) & tab.readShiftedWord(ParticleGrid.RIGHT, y, w, -1);
+			long leftFromNext = tab.readShiftedWord(ParticleGrid.MOVE_LEFT, y, w, 1) & tab.readShiftedWord(ParticleGrid.LEFT, y, w, 1);
+			
+			nextTop[w] = (~moveTop[w] & top[w]) | (moveTopUp[w] & topUp[w]);
+			nextBottom[w] = (~moveBottom[w] & bottom[w]) | (moveBottomDown[w] & bottomDown[w]);
+			nextRight[w] = (~moveRight[w] & right[w]) | rightFromPrevious;
+			nextLeft[w] = (~moveLeft[w] & left[w]) | leftFromNext;
+		}
 	}
 	
 	/**
-	 * Do the propagation part of the update of a cell, without conserving the particles.
-	 * @param y - the Y coordinate of the cell.
-	 * @param x - the X coordinate of the cell.
+	 * Do the propagation part of the update of a row, without conserving the particles: read the interaction grid,
+	 * write the row of the back buffer in the buffers.<br />
+	 * The 64 cells of a word are propagated at once, like in propagation(): the cells which move take the particles of their neighbors.
+	 * @param y - the Y coordinate of the row.
+	 * @param next - the buffers which receive the row of the back buffer, one per direction.
 	 */
-	protected void propagationWithoutParticlesConservation(int y, int x) {
-		if(this.getOldTab()[y][x].isMove()) {
-			Particles cell = this.getTab()[y][x];
-			cell.setTop(this.getOldTab()[(y + 1) % this.getHeight()][x].isTop());
-			cell.setBottom(this.getOldTab()[(y - 1 + this.getHeight()) % this.getHeight()][x].isBottom());
-			cell.setRight(this.getOldTab()[y][(x - 1 + this.getWidth()) % this.getWidth()].isRight());
-			cell.setLeft(this.getOldTab()[y][(x + 1) % this.getWidth()].isLeft());
+	protected void propagationWithoutParticlesConservation(int y, long[][] next) {
+		ParticleGrid tab = this.getInteractionTab();
+		int up = (y + 1 == this.getHeight()) ? 0 : y + 1;
+		int down = (y == 0) ? this.getHeight() - 1 : y - 1;
+		
+		long[] move = tab.getRow(ParticleGrid.MOVE, y);
+		long[] top = tab.getRow(ParticleGrid.TOP, y);
+		long[] bottom = tab.getRow(ParticleGrid.BOTTOM, y);
+		long[] right = tab.getRow(ParticleGrid.RIGHT, y);
+		long[] left = tab.getRow(ParticleGrid.LEFT, y);
+		long[] topUp = tab.getRow(ParticleGrid.TOP, up);
+		long[] bottomDown = tab.getRow(ParticleGrid.BOTTOM, down);
+		
+		long[] nextTop = next[ParticleGrid.TOP];
+		long[] nextBottom = next[ParticleGrid.BOTTOM];
+		long[] nextRight = next[ParticleGrid.RIGHT];
+		long[] nextLeft = next[ParticleGrid.LEFT];
+		
+		for(int w = 0; w < tab.getNbWords(); w++) {
+			long moving = move[w];
+			
+			nextTop[w] = (moving & topUp[w]) | (~moving & top[w]);
+			nextBottom[w] = (moving & bottomDown[w]) | (~moving & bottom[w]);
+			nextRight[w] = (moving & tab.readShiftedWord(ParticleGrid.RIGHT, y, w, -1)) | (~moving & right[w]);
+			nextLeft[w] = (moving & tab.readShiftedWord(ParticleGrid.LEFT, y, w, 1)) | (~moving & left[w]);
 		}
 	}
 	
@@ -495,16 +801,8 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	 * Return the number of particles on the grid.
 	 * @return the number of particles on the grid.
 	 */
-	protected int calculateNbParticles() {
-		int nbParticles = 0;
-		
-		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				nbParticles += this.getTab()[i][j].getNbParticles();
-			}
-		}
-		
-		return nbParticles;
+	protected long calculateNbParticles() {
+		return this.getTab().countParticles();
 	}
 	
 	/**
@@ -512,18 +810,11 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	 * @return the mean velocity for the actual state of the grid.
 	 */
 	protected double meanVelocity() {
-		int xVelocitySum = 0;
-		int yVelocitySum = 0;
-		
-		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				Flux localFlux = this.getTab()[i][j].getFlux();
-				xVelocitySum += localFlux.x;
-				yVelocitySum += localFlux.y;
-			}
-		}
+		ParticleGrid tab = this.getTab();
+		long xVelocitySum = tab.countParticles(ParticleGrid.RIGHT) - tab.countParticles(ParticleGrid.LEFT);
+		long yVelocitySum = tab.countParticles(ParticleGrid.TOP) - tab.countParticles(ParticleGrid.BOTTOM);
 		
-		return (float) (Math.abs(xVelocitySum) + Math.abs(yVelocitySum)) / (this.getHeight() * this.getWidth());
+		return (float) (Math.abs(xVelocitySum) + Math.abs(yVelocitySum)) / ((long) this.getHeight() * this.getWidth());
 	}
 	
 	/**
@@ -531,15 +822,33 @@ public abstract class LatticeGasCA extends CellularAutomaton<Particles> {
 	 * @return the mean alignment for the actual state of the grid.
 	 */
 	protected double meanAlignment() {
-		int alignmentSum = 0;
-		int nbParticles = 0;
+		ParticleGrid tab = this.getTab();
+		Flux directorField = new Flux();
+		long alignmentSum = 0;
+		long nbParticles = this.calculateNbParticles();
+		long[] top = new long[tab.getNbWords()];
+		long[] bottom = new long[tab.getNbWords()];
+		long[] right = new long[tab.getNbWords()];
+		long[] left = new long[tab.getNbWords()];
+		
+		this.refreshHalo();
 		
 		for(int i = 0; i < this.getHeight(); i++) {
-			for(int j = 0; j < this.getWidth(); j++) {
-				Flux localFlux = this.getTab()[i][j].getFlux();
-				Flux directorField = this.getNewDirectorField(i, j);
-				alignmentSum += ((localFlux.x * directorField.x) + (localFlux.y * directorField.y));
-				nbParticles += this.getTab()[i][j].getNbParticles();
+			tab.readRow(ParticleGrid.TOP, i, top);
+			tab.readRow(ParticleGrid.BOTTOM, i, bottom);
+			tab.readRow(ParticleGrid.RIGHT, i, right);
+			tab.readRow(ParticleGrid.LEFT, i, left);
+			
+			for(int w = 0; w < tab.getNbWords(); w++) {
+				long occupied = top[w] | bottom[w] | right[w] | left[w];
+				
+				while(occupied != 0) {
+					int j = (w << 6) + Long.numberOfTrailingZeros(occupied);
+					int cell = tab.getCell(i, j);
+					this.getDirectorField(i, j, directorField);
+					alignmentSum += ((ParticleGrid.getFluxX(cell) * directorField.x) + (ParticleGrid.getFluxY(cell) * directorField.y));
+					occupied &= occupied - 1;
+				}
 			}
 		}
 		
@@ -0,0 +1,82 @@
+package cellularAutomaton.core.latticeGas;
+
+import ec.util.MersenneTwisterFast;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public final class LatticeGasKernelHook {
+	
+	// Constructors :
+	
+	private LatticeGasKernelHook() {
+		// Nothing here.
+	}
+	
+	// Methods :
+	
+	/**
+	 * Do the interaction part of the update of all the cells, without propagation and without changing the actual grid.<br />
+	 * The interaction grid is overwritten, so this method is only meant to measure the interactions alone.
+	 * @param ca - the CA.
+	 * @param rand - the random generator to use.
+	 */
+	public static void doInteractions(LatticeGasCA ca, MersenneTwisterFast rand) {
+		ca.prepareInteractions();
+		ca.doRowsInteractions(0, ca.getHeight(), rand);
+	}
+	
+	/**
+	 * Return the number of particles on the grid of a CA.
+	 * @param ca - the CA.
+	 * @return the number of particles on the grid.
+	 */
+	public static long calculateNbParticles(LatticeGasCA ca) {
+		return ca.calculateNbParticles();
+	}
+	
+	/**
+	 * Calculate the mean velocity for the actual state of the grid of a CA.
+	 * @param ca - the CA.
+	 * @return the mean velocity for the actual state of the grid.
+	 */
+	public static double meanVelocity(LatticeGasCA ca) {
+		return ca.meanVelocity();
+	}
+	
+	/**
+	 * Calculate the mean alignment for the actual state of the grid of a CA.
+	 * @param ca - the CA.
+	 * @return the mean alignment for the actual state of the grid.
+	 */
+	public static double meanAlignment(LatticeGasCA ca) {
+		return ca.meanAlignment();
+	}
+	
+}
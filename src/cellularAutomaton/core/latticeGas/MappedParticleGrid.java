@@ -0,0 +1,221 @@
+package cellularAutomaton.core.latticeGas;
+
+import java.io.File;
+import java.io.IOException;
+
+import cellularAutomaton.core.MappedGenerationFile;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class MappedParticleGrid extends ParticleGrid {
+	
+	// Constants :
+	
+	private static final long MAGIC = 0x4341504152544752L;
+	
+	// Fields :
+	
+	private final MappedGenerationFile file;
+	
+	// Constructors :
+	
+	/**
+	 * Build a grid stored in a memory-mapped file, the rows of the planes one after the other.<br />
+	 * If resume is true and the file already holds a complete generation of a grid of the same size, this generation is kept.
+	 * Otherwise the file is emptied and the grid is without particles.<br />
+	 * A generation is only marked complete in the file once its rows are forced to the disk, at most once per sync period,
+	 * so a generation found in the file survives a crash of the host, and not only of the JVM.
+	 * @param path - the file where the grid is stored.
+	 * @param height - the row count.
+	 * @param width - the column count.
+	 * @param nbPlanes - NB_DIRECTIONS for a grid which only holds the particles, NB_PLANES for a grid which also holds the move flags.
+	 * @param resume - true if the content of the file must be kept when possible.
+	 * @param syncPeriod - the minimal time between two generations marked complete in the file, in seconds.
+	 * @throws IOException if the file can't be opened or mapped.
+	 */
+	public MappedParticleGrid(File path, int height, int width, int nbPlanes, boolean resume, int syncPeriod) throws IOException {
+		super(height, width, nbPlanes, false);
+		
+		this.file = new MappedGenerationFile(path, MAGIC, height, width, nbPlanes, this.getNbWords(), resume, syncPeriod);
+		
+		if(this.file.isResumed()) {
+			super.setGeneration(this.file.getGeneration());
+		}
+	}
+	
+	// Getters :
+	
+	/**
+	 * Indicate if the content of the file was kept when the grid was built.
+	 * @return true if the grid holds the generation found in the file, else false.
+	 */
+	public boolean isResumed() {
+		return this.file.isResumed();
+	}
+	
+	/**
+	 * Return a copy of the words of a row of a plane. The cell at column x is the bit (x % 64) of the word (x / 64).<br />
+	 * Each call allocates the copy, and modifying it doesn't change the grid: the loops over the rows should use
+	 * {@link #readRow(int, int, long[])} with their own buffer, and write the rows with setRow().
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @return the words of the row.
+	 */
+	@Override
+	public long[] getRow(int plane, int y) {
+		long[] row = new long[this.getNbWords()];
+		this.readRow(plane, y, row);
+		return row;
+	}
+	
+	@Override
+	public void readRow(int plane, int y, long[] dest) {
+		this.file.getRowBuffer(this.getRowIndex(plane, y)).get(dest, 0, this.getNbWords());
+	}
+	
+	@Override
+	public long getWord(int plane, int y, int w) {
+		return this.file.getWord(this.getRowIndex(plane, y), w);
+	}
+	
+	@Override
+	public boolean get(int plane, int y, int x) {
+		return (this.getWord(plane, y, x >>> WORD_SHIFT) & (1L << x)) != 0;
+	}
+	
+	@Override
+	public int getCell(int y, int x) {
+		int w = x >>> WORD_SHIFT;
+		int shift = x & WORD_MASK;
+		
+		return (int) ((this.getWord(TOP, y, w) >>> shift) & 1)
+			| (int) (((this.getWord(BOTTOM, y, w) >>> shift) & 1) << BOTTOM)
+			| (int) (((this.getWord(RIGHT, y, w) >>> shift) & 1) << RIGHT)
+			| (int) (((this.getWord(LEFT, y, w) >>> shift) & 1) << LEFT);
+	}
+	
+	@Override
+	public long readShiftedWord(int plane, int y, int w, int dx) {
+		int last = this.getNbWords() - 1;
+		int lastBit = (this.getWidth() - 1) & WORD_MASK;
+		
+		if(dx < 0) {
+			long previous = (w > 0) ? this.getWord(plane, y, w - 1) >>> WORD_MASK : (this.getWord(plane, y, last) >>> lastBit) & 1;
+			long word = (this.getWord(plane, y, w) << 1) | previous;
+			return (w == last) ? (word & this.getLastWordMask()) : word;
+		}
+		else {
+			long next = (w < last) ? this.getWord(plane, y, w + 1) << WORD_MASK : (this.getWord(plane, y, 0) & 1) << lastBit;
+			return (this.getWord(plane, y, w) >>> 1) | next;
+		}
+	}
+	
+	// Setters :
+	
+	@Override
+	public void set(int plane, int y, int x, boolean value) {
+		long row = this.getRowIndex(plane, y);
+		int w = x >>> WORD_SHIFT;
+		
+		if(value) {
+			this.file.setWord(row, w, this.file.getWord(row, w) | (1L << x));
+		}
+		else {
+			this.file.setWord(row, w, this.file.getWord(row, w) & ~(1L << x));
+		}
+	}
+	
+	@Override
+	public void setRow(int plane, int y, long[] words) {
+		this.file.getRowBuffer(this.getRowIndex(plane, y)).put(words, 0, this.getNbWords());
+	}
+	
+	@Override
+	public void copyRow(int plane, int y, ParticleGrid grid) {
+		if(grid instanceof MappedParticleGrid) {
+			long row = this.getRowIndex(plane, y);
+			this.file.getRowBuffer(row).put(((MappedParticleGrid) grid).file.getRowBuffer(row));
+		}
+		else {
+			this.setRow(plane, y, grid.getRow(plane, y));
+		}
+	}
+	
+	/**
+	 * Change the generation stored in this grid, and in the header of the file when it is safe.
+	 * @param generation - the number of the generation.
+	 * @see MappedGenerationFile#setGeneration(long)
+	 */
+	@Override
+	public void setGeneration(long generation) {
+		super.setGeneration(generation);
+		this.file.setGeneration(generation);
+	}
+	
+	// Methods :
+	
+	@Override
+	public void clear() {
+		this.setGeneration(-1);
+		this.file.clear();
+	}
+	
+	/**
+	 * Mark the last complete generation in the file, then close it.
+	 */
+	@Override
+	public void close() {
+		this.file.close(this.getGeneration());
+	}
+	
+	@Override
+	public long countParticles(int direction) {
+		long nbParticles = 0;
+		
+		for(int i = 0; i < this.getHeight(); i++) {
+			for(int w = 0; w < this.getNbWords(); w++) {
+				nbParticles += Long.bitCount(this.getWord(direction, i, w));
+			}
+		}
+		
+		return nbParticles;
+	}
+	
+	/**
+	 * Return the index of a row of a plane in the file, the rows of the planes being one after the other.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @return the index of the row.
+	 */
+	private long getRowIndex(int plane, int y) {
+		return (long) plane * this.getHeight() + y;
+	}
+	
+}
@@ -0,0 +1,382 @@
+package cellularAutomaton.core.latticeGas;
+
+import java.util.Arrays;
+
+import cellularAutomaton.core.GenerationBuffer;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class ParticleGrid implements GenerationBuffer {
+	
+	// Constants :
+	
+	public static final int WORD_SIZE = Long.SIZE;
+	
+	protected static final int WORD_SHIFT = 6;
+	protected static final int WORD_MASK = WORD_SIZE - 1;
+	
+	/** The plane of the particles going to the top. In a cell, the bit (1 << TOP) of getCell(). */
+	public static final int TOP = 0;
+	/** The plane of the particles going to the bottom. In a cell, the bit (1 << BOTTOM) of getCell(). */
+	public static final int BOTTOM = 1;
+	/** The plane of the particles going to the right. In a cell, the bit (1 << RIGHT) of getCell(). */
+	public static final int RIGHT = 2;
+	/** The plane of the particles going to the left. In a cell, the bit (1 << LEFT) of getCell(). */
+	public static final int LEFT = 3;
+	/** The number of planes of a grid which only holds the particles. */
+	public static final int NB_DIRECTIONS = 4;
+	
+	/** The plane of the cells whose particles move during the propagation. */
+	public static final int MOVE = 4;
+	/** The plane of the cells whose particle going to the top moves during the propagation. */
+	public static final int MOVE_TOP = 5;
+	/** The plane of the cells whose particle going to the bottom moves during the propagation. */
+	public static final int MOVE_BOTTOM = 6;
+	/** The plane of the cells whose particle going to the right moves during the propagation. */
+	public static final int MOVE_RIGHT = 7;
+	/** The plane of the cells whose particle going to the left moves during the propagation. */
+	public static final int MOVE_LEFT = 8;
+	/** The number of planes of a grid which also holds the move flags. */
+	public static final int NB_PLANES = 9;
+	
+	// Fields :
+	
+	private final int height;
+	private final int width;
+	private final int nbWords;
+	private final long lastWordMask;
+	private final int nbPlanes;
+	
+	private final long[][][] planes;
+	private long generation = -1;
+	
+	// Constructors :
+	
+	/**
+	 * Build a grid without particles.
+	 * @param height - the row count.
+	 * @param width - the column count.
+	 * @param nbPlanes - NB_DIRECTIONS for a grid which only holds the particles, NB_PLANES for a grid which also holds the move flags.
+	 */
+	public ParticleGrid(int height, int width, int nbPlanes) {
+		this(height, width, nbPlanes, true);
+	}
+	
+	/**
+	 * Build a grid without particles, whose planes are stored in the heap or by a subclass.
+	 * @param height - the row count.
+	 * @param width - the column count.
+	 * @param nbPlanes - NB_DIRECTIONS for a grid which only holds the particles, NB_PLANES for a grid which also holds the move flags.
+	 * @param inHeap - true if the planes are stored in the heap, false if the subclass stores them.
+	 */
+	protected ParticleGrid(int height, int width, int nbPlanes, boolean inHeap) {
+		this.height = height;
+		this.width = width;
+		this.nbWords = (width + WORD_MASK) >>> WORD_SHIFT;
+		this.lastWordMask = ((width & WORD_MASK) == 0) ? -1L : (1L << (width & WORD_MASK)) - 1;
+		this.nbPlanes = nbPlanes;
+		this.planes = inHeap ? new long[nbPlanes][height][this.nbWords] : null;
+	}
+	
+	// Getters :
+	
+	/**
+	 * Return the row count.
+	 * @return the height of the grid.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+	
+	/**
+	 * Return the column count.
+	 * @return the width of the grid.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+	
+	/**
+	 * Return the number of words used to store one row of a plane.
+	 * @return the number of words per row.
+	 */
+	public int getNbWords() {
+		return this.nbWords;
+	}
+	
+	/**
+	 * Return the mask of the bits of the last word of a row which are inside of the grid.
+	 * @return the mask of the last word of a row.
+	 */
+	public long getLastWordMask() {
+		return this.lastWordMask;
+	}
+	
+	/**
+	 * Return the number of planes of the grid.
+	 * @return NB_DIRECTIONS or NB_PLANES.
+	 */
+	public int getNbPlanes() {
+		return this.nbPlanes;
+	}
+	
+	/**
+	 * Return the generation stored in this grid.
+	 * @return the number of the generation, or -1 if the grid doesn't hold a complete generation.
+	 */
+	@Override
+	public long getGeneration() {
+		return this.generation;
+	}
+	
+	/**
+	 * Return the words of a row of a plane. The cell at column x is the bit (x % 64) of the word (x / 64).<br />
+	 * The words can be modified, but the bits of the last word which are outside of the grid must stay 0.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @return the words of the row.
+	 */
+	public long[] getRow(int plane, int y) {
+		return this.planes[plane][y];
+	}
+	
+	/**
+	 * Copy the words of a row of a plane in a buffer owned by the caller, without allocating anything.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @param dest - the buffer which receives the words.
+	 */
+	public void readRow(int plane, int y, long[] dest) {
+		System.arraycopy(this.planes[plane][y], 0, dest, 0, this.nbWords);
+	}
+	
+	/**
+	 * Return one word of a row of a plane.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @param w - the index of the word.
+	 * @return the word.
+	 */
+	public long getWord(int plane, int y, int w) {
+		return this.planes[plane][y][w];
+	}
+	
+	/**
+	 * Return the bit of a cell in a plane.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return true if the bit is set, else false.
+	 */
+	public boolean get(int plane, int y, int x) {
+		return (this.planes[plane][y][x >>> WORD_SHIFT] & (1L << x)) != 0;
+	}
+	
+	/**
+	 * Return the particles of a cell, as 4 bits: the bit (1 << direction) is set if there is a particle going to this direction.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @return the particles of the cell.
+	 */
+	public int getCell(int y, int x) {
+		int w = x >>> WORD_SHIFT;
+		int shift = x & WORD_MASK;
+		
+		return (int) ((this.planes[TOP][y][w] >>> shift) & 1)
+			| (int) (((this.planes[BOTTOM][y][w] >>> shift) & 1) << BOTTOM)
+			| (int) (((this.planes[RIGHT][y][w] >>> shift) & 1) << RIGHT)
+			| (int) (((this.planes[LEFT][y][w] >>> shift) & 1) << LEFT);
+	}
+	
+	/**
+	 * Return one word of a row of a plane shifted by one column, the columns being wrapped on the edges:
+	 * the bit b of the word receives the cell at column (w * 64 + b + dx).
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @param w - the index of the word.
+	 * @param dx - the horizontal offset, -1 or 1.
+	 * @return the shifted word.
+	 */
+	public long readShiftedWord(int plane, int y, int w, int dx) {
+		long[] row = this.planes[plane][y];
+		int last = this.nbWords - 1;
+		
+		if(dx < 0) {
+			long previous = (w > 0) ? row[w - 1] >>> WORD_MASK : (row[last] >>> ((this.width - 1) & WORD_MASK)) & 1;
+			long word = (row[w] << 1) | previous;
+			return (w == last) ? (word & this.lastWordMask) : word;
+		}
+		else {
+			long next = (w < last) ? row[w + 1] << WORD_MASK : (row[0] & 1) << ((this.width - 1) & WORD_MASK);
+			return (row[w] >>> 1) | next;
+		}
+	}
+	
+	// Setters :
+	
+	/**
+	 * Change the bit of a cell in a plane.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @param value - true to set the bit, false to clear it.
+	 */
+	public void set(int plane, int y, int x, boolean value) {
+		if(value) {
+			this.planes[plane][y][x >>> WORD_SHIFT] |= (1L << x);
+		}
+		else {
+			this.planes[plane][y][x >>> WORD_SHIFT] &= ~(1L << x);
+		}
+	}
+	
+	/**
+	 * Change the particles of a cell.
+	 * @param y - the Y coordinate of the cell.
+	 * @param x - the X coordinate of the cell.
+	 * @param cell - the particles of the cell, as 4 bits: the bit (1 << direction) is set if there is a particle going to this direction.
+	 */
+	public void setCell(int y, int x, int cell) {
+		for(int direction = 0; direction < NB_DIRECTIONS; direction++) {
+			this.set(direction, y, x, (cell & (1 << direction)) != 0);
+		}
+	}
+	
+	/**
+	 * Change the words of a row of a plane.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @param words - the new words of the row, the bits of the last word outside of the grid must be 0.
+	 */
+	public void setRow(int plane, int y, long[] words) {
+		System.arraycopy(words, 0, this.planes[plane][y], 0, this.nbWords);
+	}
+	
+	/**
+	 * Copy a row of a plane of another grid of the same size in this grid.
+	 * @param plane - the plane.
+	 * @param y - the Y coordinate of the row.
+	 * @param grid - the grid to copy.
+	 */
+	public void copyRow(int plane, int y, ParticleGrid grid) {
+		grid.readRow(plane, y, this.planes[plane][y]);
+	}
+	
+	/**
+	 * Change the generation stored in this grid. Must be called once the whole generation is written.
+	 * @param generation - the number of the generation.
+	 */
+	@Override
+	public void setGeneration(long generation) {
+		this.generation = generation;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Remove all the particles and move flags of the grid.
+	 */
+	public void clear() {
+		for(long[][] plane : this.planes) {
+			for(long[] row : plane) {
+				Arrays.fill(row, 0);
+			}
+		}
+		
+		this.setGeneration(-1);
+	}
+	
+	/**
+	 * Release the resources used by the grid. The grid must not be used anymore.
+	 */
+	@Override
+	public void close() {
+		
+	}
+	
+	/**
+	 * Return the number of particles going to a direction in the grid.
+	 * @param direction - TOP, BOTTOM, RIGHT or LEFT.
+	 * @return the number of particles going to this direction.
+	 */
+	public long countParticles(int direction) {
+		long nbParticles = 0;
+		
+		for(long[] row : this.planes[direction]) {
+			for(long word : row) {
+				nbParticles += Long.bitCount(word);
+			}
+		}
+		
+		return nbParticles;
+	}
+	
+	/**
+	 * Return the number of particles in the grid.
+	 * @return the number of particles.
+	 */
+	public long countParticles() {
+		long nbParticles = 0;
+		
+		for(int direction = 0; direction < NB_DIRECTIONS; direction++) {
+			nbParticles += this.countParticles(direction);
+		}
+		
+		return nbParticles;
+	}
+	
+	/**
+	 * Return the number of particles of a cell.
+	 * @param cell - the particles of the cell, as returned by getCell().
+	 * @return the number of particles.
+	 */
+	public static int getNbParticles(int cell) {
+		return Integer.bitCount(cell);
+	}
+	
+	/**
+	 * Return the horizontal component of the flux of a cell: +1 for a particle going to the right, -1 for a particle going to the left.
+	 * @param cell - the particles of the cell, as returned by getCell().
+	 * @return the horizontal flux.
+	 */
+	public static int getFluxX(int cell) {
+		return ((cell >>> RIGHT) & 1) - ((cell >>> LEFT) & 1);
+	}
+	
+	/**
+	 * Return the vertical component of the flux of a cell: +1 for a particle going to the top, -1 for a particle going to the bottom.
+	 * @param cell - the particles of the cell, as returned by getCell().
+	 * @return the vertical flux.
+	 */
+	public static int getFluxY(int cell) {
+		return ((cell >>> TOP) & 1) - ((cell >>> BOTTOM) & 1);
+	}
+	
+}
@@ -33,38 +33,26 @@ public class Particles {
 	
 	// Fields :
 	
-	private boolean top;
-	private boolean bottom;
-	private boolean right;
-	private boolean left;
-	
-	private boolean move;
-	private boolean moveTop;
-	private boolean moveBottom;
-	private boolean moveRight;
-	private boolean moveLeft;
+	private final boolean top;
+	private final boolean bottom;
+	private final boolean right;
+	private final boolean left;
 	
 	// Constructors :
 	
 	public Particles(boolean top, boolean bottom, boolean right, boolean left) {
-		this(top, bottom, right, left, true, true, true, true, true);
-	}
-	
-	private Particles(boolean top, boolean bottom, boolean right, boolean left, boolean move, boolean moveTop, boolean moveBottom, boolean moveRight, boolean moveLeft) {
-		this.setTop(top);
-		this.setBottom(bottom);
-		this.setRight(right);
-		this.setLeft(left);
-		this.setMove(move);
-		this.setMoveTop(moveTop);
-		this.setMoveBottom(moveBottom);
-		this.setMoveRight(moveRight);
-		this.setMoveLeft(moveLeft);
+		this.top = top;
+		this.bottom = bottom;
+		this.right = right;
+		this.left = left;
 	}
 	
-	@Override
-	public Particles clone() {
-		return new Particles(this.top, this.bottom, this.right, this.left, this.move, this.moveTop, this.moveBottom, this.moveRight, this.moveLeft);
+	/**
+	 * Build the view of a cell of a grid.
+	 * @param cell - the particles of the cell, as returned by ParticleGrid.getCell().
+	 */
+	public Particles(int cell) {
+		this((cell & (1 << ParticleGrid.TOP)) != 0, (cell & (1 << ParticleGrid.BOTTOM)) != 0, (cell & (1 << ParticleGrid.RIGHT)) != 0, (cell & (1 << ParticleGrid.LEFT)) != 0);
 	}
 	
 	// Getters :
@@ -85,68 +73,6 @@ public class Particles {
 		return this.left;
 	}
 	
-	public boolean isMove() {
-		return this.move;
-	}
-	
-	public boolean isMoveTop() {
-		return this.moveTop;
-	}
-	
-	public boolean isMoveBottom() {
-		return this.moveBottom;
-	}
-	
-	public boolean isMoveRight() {
-		return this.moveRight;
-	}
-	
-	public boolean isMoveLeft() {
-		return this.moveLeft;
-	}
-	
-	// Setters :
-	
-	protected void setTop(boolean top) {
-		this.top = top;
-	}
-	
-	protected void setBottom(boolean bottom) {
-		this.bottom = bottom;
-	}
-	
-	protected void setRight(boolean right) {
-		this.right = right;
-	}
-	
-	protected void setLeft(boolean left) {
-		this.left = left;
-	}
-	
-	protected void setMove(boolean move) {
-		this.move = move;
-		this.setMoveTop(move);
-		this.setMoveBottom(move);
-		this.setMoveRight(move);
-		this.setMoveLeft(move);
-	}
-	
-	protected void setMoveTop(boolean moveTop) {
-		this.moveTop = moveTop;
-	}
-	
-	protected void setMoveBottom(boolean moveBottom) {
-		this.moveBottom = moveBottom;
-	}
-	
-	protected void setMoveRight(boolean moveRight) {
-		this.moveRight = moveRight;
-	}
-	
-	protected void setMoveLeft(boolean moveLeft) {
-		this.moveLeft = moveLeft;
-	}
-	
 	// Methods :
 	
 	public int getNbParticles() {
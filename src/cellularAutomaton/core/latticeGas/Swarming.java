@@ -1,8 +1,15 @@
 package cellularAutomaton.core.latticeGas;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
+import cellularAutomaton.core.CheckpointReader;
+import cellularAutomaton.core.CheckpointWriter;
+import ec.util.MersenneTwisterFast;
+
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
  * All rights reserved.<br />
@@ -36,14 +43,29 @@ public class Swarming extends LatticeGasCA {
 	
 	// Constants :
 	
-	private static final Particles[] CONFIGURATIONS_1 = {new Particles(true, false, false, false), new Particles(false, true, false, false), new Particles(false, false, true, false), new Particles(false, false, false, true)};
-	private static final Particles[] CONFIGURATIONS_2 = {new Particles(false, true, false, true), new Particles(true, false, true, false), new Particles(true, true, false, false), new Particles(false, true, true, false), new Particles(false, false, true, true), new Particles(true, false, false, true)};
-	private static final Particles[] CONFIGURATIONS_3 = {new Particles(false, true, true, true), new Particles(true, false, true, true), new Particles(true, true, false, true), new Particles(true, true, true, false)};
+	private static final int PARTICLE_TOP = 1 << ParticleGrid.TOP;
+	private static final int PARTICLE_BOTTOM = 1 << ParticleGrid.BOTTOM;
+	private static final int PARTICLE_RIGHT = 1 << ParticleGrid.RIGHT;
+	private static final int PARTICLE_LEFT = 1 << ParticleGrid.LEFT;
+	
+	private static final int[] CONFIGURATIONS_1 = {PARTICLE_TOP, PARTICLE_BOTTOM, PARTICLE_RIGHT, PARTICLE_LEFT};
+	private static final int[] CONFIGURATIONS_2 = {PARTICLE_BOTTOM | PARTICLE_LEFT, PARTICLE_TOP | PARTICLE_RIGHT, PARTICLE_TOP | PARTICLE_BOTTOM, PARTICLE_BOTTOM | PARTICLE_RIGHT, PARTICLE_RIGHT | PARTICLE_LEFT, PARTICLE_TOP | PARTICLE_LEFT};
+	private static final int[] CONFIGURATIONS_3 = {PARTICLE_BOTTOM | PARTICLE_RIGHT | PARTICLE_LEFT, PARTICLE_TOP | PARTICLE_RIGHT | PARTICLE_LEFT, PARTICLE_TOP | PARTICLE_BOTTOM | PARTICLE_LEFT, PARTICLE_TOP | PARTICLE_BOTTOM | PARTICLE_RIGHT};
+	
+	/** The configurations a cell can take during an interaction, indexed by its number of particles. */
+	private static final int[][] CONFIGURATIONS = {null, CONFIGURATIONS_1, CONFIGURATIONS_2, CONFIGURATIONS_3};
+	
+	/** nextDouble() returns multiples of 2^-53, so a draw multiplied by this scale is an exact integer. */
+	private static final double DRAW_SCALE = 1L << 53;
 	
 	// Fields :
 	
-	private int nbParticles;
-	private int initNbParticles;
+	private long nbParticles;
+	private long initNbParticles;
+	
+	private long[][] thresholds;
+	private double thresholdsAlpha;
+	private int thresholdsRange;
 	
 	private double meanVelocitySum;
 	private double meanAlignmentSum;
@@ -81,11 +103,11 @@ public class Swarming extends LatticeGasCA {
 	 * Return the registered number of particles.
 	 * @return the registered number of particles.
 	 */
-	public int getNbParticles() {
+	public long getNbParticles() {
 		return this.nbParticles;
 	}
 	
-	public int getInitNbParticles() {
+	public long getInitNbParticles() {
 		return this.initNbParticles;
 	}
 	
@@ -179,11 +201,11 @@ public class Swarming extends LatticeGasCA {
 	 * Update the registered number of particles.
 	 * @param nbParticles - the number of particles.
 	 */
-	protected void setNbParticles(int nbParticles) {
+	protected void setNbParticles(long nbParticles) {
 		this.nbParticles = nbParticles;
 	}
 	
-	protected void setInitNbParticles(int initNbParticles) {
+	protected void setInitNbParticles(long initNbParticles) {
 		this.initNbParticles = initNbParticles;
 	}
 	
@@ -292,7 +314,7 @@ public class Swarming extends LatticeGasCA {
 	@Override
 	protected void buildGrid() {
 		super.buildGrid();
-		int nbParticles = this.calculateNbParticles();
+		long nbParticles = this.calculateNbParticles();
 		this.setNbParticles(nbParticles);
 		this.setInitNbParticles(nbParticles);
 	}
@@ -358,46 +380,88 @@ public class Swarming extends LatticeGasCA {
 	}
 	
 	@Override
-	protected void interaction(int y, int x) {
-		int nbParticles = this.getOldTab()[y][x].getNbParticles();
+	protected void prepareInteractions() {
+		super.prepareInteractions();
 		
-		if(nbParticles > 0 && nbParticles < 4) {
-			Particles[] configurations;
-			
-			if(nbParticles == 1) {
-				configurations = CONFIGURATIONS_1;
-			}
-			else if(nbParticles == 2) {
-				configurations = CONFIGURATIONS_2;
-			}
-			else {
-				configurations = CONFIGURATIONS_3;
-			}
-			
+		if(this.thresholds == null || this.thresholdsAlpha != this.getProbaInteraction() || this.thresholdsRange != this.getNbOfOneInPattern()) {
+			this.buildThresholds();
+		}
+	}
+	
+	/**
+	 * Precompute the interactions for the actual interaction probability (alpha) and pattern.<br />
+	 * The probability of a configuration is proportional to exp(alpha * (directorField . localFlux)). For each number of particles
+	 * and each director field, the cumulative probabilities of the configurations are stored as integer thresholds, so picking
+	 * a configuration only compares a draw with the thresholds. Each component of the director field is between -n and n,
+	 * n being the number of cells in the pattern, so the tables hold (2n + 1)^2 entries per number of particles.
+	 */
+	protected void buildThresholds() {
+		int range = this.getNbOfOneInPattern();
+		int side = 2 * range + 1;
+		double alpha = this.getProbaInteraction();
+		long[][] thresholds = new long[CONFIGURATIONS.length][];
+		
+		for(int nbParticles = 1; nbParticles < CONFIGURATIONS.length; nbParticles++) {
+			int[] configurations = CONFIGURATIONS[nbParticles];
 			double[] probabilities = new double[configurations.length];
+			long[] table = new long[side * side * configurations.length];
 			
-			Flux directorField = this.getOldDirectorField(y, x);
-			double alpha = this.getProbaInteraction();
-			double sumProba = 0;
-			
-			for(int i = 0; i < configurations.length; i++) {
-				Flux localFlux = configurations[i].getFlux();
-				sumProba += Math.exp(alpha * ((directorField.x * localFlux.x) + (directorField.y * localFlux.y)));
-				probabilities[i] = sumProba;
+			for(int fieldY = -range; fieldY <= range; fieldY++) {
+				for(int fieldX = -range; fieldX <= range; fieldX++) {
+					int offset = ((fieldY + range) * side + (fieldX + range)) * configurations.length;
+					double sumProba = 0;
+					
+					for(int i = 0; i < configurations.length; i++) {
+						int localFluxX = ParticleGrid.getFluxX(configurations[i]);
+						int localFluxY = ParticleGrid.getFluxY(configurations[i]);
+						sumProba += Math.exp(alpha * ((fieldX * localFluxX) + (fieldY * localFluxY)));
+						probabilities[i] = sumProba;
+					}
+					
+					for(int i = 0; i < configurations.length; i++) {
+						table[offset + i] = toThreshold(probabilities[i] / sumProba);
+					}
+				}
 			}
 			
-			for(int i = 0; i < configurations.length; i++) {
-				probabilities[i] /= sumProba;
-			}
+			thresholds[nbParticles] = table;
+		}
+		
+		this.thresholds = thresholds;
+		this.thresholdsAlpha = alpha;
+		this.thresholdsRange = range;
+	}
+	
+	/**
+	 * Convert a cumulative probability to a threshold: for a draw d of nextDouble(), (d > probability) is the same as
+	 * ((long) (d * DRAW_SCALE) > threshold). A probability which isn't a number is never exceeded.
+	 * @param probability - the cumulative probability.
+	 * @return the threshold.
+	 */
+	private static long toThreshold(double probability) {
+		return Double.isNaN(probability) ? Long.MAX_VALUE : (long) (probability * DRAW_SCALE);
+	}
+	
+	@Override
+	protected void interaction(int y, int x, Flux directorField, MersenneTwisterFast rand) {
+		int nbParticles = ParticleGrid.getNbParticles(this.getTab().getCell(y, x));
+		
+		if(nbParticles > 0 && nbParticles < 4) {
+			int[] configurations = CONFIGURATIONS[nbParticles];
+			long[] thresholds = this.thresholds[nbParticles];
+			int range = this.thresholdsRange;
+			
+			this.getDirectorField(y, x, directorField);
+			int offset = ((directorField.y + range) * (2 * range + 1) + (directorField.x + range)) * configurations.length;
 			
-			double rand = this.rand.nextDouble();
+			long draw = (long) (rand.nextDouble() * DRAW_SCALE);
 			int i = 0;
 			
-			while(i < (configurations.length - 1) && rand > probabilities[i]) {
+			while(i < (configurations.length - 1) && draw > thresholds[offset + i]) {
 				i++;
 			}
 			
-			this.getTab()[y][x] = configurations[i].clone();
+			this.getInteractionTab().setCell(y, x, configurations[i]);
 		}
 	}
 	
@@ -405,7 +469,7 @@ public class Swarming extends LatticeGasCA {
 	 * Check that the number of particles has not changed.
 	 */
 	protected void checkNbParticles() {
-		int nbParticles = this.calculateNbParticles();
+		long nbParticles = this.calculateNbParticles();
 		
 		if(this.isParticlesPreserving() && this.getNbParticles() != -1 && this.getNbParticles() != nbParticles) {
 			System.out.println("Warning : the number of particles has changed ! (" + this.getNbParticles() + " -> " + nbParticles + ")");
@@ -422,7 +486,7 @@ public class Swarming extends LatticeGasCA {
 	}
 	
 	@Override
-	protected void registerStatsForLaunch() {
+	protected double[] collectLaunchStats() {
 		double proba = (this.isVaryProbaInteraction() ? this.getProbaInteraction() : this.getProbaPropagation());
 		
 		double velocity = this.getMeanVelocitySum() / this.getMaxNbIteration();
@@ -430,6 +494,21 @@ public class Swarming extends LatticeGasCA {
 		double nbParticles = this.getNbParticlesSum() / this.getMaxNbIteration();
 		double nbParticlesVariation = this.getNbParticles() - this.getInitNbParticles();
 		
+		this.setMeanVelocitySum(0);
+		this.setMeanAlignmentSum(0);
+		this.setNbParticlesSum(0);
+		
+		return new double[] {proba, velocity, alignment, nbParticles, nbParticlesVariation};
+	}
+	
+	@Override
+	protected void addLaunchStats(double[] stats) {
+		double proba = stats[0];
+		double velocity = stats[1];
+		double alignment = stats[2];
+		double nbParticles = stats[3];
+		double nbParticlesVariation = stats[4];
+		
 		this.getVelocityData().add(proba, velocity);
 		this.getAlignmentData().add(proba, alignment);
 		this.getNbParticlesData().add(proba, nbParticles);
@@ -440,11 +519,7 @@ public class Swarming extends LatticeGasCA {
 		this.setAverageNbParticlesSum(this.getAverageNbParticlesSum() + nbParticles);
 		this.setAverageNbParticlesVariationSum(this.getAverageNbParticlesVariationSum() + nbParticlesVariation);
 		
-		this.setMeanVelocitySum(0);
-		this.setMeanAlignmentSum(0);
-		this.setNbParticlesSum(0);
-		
-		super.registerStatsForLaunch();
+		super.addLaunchStats(stats);
 	}
 	
 	@Override
@@ -469,4 +544,79 @@ public class Swarming extends LatticeGasCA {
 		super.registerStatsForVariation();
 	}
 	
+	/**
+	 * Return the series of the stats, in the order they are written in the checkpoints.
+	 * @return the series of the stats.
+	 */
+	protected XYSeries[] getAllSeries() {
+		return new XYSeries[] {this.getVelocityData(), this.getAlignmentData(), this.getNbParticlesData(), this.getNbParticlesVariationData(), this.getAverageVelocityData(), this.getAverageAlignmentData(), this.getAverageNbParticlesData(), this.getAverageNbParticlesVariationData()};
+	}
+	
+	/**
+	 * Write the state of the CA, then the stats collected since the beginning of the run: the sums of the actual launch and variation, and the series.
+	 */
+	@Override
+	protected void writeCheckpoint(CheckpointWriter out, boolean grid) throws IOException {
+		super.writeCheckpoint(out, grid);
+		
+		out.writeLong(this.getNbParticles());
+		out.writeLong(this.getInitNbParticles());
+		
+		out.writeDouble(this.getMeanVelocitySum());
+		out.writeDouble(this.getMeanAlignmentSum());
+		out.writeDouble(this.getNbParticlesSum());
+		
+		out.writeDouble(this.getAverageMeanVelocitySum());
+		out.writeDouble(this.getAverageMeanAlignmentSum());
+		out.writeDouble(this.getAverageNbParticlesSum());
+		out.writeDouble(this.getAverageNbParticlesVariationSum());
+		
+		for(XYSeries data : this.getAllSeries()) {
+			out.writeInt(data.getItemCount());
+			
+			for(int i = 0; i < data.getItemCount(); i++) {
+				out.writeDouble(data.getX(i).doubleValue());
+				out.writeDouble(data.getY(i).doubleValue());
+			}
+		}
+	}
+	
+	@Override
+	protected void readCheckpoint(CheckpointReader in) throws IOException {
+		super.readCheckpoint(in);
+		
+		this.setNbParticles(in.readLong());
+		this.setInitNbParticles(in.readLong());
+		
+		this.setMeanVelocitySum(in.readDouble());
+		this.setMeanAlignmentSum(in.readDouble());
+		this.setNbParticlesSum(in.readDouble());
+		
+		this.setAverageMeanVelocitySum(in.readDouble());
+		this.setAverageMeanAlignmentSum(in.readDouble());
+		this.setAverageNbParticlesSum(in.readDouble());
+		this.setAverageNbParticlesVariationSum(in.readDouble());
+		
+		for(XYSeries data : this.getAllSeries()) {
+			int nbItems = in.readInt();
+			
+			data.clear();
+			for(int i = 0; i < nbItems; i++) {
+				data.add(in.readDouble(), in.readDouble(), false);
+			}
+			data.fireSeriesChanged();
+		}
+	}
+	
+	@Override
+	protected void writeStats(PrintWriter writer) {
+		super.writeStats(writer);
+		
+		for(XYSeries data : this.getAllSeries()) {
+			for(int i = 0; i < data.getItemCount(); i++) {
+				writer.println(data.getKey() + "," + data.getX(i) + "," + data.getY(i));
+			}
+		}
+	}
+	
 }
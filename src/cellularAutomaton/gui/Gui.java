@@ -7,7 +7,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.util.LinkedList;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -20,11 +21,13 @@ import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 import javax.swing.WindowConstants;
 
+import cellularAutomaton.core.CellularAutomaton;
 import cellularAutomaton.core.Modele;
 import cellularAutomaton.core.binaryCA.GameOfLife;
 import cellularAutomaton.core.binaryCA.RuleOfMajority;
 import cellularAutomaton.core.binaryCA.RuleOfMinority;
 import cellularAutomaton.core.binaryCA.RuleOfParity;
+import cellularAutomaton.core.binaryCA.RuleTableCA;
 import cellularAutomaton.core.enums.ActiveCA;
 import cellularAutomaton.core.latticeGas.Swarming;
 import cellularAutomaton.gui.view.Layout;
@@ -34,6 +37,7 @@ import cellularAutomaton.gui.view.grid.ViewGameOfLife;
 import cellularAutomaton.gui.view.grid.ViewRuleOfMajority;
 import cellularAutomaton.gui.view.grid.ViewRuleOfMinority;
 import cellularAutomaton.gui.view.grid.ViewRuleOfParity;
+import cellularAutomaton.gui.view.grid.ViewRuleTable;
 import cellularAutomaton.gui.view.grid.ViewSwarming;
 
 /**
@@ -75,6 +79,8 @@ public class Gui extends JFrame implements Observer {
 	// Fields :
 	
 	private Modele modele = new Modele();
+	private final Map<ActiveCA, View> views = new EnumMap<ActiveCA, View>(ActiveCA.class);
+	private final Panel panelCAs = new Panel();
 	
 	// Constructors :
 	
@@ -83,24 +89,9 @@ public class Gui extends JFrame implements Observer {
 		this.getContentPane().setLayout(new GridBagLayout());
 		this.modele.addObserver(this);
 		
-		// Views :
+		// Views (created when their CA is selected for the first time) :
 		
-		Panel panelCAs = new Panel();
-		Layout.add(this, panelCAs, 0, 0, 1, 1, Layout.CENTER, Layout.BOTH, 2);
-		
-		LinkedList<View> viewList = new LinkedList<View>();
-		
-		viewList.add(new ViewGameOfLife(this, new GameOfLife()));
-		viewList.add(new ViewRuleOfMajority(this, new RuleOfMajority()));
-		viewList.add(new ViewRuleOfMinority(this, new RuleOfMinority()));
-		viewList.add(new ViewRuleOfParity(this, new RuleOfParity()));
-		viewList.add(new ViewSwarming(this, new Swarming()));
-		
-		int i = 0;
-		for(View view : viewList) {
-			Layout.add(panelCAs, view, 0, i, 1, 1, Layout.CENTER, Layout.BOTH, 2);
-			i++;
-		}
+		Layout.add(this, this.panelCAs, 0, 0, 1, 1, Layout.CENTER, Layout.BOTH, 2);
 		
 		// Menu bar :
 		
@@ -175,6 +166,38 @@ public class Gui extends JFrame implements Observer {
 	@Override
 	public void update(Observable obs, Object obj) {
 		this.setTitle(TITLE + " - " + this.getModele().getActiveCA().toString());
+		
+		ActiveCA activeCA = this.getModele().getActiveCA();
+		
+		if(!this.views.containsKey(activeCA)) {
+			View view = this.createView(activeCA);
+			this.views.put(activeCA, view);
+			Layout.add(this.panelCAs, view, 0, activeCA.ordinal(), 1, 1, Layout.CENTER, Layout.BOTH, 2);
+			view.update(obs, obj); // The view was built during the notification, so it missed it.
+			this.panelCAs.revalidate();
+		}
+	}
+	
+	protected View createView(ActiveCA activeCA) {
+		CellularAutomaton<?> ca = activeCA.newInstance();
+		ca.getMetrics().register();
+		
+		switch(activeCA) {
+			case GAME_OF_LIFE:
+				return new ViewGameOfLife(this, (GameOfLife) ca);
+			case RULE_OF_MAJORITY:
+				return new ViewRuleOfMajority(this, (RuleOfMajority) ca);
+			case RULE_OF_MINORITY:
+				return new ViewRuleOfMinority(this, (RuleOfMinority) ca);
+			case RULE_OF_PARITY:
+				return new ViewRuleOfParity(this, (RuleOfParity) ca);
+			case RULE_TABLE:
+				return new ViewRuleTable(this, (RuleTableCA) ca);
+			case SWARMING:
+				return new ViewSwarming(this, (Swarming) ca);
+			default:
+				throw new IllegalArgumentException("Unknown cellular automaton : " + activeCA + ".");
+		}
 	}
 	
 	public void exit() {
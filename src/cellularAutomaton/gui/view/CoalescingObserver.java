@@ -0,0 +1,143 @@
+package cellularAutomaton.gui.view;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class CoalescingObserver implements Observer {
+	
+	// Constants :
+	
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	
+	// Fields :
+	
+	private final Observer observer;
+	private final AtomicBoolean pending = new AtomicBoolean(false);
+	private final Timer timer;
+	
+	private volatile Observable observable;
+	private volatile Object argument;
+	private volatile long refreshPeriod;
+	private long lastRefresh;
+	
+	// Constructors :
+	
+	/**
+	 * Build an observer which forwards the notifications to another observer, in the event dispatch thread.<br />
+	 * The notifications received while a refresh is waiting are merged into this refresh, so the observer is called at most maxRate times per second.
+	 * @param observer - the observer to refresh.
+	 * @param maxRate - the maximum number of refreshes per second.
+	 */
+	public CoalescingObserver(Observer observer, int maxRate) {
+		this.observer = observer;
+		this.setMaxRate(maxRate);
+		this.lastRefresh = System.nanoTime() - this.refreshPeriod;
+		
+		this.timer = new Timer(0, new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				CoalescingObserver.this.refresh();
+			}
+			
+		});
+		this.timer.setRepeats(false);
+	}
+	
+	// Getters :
+	
+	public int getMaxRate() {
+		return (int) (NANOS_PER_SECOND / this.refreshPeriod);
+	}
+	
+	// Setters :
+	
+	public void setMaxRate(int maxRate) {
+		this.refreshPeriod = NANOS_PER_SECOND / maxRate;
+	}
+	
+	// Methods :
+	
+	/**
+	 * Register the notification and schedule a refresh, if none is already waiting.<br />
+	 * This method never waits for the event dispatch thread, so it can be called from the update thread of a CA.
+	 */
+	@Override
+	public void update(Observable obs, Object obj) {
+		this.observable = obs;
+		this.argument = obj;
+		
+		if(this.pending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(new Runnable() {
+				
+				@Override
+				public void run() {
+					CoalescingObserver.this.schedule();
+				}
+				
+			});
+		}
+	}
+	
+	/**
+	 * Refresh the observer now, or start the timer if the last refresh is too recent.
+	 */
+	private void schedule() {
+		long remaining = this.lastRefresh + this.refreshPeriod - System.nanoTime();
+		
+		if(remaining > 0) {
+			this.timer.setInitialDelay((int) ((remaining + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI));
+			this.timer.restart();
+		}
+		else {
+			this.refresh();
+		}
+	}
+	
+	/**
+	 * Forward the last notification to the observer.<br />
+	 * The pending flag is released first, so a notification received during the refresh schedules another one.
+	 */
+	private void refresh() {
+		this.lastRefresh = System.nanoTime();
+		this.pending.set(false);
+		this.observer.update(this.observable, this.argument);
+	}
+	
+}
@@ -1,6 +1,10 @@
 package cellularAutomaton.gui.view.grid;
 
+import static cellularAutomaton.core.binaryCA.BinaryCA.ACTIVE_TILES;
+import static cellularAutomaton.core.binaryCA.BinaryCA.BULK_SAMPLING;
+import static cellularAutomaton.core.binaryCA.BinaryCA.CYCLE_DETECTION;
 import static cellularAutomaton.core.binaryCA.BinaryCA.LOOP_ON_EDGES;
+import static cellularAutomaton.core.binaryCA.BinaryCA.MAX_UPDATE_PROBA;
 import static cellularAutomaton.core.binaryCA.BinaryCA.PROBA_UPDATE;
 
 import java.awt.Color;
@@ -18,6 +22,7 @@ import javax.swing.JLabel;
 import javax.swing.JTextField;
 
 import cellularAutomaton.core.binaryCA.BinaryCA;
+import cellularAutomaton.core.binaryCA.BitGrid;
 import cellularAutomaton.gui.Gui;
 import cellularAutomaton.gui.view.Layout;
 import cellularAutomaton.gui.view.Panel;
@@ -65,6 +70,9 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 	protected JTextField fieldProbaUpdate1;
 	protected JTextField fieldProbaUpdate2;
 	
+	protected JCheckBox checkBoxActiveTiles;
+	protected JCheckBox checkBoxBulkSampling;
+	protected JCheckBox checkBoxCycleDetection;
 	protected JCheckBox checkBoxLoop;
 	protected JCheckBox checkBoxProbaUpdate;
 	
@@ -78,17 +86,17 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 	
 	@Override
 	protected void updateGrid() {
+		BitGrid grid = this.ca.getTab();
+		
+		if(grid == null) {
+			return;
+		}
+		
 		Graphics2D graphics = this.image.createGraphics();
 		
-		for(int i = 0; i < this.ca.getHeight(); i++) {
-			for(int j = 0; j < this.ca.getWidth(); j++) {
-				Boolean cell = this.ca.getTab()[i][j];
-				
-				if(cell == null) {
-					continue;
-				}
-				
-				graphics.setColor(cell.booleanValue() ? Color.BLUE : Color.WHITE);
+		for(int i = 0; i < Math.min(this.height, grid.getHeight()); i++) {
+			for(int j = 0; j < Math.min(this.width, grid.getWidth()); j++) {
+				graphics.setColor(grid.get(i, j) ? Color.BLUE : Color.WHITE);
 				graphics.fill(new Rectangle(j * (this.getCellSize() + this.getBorderSize()) + this.getBorderSize(), i * (this.getCellSize() + this.getBorderSize()) + this.getBorderSize(), this.getCellSize(), this.getCellSize()));
 			}
 		}
@@ -113,6 +121,9 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		this.fieldProbaUpdate1.setMinimumSize(this.fieldProbaUpdate1.getPreferredSize());
 		this.fieldProbaUpdate2.setMinimumSize(this.fieldProbaUpdate2.getPreferredSize());
 		
+		this.checkBoxActiveTiles = new JCheckBox(ACTIVE_TILES, this.ca.isActiveTiles());
+		this.checkBoxBulkSampling = new JCheckBox(BULK_SAMPLING, this.ca.isBulkSampling());
+		this.checkBoxCycleDetection = new JCheckBox(CYCLE_DETECTION, this.ca.isCycleDetection());
 		this.checkBoxLoop = new JCheckBox(LOOP_ON_EDGES, this.ca.isLoop());
 		this.checkBoxProbaUpdate = new JCheckBox("", this.ca.isVaryProbaUpdate());
 		
@@ -126,6 +137,9 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		this.settingsComponents.add(this.fieldProbaUpdate);
 		this.settingsComponents.add(this.fieldProbaUpdate1);
 		this.settingsComponents.add(this.fieldProbaUpdate2);
+		this.settingsComponents.add(this.checkBoxActiveTiles);
+		this.settingsComponents.add(this.checkBoxBulkSampling);
+		this.settingsComponents.add(this.checkBoxCycleDetection);
 		this.settingsComponents.add(this.checkBoxLoop);
 		this.settingsComponents.add(this.checkBoxProbaUpdate);
 		
@@ -144,6 +158,12 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		Layout.add(panelUpdate, this.checkBoxProbaUpdate, 5, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
 		Layout.add(this.dynamicSettingsContainer, this.checkBoxLoop, 0, 1, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Panel panelModes = new Panel();
+		Layout.add(this.dynamicSettingsContainer, panelModes, 0, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelModes, this.checkBoxActiveTiles, 0, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelModes, this.checkBoxBulkSampling, 0, 1, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelModes, this.checkBoxCycleDetection, 0, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
 		// Action listeners :
 		
@@ -165,6 +185,33 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 			
 		});
 		
+		this.checkBoxActiveTiles.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewBinaryCA.this.sendActiveTiles();
+			}
+			
+		});
+		
+		this.checkBoxBulkSampling.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewBinaryCA.this.sendBulkSampling();
+			}
+			
+		});
+		
+		this.checkBoxCycleDetection.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewBinaryCA.this.sendCycleDetection();
+			}
+			
+		});
+		
 		this.checkBoxProbaUpdate.addActionListener(new ActionListener() {
 			
 			@Override
@@ -215,6 +262,9 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		this.fieldProbaUpdate.setToolTipText("Actual value : " + this.ca.getProbaUpdate());
 		this.fieldProbaUpdate1.setToolTipText("Actual value : " + this.ca.getProbaUpdate1());
 		this.fieldProbaUpdate2.setToolTipText("Actual value : " + this.ca.getProbaUpdate2());
+		this.checkBoxActiveTiles.setToolTipText("Only used when the update probability is " + MAX_UPDATE_PROBA);
+		this.checkBoxBulkSampling.setToolTipText("Only used when the update probability is lower than " + MAX_UPDATE_PROBA);
+		this.checkBoxCycleDetection.setToolTipText("Only used to compute stats, when the update probability is " + MAX_UPDATE_PROBA);
 	}
 	
 	@Override
@@ -281,6 +331,18 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		return this.checkBoxLoop.isSelected();
 	}
 	
+	protected boolean getFieldActiveTiles() {
+		return this.checkBoxActiveTiles.isSelected();
+	}
+	
+	protected boolean getFieldBulkSampling() {
+		return this.checkBoxBulkSampling.isSelected();
+	}
+	
+	protected boolean getFieldCycleDetection() {
+		return this.checkBoxCycleDetection.isSelected();
+	}
+	
 	protected boolean getFieldVaryUpdateProba() {
 		return this.checkBoxProbaUpdate.isSelected();
 	}
@@ -301,6 +363,21 @@ public abstract class ViewBinaryCA<T extends BinaryCA> extends ViewCA<T> {
 		this.ca.changeEdgeLoop(loop);
 	}
 	
+	protected void sendActiveTiles() {
+		boolean activeTiles = this.getFieldActiveTiles();
+		this.ca.changeActiveTiles(activeTiles);
+	}
+	
+	protected void sendBulkSampling() {
+		boolean bulkSampling = this.getFieldBulkSampling();
+		this.ca.changeBulkSampling(bulkSampling);
+	}
+	
+	protected void sendCycleDetection() {
+		boolean cycleDetection = this.getFieldCycleDetection();
+		this.ca.changeCycleDetection(cycleDetection);
+	}
+	
 	@Override
 	protected boolean sendDynamicSettings() {
 		try {
@@ -4,10 +4,14 @@ import static cellularAutomaton.core.CellularAutomaton.COMPUTE_STATISTICS;
 import static cellularAutomaton.core.CellularAutomaton.FIRST_ITERATION;
 import static cellularAutomaton.core.CellularAutomaton.GRID_HEIGHT;
 import static cellularAutomaton.core.CellularAutomaton.GRID_WIDTH;
+import static cellularAutomaton.core.CellularAutomaton.MAX_SPEED;
 import static cellularAutomaton.core.CellularAutomaton.NB_ITERATION;
 import static cellularAutomaton.core.CellularAutomaton.NB_LAUNCH;
+import static cellularAutomaton.core.CellularAutomaton.NB_THREADS;
 import static cellularAutomaton.core.CellularAutomaton.NB_VARIATION;
+import static cellularAutomaton.core.CellularAutomaton.PARALLEL_SWEEP;
 import static cellularAutomaton.core.CellularAutomaton.PROBA_INIT;
+import static cellularAutomaton.core.CellularAutomaton.SEED;
 import static cellularAutomaton.core.CellularAutomaton.UPDATE_PERIOD;
 
 import java.awt.Color;
@@ -34,6 +38,7 @@ import javax.swing.ScrollPaneConstants;
 
 import cellularAutomaton.core.CellularAutomaton;
 import cellularAutomaton.gui.Gui;
+import cellularAutomaton.gui.view.CoalescingObserver;
 import cellularAutomaton.gui.view.Layout;
 import cellularAutomaton.gui.view.Panel;
 import cellularAutomaton.gui.view.ProgressBar;
@@ -78,9 +83,13 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	public static final int MAX_CELL_SIZE = 20;
 	public static final int MIN_BORDER_SIZE = 0;
 	public static final int MAX_BORDER_SIZE = 3;
+	public static final int MIN_REFRESH_RATE = 1;
+	public static final int MAX_REFRESH_RATE = 1000;
+	public static final int MAX_DISPLAYED_SIZE = 500;
 	
 	public static final String CELL_SIZE = "Cell size";
 	public static final String BORDER_SIZE = "Border size";
+	public static final String REFRESH_RATE = "Refresh rate";
 	
 	public static final String SLASH = System.getProperty("file.separator");
 	public static final String SAVE_FOLDER = "." + SLASH + "data" + SLASH;
@@ -91,6 +100,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	
 	private int cellSize = 10;
 	private int borderSize = 1;
+	private final CoalescingObserver refresher = new CoalescingObserver(this, 60);
 	
 	protected int height = 0;
 	protected int width = 0;
@@ -98,6 +108,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	
 	protected final JLabel labelImage = new JLabel();
 	protected final JLabel labelNbIterations = new JLabel();
+	protected final JLabel labelGenerationsPerSecond = new JLabel();
 	protected final JLabel labelNbVariation = new JLabel(NB_VARIATION + " :");
 	
 	protected final Panel panelOptions = new Panel();
@@ -117,22 +128,29 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	protected final JButton buttonStop = new JButton("Stop");
 	protected final JButton buttonSaveCharts = new JButton("Save charts");
 	protected final JButton buttonUpdatePeriod = new JButton("Apply");
+	protected final JButton buttonNbThreads = new JButton("Apply");
 	protected final JButton buttonInitSettings = new JButton("Init grid");
 	protected final JButton buttonCellSize = new JButton("Apply");
 	protected final JButton buttonBorderSize = new JButton("Apply");
+	protected final JButton buttonRefreshRate = new JButton("Apply");
 	
 	protected final JTextField fieldUpdatePeriod = new JTextField(5);
+	protected final JTextField fieldNbThreads = new JTextField(5);
 	protected final JTextField fieldGridHeight = new JTextField(5);
 	protected final JTextField fieldGridWidth = new JTextField(5);
 	protected final JTextField fieldProbaInit = new JTextField(5);
+	protected final JTextField fieldSeed = new JTextField(5);
 	protected final JTextField fieldFirstIteration = new JTextField(5);
 	protected final JTextField fieldNbIteration = new JTextField(5);
 	protected final JTextField fieldNbLaunch = new JTextField(5);
 	protected final JTextField fieldNbVariation = new JTextField(5);
 	protected final JTextField fieldCellSize = new JTextField(5);
 	protected final JTextField fieldBorderSize = new JTextField(5);
+	protected final JTextField fieldRefreshRate = new JTextField(5);
 	
 	protected final JCheckBox checkBoxComputeStats = new JCheckBox(COMPUTE_STATISTICS);
+	protected final JCheckBox checkBoxParallelSweep = new JCheckBox(PARALLEL_SWEEP);
+	protected final JCheckBox checkBoxMaxSpeed = new JCheckBox(MAX_SPEED);
 	protected final JCheckBox checkBoxDisplayGrid = new JCheckBox("Display grid");
 	protected final JCheckBox checkBoxDisplayStats = new JCheckBox("Display statistics");
 	
@@ -151,7 +169,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	protected ViewCA(Gui gui, T ca) {
 		super(gui);
 		this.ca = ca;
-		this.ca.addObserver(this);
+		this.ca.addObserver(this.refresher);
 		
 		Layout.add(this, this.panelOptions, 0, 0, 1, 2, 0, 1, Layout.CENTER, Layout.BOTH, 0);
 		
@@ -202,6 +220,10 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		return this.borderSize;
 	}
 	
+	public int getRefreshRate() {
+		return this.refresher.getMaxRate();
+	}
+	
 	public boolean isInStaticMod() {
 		return this.inStaticMod;
 	}
@@ -224,6 +246,12 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		this.updateGrid();
 	}
 	
+	public void setRefreshRate(int refreshRate) {
+		checkRefreshRate(refreshRate);
+		
+		this.refresher.setMaxRate(refreshRate);
+	}
+	
 	public void setInStaticMod(boolean inStaticMod) {
 		this.inStaticMod = inStaticMod;
 		this.updateDynamicComponents();
@@ -241,6 +269,11 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		boolean enableChanges = !this.ca.isComputeStats() || notBegin || workDone;
 		
 		this.labelNbIterations.setText(String.valueOf(this.ca.getNbIteration()));
+		this.labelGenerationsPerSecond.setText(String.valueOf(Math.round(this.ca.getGenerationsPerSecond())));
+		
+		this.checkBoxMaxSpeed.setSelected(this.ca.isMaxSpeed());
+		this.fieldUpdatePeriod.setEnabled(!this.ca.isMaxSpeed());
+		this.buttonUpdatePeriod.setEnabled(!this.ca.isMaxSpeed());
 		
 		this.buttonRun.setText(running ? "Pause" : "Run");
 		this.buttonRun.setEnabled(!computeStats || !workDone);
@@ -259,7 +292,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 			component.setEnabled(enableChanges);
 		}
 		
-		if(this.ca.getHeight() != this.height || this.ca.getWidth() != this.width) {
+		if(Math.min(this.ca.getHeight(), MAX_DISPLAYED_SIZE) != this.height || Math.min(this.ca.getWidth(), MAX_DISPLAYED_SIZE) != this.width) {
 			this.buildGrid();
 		}
 		
@@ -270,9 +303,9 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		if(this.panelProgressBar.isVisible()) {
 			int firstIteration = this.ca.getFirstIteration();
 			int maxNbIteration = this.ca.getMaxNbIteration();
-			int nbIteration = this.ca.getNbIteration();
-			int transition = (nbIteration > firstIteration) ? firstIteration : nbIteration;
-			int statistics = (nbIteration > firstIteration) ? (nbIteration - firstIteration) : 0;
+			long nbIteration = this.ca.getNbIteration();
+			int transition = (int) ((nbIteration > firstIteration) ? firstIteration : nbIteration);
+			int statistics = (int) ((nbIteration > firstIteration) ? Math.min(nbIteration - firstIteration, maxNbIteration) : 0);
 			
 			this.transitionBar.setState(transition, firstIteration);
 			this.statsBar.setState(statistics, maxNbIteration);
@@ -289,8 +322,8 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 	protected abstract void updateGrid();
 	
 	protected void buildGrid() {
-		this.height = this.ca.getHeight();
-		this.width = this.ca.getWidth();
+		this.height = Math.min(this.ca.getHeight(), MAX_DISPLAYED_SIZE);
+		this.width = Math.min(this.ca.getWidth(), MAX_DISPLAYED_SIZE);
 		
 		int heightInPx = this.height * (this.getCellSize() + this.getBorderSize()) + this.getBorderSize();
 		int widthInPx = this.width * (this.getCellSize() + this.getBorderSize()) + this.getBorderSize();
@@ -319,28 +352,36 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		// Components initialization :
 		
 		this.fieldUpdatePeriod.setText(String.valueOf(this.ca.getUpdatePeriod()));
+		this.fieldNbThreads.setText(String.valueOf(this.ca.getNbThreads()));
 		this.fieldGridHeight.setText(String.valueOf(this.ca.getHeight()));
 		this.fieldGridWidth.setText(String.valueOf(this.ca.getWidth()));
 		this.fieldProbaInit.setText(String.valueOf(this.ca.getProbaInit()));
+		this.fieldSeed.setText(String.valueOf(this.ca.getSeed()));
 		this.fieldFirstIteration.setText(String.valueOf(this.ca.getFirstIteration()));
 		this.fieldNbIteration.setText(String.valueOf(this.ca.getMaxNbIteration()));
 		this.fieldNbLaunch.setText(String.valueOf(this.ca.getMaxNbLaunch()));
 		this.fieldNbVariation.setText(String.valueOf(this.ca.getMaxNbVariation()));
 		this.fieldCellSize.setText(String.valueOf(this.getCellSize()));
 		this.fieldBorderSize.setText(String.valueOf(this.getBorderSize()));
+		this.fieldRefreshRate.setText(String.valueOf(this.getRefreshRate()));
 		
 		this.fieldUpdatePeriod.setMinimumSize(this.fieldUpdatePeriod.getPreferredSize());
+		this.fieldNbThreads.setMinimumSize(this.fieldNbThreads.getPreferredSize());
 		this.fieldGridHeight.setMinimumSize(this.fieldGridHeight.getPreferredSize());
 		this.fieldGridWidth.setMinimumSize(this.fieldGridWidth.getPreferredSize());
 		this.fieldProbaInit.setMinimumSize(this.fieldProbaInit.getPreferredSize());
+		this.fieldSeed.setMinimumSize(this.fieldSeed.getPreferredSize());
 		this.fieldFirstIteration.setMinimumSize(this.fieldFirstIteration.getPreferredSize());
 		this.fieldNbIteration.setMinimumSize(this.fieldNbIteration.getPreferredSize());
 		this.fieldNbLaunch.setMinimumSize(this.fieldNbLaunch.getPreferredSize());
 		this.fieldNbVariation.setMinimumSize(this.fieldNbVariation.getPreferredSize());
 		this.fieldCellSize.setMinimumSize(this.fieldCellSize.getPreferredSize());
 		this.fieldBorderSize.setMinimumSize(this.fieldBorderSize.getPreferredSize());
+		this.fieldRefreshRate.setMinimumSize(this.fieldRefreshRate.getPreferredSize());
 		
 		this.checkBoxComputeStats.setSelected(this.ca.isComputeStats());
+		this.checkBoxParallelSweep.setSelected(this.ca.isParallelSweep());
+		this.checkBoxMaxSpeed.setSelected(this.ca.isMaxSpeed());
 		this.checkBoxDisplayGrid.setSelected(this.ca.isWaitBetweenIteration());
 		this.checkBoxDisplayStats.setSelected(!this.ca.isWaitBetweenIteration());
 		
@@ -352,11 +393,13 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		this.settingsComponents.add(this.fieldGridHeight);
 		this.settingsComponents.add(this.fieldGridWidth);
 		this.settingsComponents.add(this.fieldProbaInit);
+		this.settingsComponents.add(this.fieldSeed);
 		this.settingsComponents.add(this.fieldFirstIteration);
 		this.settingsComponents.add(this.fieldNbIteration);
 		this.settingsComponents.add(this.fieldNbLaunch);
 		this.settingsComponents.add(this.fieldNbVariation);
 		this.settingsComponents.add(this.checkBoxComputeStats);
+		this.settingsComponents.add(this.checkBoxParallelSweep);
 		
 		// Run settings :
 		
@@ -365,6 +408,8 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		
 		Layout.add(panelNbIterations, new JLabel("Iterations : "), 0, 0, 0, 0, Layout.CENTER, Layout.NONE, 2);
 		Layout.add(panelNbIterations, this.labelNbIterations, 1, 0, 0, 0, Layout.CENTER, Layout.NONE, 2);
+		Layout.add(panelNbIterations, new JLabel("Gens/s : "), 2, 0, 0, 0, Layout.CENTER, Layout.NONE, 2);
+		Layout.add(panelNbIterations, this.labelGenerationsPerSecond, 3, 0, 0, 0, Layout.CENTER, Layout.NONE, 2);
 		
 		Layout.add(this.panelRun, this.buttonRun, 0, 1, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(this.panelRun, this.buttonNext, 0, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
@@ -376,8 +421,16 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		Layout.add(panelUpdatePeriod, new JLabel(UPDATE_PERIOD + " (ms) : "), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(panelUpdatePeriod, this.fieldUpdatePeriod, 1, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(panelUpdatePeriod, this.buttonUpdatePeriod, 2, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelUpdatePeriod, this.checkBoxMaxSpeed, 0, 1, 3, 1, 1, 0, Layout.WEST, Layout.HORIZONTAL, 2);
+		
+		Panel panelNbThreads = new Panel();
+		Layout.add(this.panelRun, panelNbThreads, 0, 5, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelNbThreads, new JLabel(NB_THREADS + " : "), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelNbThreads, this.fieldNbThreads, 1, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelNbThreads, this.buttonNbThreads, 2, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
-		Layout.add(this.panelRun, this.buttonSaveCharts, 0, 5, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(this.panelRun, this.buttonSaveCharts, 0, 6, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
 		// Static settings :
 		
@@ -392,6 +445,8 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		Layout.add(panelInitGrid, this.fieldGridWidth, 1, 1, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(panelInitGrid, new JLabel(PROBA_INIT + " :"), 0, 2, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
 		Layout.add(panelInitGrid, this.fieldProbaInit, 1, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelInitGrid, new JLabel(SEED + " :"), 0, 3, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
+		Layout.add(panelInitGrid, this.fieldSeed, 1, 3, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
 		Layout.add(this.panelStaticSettings, this.panelDynamicInStatic, 0, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
 		
@@ -405,6 +460,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		Layout.add(this.panelIteration, this.fieldNbLaunch, 1, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(this.panelIteration, this.labelNbVariation, 0, 3, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
 		Layout.add(this.panelIteration, this.fieldNbVariation, 1, 3, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(this.panelIteration, this.checkBoxParallelSweep, 0, 4, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
 		
 		Layout.add(this.panelStaticSettings, this.buttonInitSettings, 0, 4, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
@@ -429,6 +485,9 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		Layout.add(panelCells, new JLabel(BORDER_SIZE + " :"), 0, 1, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
 		Layout.add(panelCells, this.fieldBorderSize, 1, 1, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		Layout.add(panelCells, this.buttonBorderSize, 2, 1, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelCells, new JLabel(REFRESH_RATE + " (Hz) :"), 0, 2, 0, 0, Layout.WEST, Layout.HORIZONTAL, 2);
+		Layout.add(panelCells, this.fieldRefreshRate, 1, 2, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelCells, this.buttonRefreshRate, 2, 2, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
 		
 		// Action listeners :
 		
@@ -477,6 +536,15 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 			
 		});
 		
+		this.buttonNbThreads.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				ViewCA.this.sendNbThreads();
+			}
+			
+		});
+		
 		this.buttonInitSettings.addActionListener(new ActionListener() {
 			
 			@Override
@@ -504,6 +572,15 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 			
 		});
 		
+		this.buttonRefreshRate.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				ViewCA.this.sendRefreshRate();
+			}
+			
+		});
+		
 		this.checkBoxComputeStats.addActionListener(new ActionListener() {
 			
 			@Override
@@ -513,6 +590,24 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 			
 		});
 		
+		this.checkBoxParallelSweep.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewCA.this.ca.changeParallelSweep(ViewCA.this.checkBoxParallelSweep.isSelected());
+			}
+			
+		});
+		
+		this.checkBoxMaxSpeed.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewCA.this.ca.changeMaxSpeed(ViewCA.this.checkBoxMaxSpeed.isSelected());
+			}
+			
+		});
+		
 		this.checkBoxDisplayGrid.addActionListener(new ActionListener() {
 			
 			@Override
@@ -549,7 +644,10 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 					if(e.getSource() == ViewCA.this.fieldUpdatePeriod) {
 						ViewCA.this.sendUpdatePeriod();
 					}
-					else if(e.getSource() == ViewCA.this.fieldGridHeight || e.getSource() == ViewCA.this.fieldGridWidth || e.getSource() == ViewCA.this.fieldProbaInit || e.getSource() == ViewCA.this.fieldFirstIteration || e.getSource() == ViewCA.this.fieldNbIteration || e.getSource() == ViewCA.this.fieldNbLaunch || e.getSource() == ViewCA.this.fieldNbVariation) {
+					else if(e.getSource() == ViewCA.this.fieldNbThreads) {
+						ViewCA.this.sendNbThreads();
+					}
+					else if(e.getSource() == ViewCA.this.fieldGridHeight || e.getSource() == ViewCA.this.fieldGridWidth || e.getSource() == ViewCA.this.fieldProbaInit || e.getSource() == ViewCA.this.fieldSeed || e.getSource() == ViewCA.this.fieldFirstIteration || e.getSource() == ViewCA.this.fieldNbIteration || e.getSource() == ViewCA.this.fieldNbLaunch || e.getSource() == ViewCA.this.fieldNbVariation) {
 						ViewCA.this.sendInitSettings();
 					}
 					else if(e.getSource() == ViewCA.this.fieldCellSize) {
@@ -558,36 +656,45 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 					else if(e.getSource() == ViewCA.this.fieldBorderSize) {
 						ViewCA.this.sendBorderSize();
 					}
+					else if(e.getSource() == ViewCA.this.fieldRefreshRate) {
+						ViewCA.this.sendRefreshRate();
+					}
 				}
 			}
 			
 		};
 		
 		this.fieldUpdatePeriod.addKeyListener(keyListener);
+		this.fieldNbThreads.addKeyListener(keyListener);
 		this.fieldGridHeight.addKeyListener(keyListener);
 		this.fieldGridWidth.addKeyListener(keyListener);
 		this.fieldProbaInit.addKeyListener(keyListener);
+		this.fieldSeed.addKeyListener(keyListener);
 		this.fieldFirstIteration.addKeyListener(keyListener);
 		this.fieldNbIteration.addKeyListener(keyListener);
 		this.fieldNbLaunch.addKeyListener(keyListener);
 		this.fieldNbVariation.addKeyListener(keyListener);
 		this.fieldCellSize.addKeyListener(keyListener);
 		this.fieldBorderSize.addKeyListener(keyListener);
+		this.fieldRefreshRate.addKeyListener(keyListener);
 		
 		this.updateFieldVariation();
 	}
 	
 	protected void updateToolTips() {
 		this.fieldUpdatePeriod.setToolTipText("Actual value : " + this.ca.getUpdatePeriod());
+		this.fieldNbThreads.setToolTipText("Actual value : " + this.ca.getNbThreads());
 		this.fieldGridHeight.setToolTipText("Actual value : " + this.ca.getHeight());
 		this.fieldGridWidth.setToolTipText("Actual value : " + this.ca.getWidth());
 		this.fieldProbaInit.setToolTipText("Actual value : " + this.ca.getProbaInit());
+		this.fieldSeed.setToolTipText("Actual value : " + this.ca.getSeed());
 		this.fieldFirstIteration.setToolTipText("Actual value : " + this.ca.getFirstIteration());
 		this.fieldNbIteration.setToolTipText("Actual value : " + this.ca.getMaxNbIteration());
 		this.fieldNbLaunch.setToolTipText("Actual value : " + this.ca.getMaxNbLaunch());
 		this.fieldNbVariation.setToolTipText("Actual value : " + this.ca.getMaxNbVariation());
 		this.fieldCellSize.setToolTipText("Actual value : " + this.getCellSize());
 		this.fieldBorderSize.setToolTipText("Actual value : " + this.getBorderSize());
+		this.fieldRefreshRate.setToolTipText("Actual value : " + this.getRefreshRate());
 	}
 	
 	protected void updateCharts() {
@@ -647,6 +754,12 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected static void checkRefreshRate(int refreshRate) {
+		if(refreshRate < MIN_REFRESH_RATE || refreshRate > MAX_REFRESH_RATE) {
+			throw new IllegalArgumentException(REFRESH_RATE + " must be between " + MIN_REFRESH_RATE + " and " + MAX_REFRESH_RATE + ".");
+		}
+	}
+	
 	protected int getFieldUpdatePeriod() {
 		try {
 			return Integer.parseInt(this.fieldUpdatePeriod.getText());
@@ -656,6 +769,15 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected int getFieldNbThreads() {
+		try {
+			return Integer.parseInt(this.fieldNbThreads.getText());
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(NB_THREADS + " must be an integer.");
+		}
+	}
+	
 	protected int getFieldGridHeight() {
 		try {
 			return Integer.parseInt(this.fieldGridHeight.getText());
@@ -683,6 +805,15 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected long getFieldSeed() {
+		try {
+			return Long.parseLong(this.fieldSeed.getText().trim());
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(SEED + " must be an integer.");
+		}
+	}
+	
 	protected int getFieldFirstIteration() {
 		try {
 			if(this.isInStaticMod()) {
@@ -762,6 +893,15 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected int getFieldRefreshRate() {
+		try {
+			return Integer.parseInt(this.fieldRefreshRate.getText());
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(REFRESH_RATE + " must be an integer.");
+		}
+	}
+	
 	protected void sendUpdatePeriod() {
 		try {
 			int updatePeriod = this.getFieldUpdatePeriod();
@@ -773,6 +913,17 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected void sendNbThreads() {
+		try {
+			int nbThreads = this.getFieldNbThreads();
+			this.ca.changeNbThreads(nbThreads);
+			this.updateToolTips();
+		}
+		catch(IllegalArgumentException argh) {
+			this.gui.warning(argh.getMessage(), "Invalid value");
+		}
+	}
+	
 	protected boolean sendDynamicSettings() {
 		this.updateToolTips();
 		this.updateCharts();
@@ -790,6 +941,7 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 				int maxNbIteration = this.getFieldNbIteration();
 				int maxNbLaunch = this.getFieldNbLaunch();
 				int maxNbVariation = this.getFieldNbVariation();
+				this.ca.changeSeed(this.getFieldSeed());
 				this.ca.changeInitSettings(height, width, probaInit, computeStats, firstIteration, maxNbIteration, maxNbLaunch, maxNbVariation);
 				this.updateToolTips();
 			}
@@ -821,6 +973,17 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 		}
 	}
 	
+	protected void sendRefreshRate() {
+		try {
+			int refreshRate = this.getFieldRefreshRate();
+			this.setRefreshRate(refreshRate);
+			this.updateToolTips();
+		}
+		catch(IllegalArgumentException argh) {
+			this.gui.warning(argh.getMessage(), "Invalid value");
+		}
+	}
+	
 	protected void runOrPause() {
 		if(this.ca.isRunning()) {
 			this.ca.pause();
@@ -878,6 +1041,10 @@ public abstract class ViewCA<T extends CellularAutomaton<?>> extends View {
 			list.add(PROBA_INIT);
 		}
 		
+		if(this.getFieldSeed() != this.ca.getSeed()) {
+			list.add(SEED);
+		}
+		
 		if(this.isInStaticMod()) {
 			if(this.getFieldFirstIteration() != this.ca.getFirstIteration()) {
 				list.add(FIRST_ITERATION);
@@ -1,8 +1,24 @@
 package cellularAutomaton.gui.view.grid;
 
+import static cellularAutomaton.core.binaryCA.GameOfLife.ENGINE;
+import static cellularAutomaton.core.binaryCA.GameOfLife.STEP_SIZE;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+
 import cellularAutomaton.core.binaryCA.GameOfLife;
 import cellularAutomaton.core.enums.ActiveCA;
+import cellularAutomaton.core.enums.LifeEngine;
 import cellularAutomaton.gui.Gui;
+import cellularAutomaton.gui.view.Layout;
+import cellularAutomaton.gui.view.Panel;
 
 /**
  * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
@@ -39,6 +55,14 @@ public class ViewGameOfLife extends ViewBinaryCA<GameOfLife> {
 	
 	private static final long serialVersionUID = 1L;
 	
+	// Fields :
+	
+	protected JButton buttonStepSize;
+	
+	protected JTextField fieldStepSize;
+	
+	protected JComboBox<LifeEngine> comboBoxEngine;
+	
 	// Constructors :
 	
 	public ViewGameOfLife(Gui gui, GameOfLife ca) {
@@ -52,4 +76,105 @@ public class ViewGameOfLife extends ViewBinaryCA<GameOfLife> {
 		return this.gui.getModele().getActiveCA() == ActiveCA.GAME_OF_LIFE;
 	}
 	
+	@Override
+	protected void initOptionPanel() {
+		super.initOptionPanel();
+		
+		// Components initialization :
+		
+		this.buttonStepSize = new JButton("Apply");
+		
+		this.fieldStepSize = new JTextField(String.valueOf(this.ca.getStepExponent()), 5);
+		this.fieldStepSize.setMinimumSize(this.fieldStepSize.getPreferredSize());
+		
+		this.comboBoxEngine = new JComboBox<LifeEngine>(LifeEngine.values());
+		this.comboBoxEngine.setSelectedItem(this.ca.getEngine());
+		
+		// Components registration :
+		
+		this.settingsComponents.add(this.comboBoxEngine);
+		
+		// Dynamic settings :
+		
+		Panel panelEngine = new Panel();
+		Layout.add(this.dynamicSettingsContainer, panelEngine, 0, 3, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelEngine, new JLabel(ENGINE + " :"), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelEngine, this.comboBoxEngine, 1, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		
+		Panel panelStepSize = new Panel();
+		Layout.add(this.dynamicSettingsContainer, panelStepSize, 0, 4, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelStepSize, new JLabel(STEP_SIZE + " :"), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelStepSize, this.fieldStepSize, 1, 0, 0.1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelStepSize, this.buttonStepSize, 2, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		
+		// Action listeners :
+		
+		this.comboBoxEngine.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewGameOfLife.this.ca.changeEngine((LifeEngine) ViewGameOfLife.this.comboBoxEngine.getSelectedItem());
+			}
+			
+		});
+		
+		this.buttonStepSize.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				ViewGameOfLife.this.sendStepSize();
+			}
+			
+		});
+		
+		this.fieldStepSize.addKeyListener(new KeyListener() {
+			
+			@Override
+			public void keyTyped(KeyEvent e) {
+				// Nothing here.
+			}
+			
+			@Override
+			public void keyReleased(KeyEvent e) {
+				// Nothing here.
+			}
+			
+			@Override
+			public void keyPressed(KeyEvent e) {
+				if(e.getKeyCode() == KeyEvent.VK_ENTER) {
+					ViewGameOfLife.this.sendStepSize();
+				}
+			}
+			
+		});
+	}
+	
+	@Override
+	protected void updateToolTips() {
+		super.updateToolTips();
+		this.fieldStepSize.setToolTipText("Actual value : " + this.ca.getStepExponent() + " (" + (1 << this.ca.getStepExponent()) + " generations per update)");
+	}
+	
+	protected int getFieldStepSize() {
+		try {
+			return Integer.parseInt(this.fieldStepSize.getText());
+		}
+		catch(NumberFormatException argh) {
+			throw new IllegalArgumentException(STEP_SIZE + " exponent must be an integer.");
+		}
+	}
+	
+	protected void sendStepSize() {
+		try {
+			int stepExponent = this.getFieldStepSize();
+			this.ca.changeStepExponent(stepExponent);
+			this.updateToolTips();
+		}
+		catch(IllegalArgumentException argh) {
+			this.gui.warning(argh.getMessage(), "Invalid value");
+		}
+	}
+	
 }
@@ -90,11 +90,7 @@ public abstract class ViewLatticeGasCA<T extends LatticeGasCA> extends ViewCA<T>
 		
 		for(int i = 0; i < this.ca.getHeight(); i++) {
 			for(int j = 0; j < this.ca.getWidth(); j++) {
-				Particles particles = this.ca.getTab()[i][j];
-				
-				if(particles == null) {
-					continue;
-				}
+				Particles particles = this.ca.getParticles(i, j);
 				
 				int colorIndex = 0;
 				if(particles.isTop()) {
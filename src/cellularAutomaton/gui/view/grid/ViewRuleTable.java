@@ -0,0 +1,173 @@
+package cellularAutomaton.gui.view.grid;
+
+import static cellularAutomaton.core.binaryCA.RuleTableCA.RULE;
+import static cellularAutomaton.core.binaryCA.RuleTableCA.RULE_PRESET;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+
+import cellularAutomaton.core.binaryCA.RuleTableCA;
+import cellularAutomaton.core.enums.ActiveCA;
+import cellularAutomaton.core.enums.RulePreset;
+import cellularAutomaton.gui.Gui;
+import cellularAutomaton.gui.view.Layout;
+import cellularAutomaton.gui.view.Panel;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class ViewRuleTable extends ViewBinaryCA<RuleTableCA> {
+	
+	// Constants :
+	
+	private static final long serialVersionUID = 1L;
+	
+	// Fields :
+	
+	protected JButton buttonRule;
+	
+	protected JTextField fieldRule;
+	
+	protected JComboBox<RulePreset> comboBoxPreset;
+	
+	// Constructors :
+	
+	public ViewRuleTable(Gui gui, RuleTableCA ca) {
+		super(gui, ca);
+	}
+	
+	// Methods :
+	
+	@Override
+	protected boolean isDisplayed() {
+		return this.gui.getModele().getActiveCA() == ActiveCA.RULE_TABLE;
+	}
+	
+	@Override
+	protected void initOptionPanel() {
+		super.initOptionPanel();
+		
+		// Components initialization :
+		
+		this.buttonRule = new JButton("Apply");
+		
+		this.fieldRule = new JTextField(this.ca.getRule(), 10);
+		this.fieldRule.setMinimumSize(this.fieldRule.getPreferredSize());
+		
+		this.comboBoxPreset = new JComboBox<RulePreset>(RulePreset.values());
+		this.comboBoxPreset.setSelectedItem(RulePreset.GAME_OF_LIFE);
+		
+		// Components registration :
+		
+		this.settingsComponents.add(this.comboBoxPreset);
+		
+		// Dynamic settings :
+		
+		Panel panelRule = new Panel();
+		Layout.add(this.dynamicSettingsContainer, panelRule, 0, 3, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelRule, new JLabel(RULE + " :"), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelRule, this.fieldRule, 1, 0, 0.1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelRule, this.buttonRule, 2, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		
+		Panel panelPreset = new Panel();
+		Layout.add(this.dynamicSettingsContainer, panelPreset, 0, 4, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 0);
+		
+		Layout.add(panelPreset, new JLabel(RULE_PRESET + " :"), 0, 0, 0, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		Layout.add(panelPreset, this.comboBoxPreset, 1, 0, 1, 0, Layout.CENTER, Layout.HORIZONTAL, 2);
+		
+		// Action listeners :
+		
+		this.comboBoxPreset.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				ViewRuleTable.this.ca.changeRulePreset((RulePreset) ViewRuleTable.this.comboBoxPreset.getSelectedItem());
+				ViewRuleTable.this.fieldRule.setText(ViewRuleTable.this.ca.getRule());
+				ViewRuleTable.this.updateToolTips();
+			}
+			
+		});
+		
+		this.buttonRule.addActionListener(new ActionListener() {
+			
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				ViewRuleTable.this.sendRule();
+			}
+			
+		});
+		
+		this.fieldRule.addKeyListener(new KeyListener() {
+			
+			@Override
+			public void keyTyped(KeyEvent e) {
+				// Nothing here.
+			}
+			
+			@Override
+			public void keyReleased(KeyEvent e) {
+				// Nothing here.
+			}
+			
+			@Override
+			public void keyPressed(KeyEvent e) {
+				if(e.getKeyCode() == KeyEvent.VK_ENTER) {
+					ViewRuleTable.this.sendRule();
+				}
+			}
+			
+		});
+	}
+	
+	@Override
+	protected void updateToolTips() {
+		super.updateToolTips();
+		this.fieldRule.setToolTipText("Actual value : " + this.ca.getRule());
+	}
+	
+	protected void sendRule() {
+		try {
+			this.ca.changeRule(this.fieldRule.getText());
+			this.fieldRule.setText(this.ca.getRule());
+			this.updateToolTips();
+		}
+		catch(IllegalArgumentException argh) {
+			this.gui.warning(argh.getMessage(), "Invalid value");
+		}
+	}
+	
+}
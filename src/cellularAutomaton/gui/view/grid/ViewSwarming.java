@@ -156,6 +156,7 @@ public class ViewSwarming extends ViewLatticeGasCA<Swarming> {
 		File fileAlignmentChart = new File(SAVE_FOLDER + "Alignment" + fileNameEnd);
 		File fileNbParticlesChart = new File(SAVE_FOLDER + "NbParticles" + fileNameEnd);
 		File fileNbParticlesVariationChart = new File(SAVE_FOLDER + "NbParticlesVariation" + fileNameEnd);
+		File fileMetadata = new File(SAVE_FOLDER + "Metadata" + fileNameEnd.replace(".png", ".txt"));
 		
 		if(fileVelocityChart.exists() || fileAlignmentChart.exists() || fileNbParticlesChart.exists() || fileNbParticlesVariationChart.exists()) {
 			int answer = this.gui.options("The files for this simulation already exist. Do you want to overwrite them ?", "Confirm overwrite", 0, "Overwrite", "Cancel");
@@ -172,6 +173,7 @@ public class ViewSwarming extends ViewLatticeGasCA<Swarming> {
 			ChartUtilities.saveChartAsPNG(fileAlignmentChart, this.alignmentChart, width, height);
 			ChartUtilities.saveChartAsPNG(fileNbParticlesChart, this.nbParticlesChart, width, height);
 			ChartUtilities.saveChartAsPNG(fileNbParticlesVariationChart, this.nbParticlesVariationChart, width, height);
+			this.ca.saveMetadata(fileMetadata.getPath());
 			this.gui.info("Save completed.", "Info");
 		}
 		catch(IOException argh) {
@@ -46,6 +46,10 @@ import java.util.Random;
  *
  * <h3>About this Version</h3>
  *
+ * <p><b>Local changes since V20:</b> Added nextInts(int[]), nextLongs(long[]) and
+ * nextDoubles(double[]), which fill a buffer with the values of consecutive calls
+ * to nextInt(), nextLong() and nextDouble(), and nextBooleanMask(probability),
+ * which draws 64 coin flips packed in a long.
  * <p><b>Changes since V19:</b> nextFloat(boolean, boolean) now returns float,
  * not double.
  *
@@ -889,6 +893,149 @@ public strictfp class MersenneTwisterFast implements Serializable, Cloneable {
 		return d;
 	}
 	
+	/**
+	 * Fills the buffer with the same ints as consecutive calls to nextInt(),
+	 * reading the state vector in one tight loop.
+	 */
+	public void nextInts(int[] ints) {
+		int y;
+		
+		for(int x = 0; x < ints.length; x++) {
+			if(this.mti >= N) // generate N words at one time
+				generate();
+			
+			y = this.mt[this.mti++];
+			y ^= y >>> 11; // TEMPERING_SHIFT_U(y)
+			y ^= (y << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(y)
+			y ^= (y << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(y)
+			y ^= (y >>> 18); // TEMPERING_SHIFT_L(y)
+			
+			ints[x] = y;
+		}
+	}
+	
+	/**
+	 * Fills the buffer with the same longs as consecutive calls to nextLong(),
+	 * reading the state vector in one tight loop.
+	 */
+	public void nextLongs(long[] longs) {
+		int y;
+		int z;
+		
+		for(int x = 0; x < longs.length; x++) {
+			if(this.mti >= N) // generate N words at one time
+				generate();
+			
+			y = this.mt[this.mti++];
+			y ^= y >>> 11; // TEMPERING_SHIFT_U(y)
+			y ^= (y << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(y)
+			y ^= (y << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(y)
+			y ^= (y >>> 18); // TEMPERING_SHIFT_L(y)
+			
+			if(this.mti >= N) // generate N words at one time
+				generate();
+			
+			z = this.mt[this.mti++];
+			z ^= z >>> 11; // TEMPERING_SHIFT_U(z)
+			z ^= (z << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(z)
+			z ^= (z << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(z)
+			z ^= (z >>> 18); // TEMPERING_SHIFT_L(z)
+			
+			longs[x] = (((long) y) << 32) + z;
+		}
+	}
+	
+	/**
+	 * Fills the buffer with the same doubles as consecutive calls to nextDouble(),
+	 * in the half-open range from [0.0,1.0), reading the state vector in one tight loop.
+	 */
+	public void nextDoubles(double[] doubles) {
+		int y;
+		int z;
+		
+		for(int x = 0; x < doubles.length; x++) {
+			if(this.mti >= N) // generate N words at one time
+				generate();
+			
+			y = this.mt[this.mti++];
+			y ^= y >>> 11; // TEMPERING_SHIFT_U(y)
+			y ^= (y << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(y)
+			y ^= (y << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(y)
+			y ^= (y >>> 18); // TEMPERING_SHIFT_L(y)
+			
+			if(this.mti >= N) // generate N words at one time
+				generate();
+			
+			z = this.mt[this.mti++];
+			z ^= z >>> 11; // TEMPERING_SHIFT_U(z)
+			z ^= (z << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(z)
+			z ^= (z << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(z)
+			z ^= (z >>> 18); // TEMPERING_SHIFT_L(z)
+			
+			/* derived from nextDouble documentation in jdk 1.2 docs, see top */
+			doubles[x] = ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+		}
+	}
+	
+	/**
+	 * Returns 64 coin flips packed in a long: each bit is set with the probability
+	 * <tt>probability</tt>, exactly like a call to nextBoolean(probability), and
+	 * independently of the other bits.  <tt>probability</tt> must be between 0.0
+	 * and 1.0, inclusive.
+	 * <p>Each bit compares a uniform 53 bits number, like the one of nextDouble(),
+	 * with the probability.  The 64 numbers are drawn one bit at a time, the most
+	 * significant first, and only until each of them is known to be lower or
+	 * greater than the probability: about 7 longs are drawn for 64 flips.
+	 * <p>To get the flips of nextDouble() <= probability, pass Math.nextUp(probability).
+	 */
+	public long nextBooleanMask(double probability) {
+		if(probability < 0.0 || probability > 1.0)
+			throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
+		
+		long threshold = (long) Math.ceil(Math.scalb(probability, 53));
+		if(threshold >= (1L << 53))
+			return -1L;
+		
+		long undecided = -1L;
+		long result = 0L;
+		
+		for(int b = 52; b >= 0 && undecided != 0; b--) {
+			long bits = nextLong();
+			
+			if(((threshold >>> b) & 1) != 0) {
+				result |= undecided & ~bits; // numbers whose bit is 0 are lower
+				undecided &= bits;
+			}
+			else
+				undecided &= ~bits; // numbers whose bit is 1 are greater
+		}
+		
+		return result; // the numbers still undecided are equal, so not lower
+	}
+	
+	/**
+	 * Generates the next N words of the state vector, for the bulk methods.
+	 */
+	private void generate() {
+		int y;
+		int kk;
+		final int[] mt = this.mt; // locals are slightly faster 
+		final int[] mag01 = this.mag01; // locals are slightly faster 
+		
+		for(kk = 0; kk < N - M; kk++) {
+			y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+			mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+		}
+		for(; kk < N - 1; kk++) {
+			y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+			mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+		}
+		y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+		mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
+		
+		this.mti = 0;
+	}
+	
 	public double nextGaussian() {
 		if(this.__haveNextNextGaussian) {
 			this.__haveNextNextGaussian = false;
@@ -0,0 +1,114 @@
+package cellularAutomaton.core.binaryCA;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import cellularAutomaton.core.enums.LifeEngine;
+
+/**
+ * Copyright (c) 2013, William Philbert (alias Seigneur Necron), Kevin Grandemange<br />
+ * All rights reserved.<br />
+ * <br />
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:<br />
+ * <br />
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.<br />
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.<br />
+ * - The name/pseudo of the authors may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.<br />
+ * - You must give the authors credit for their work. Don't claim their work
+ *   (edited or not) as completely your own work, or allow others to carry on
+ *   believing the work is yours without correcting them.<br />
+ * - Don't tell people they're free to use your work if it contains the work of
+ *   others. (You don't have the right to grant permission to others unless it's
+ *   all your own work.)<br />
+ * - Don't make money on the work of the authors.<br />
+ * <br />
+ * This software is provided "as is" and any express or implied warranties are
+ * disclaimed. In no event shall the authors be liable for any direct or indirect
+ * damages caused from the use of this software.<br />
+ * All damages caused from the use or misuse of this software fall on the user.
+ * 
+ * @author William Philbert, Kevin Grandemange.
+ */
+public class HashLifeUniverseTest {
+	
+	// Constants :
+	
+	private static final int[][] SIZES = {{1, 1}, {3, 5}, {17, 9}, {64, 64}, {65, 130}, {100, 37}};
+	private static final int MAX_STEP_EXPONENT = 6;
+	private static final double PROBA_INIT = 0.4;
+	private static final long SEED = 42;
+	
+	// Methods :
+	
+	/**
+	 * On a torus, one hashlife step of 2^k generations must give the same grid than 2^k steps of the dense engine.<br />
+	 * The sizes cover a single cell, grids smaller than a word, grids which are not multiples of a word or of a node,
+	 * and grids taller than wide.
+	 */
+	@Test
+	public void testTorusMatchesDenseEngine() {
+		for(int[] size : SIZES) {
+			for(int k = 0; k <= MAX_STEP_EXPONENT; k++) {
+				GameOfLife dense = newGameOfLife(size[0], size[1], LifeEngine.DENSE, 0);
+				GameOfLife hashLife = newGameOfLife(size[0], size[1], LifeEngine.HASHLIFE, k);
+				
+				try {
+					String grid = size[0] + "x" + size[1] + ", k = " + k;
+					assertSameCells(grid + ", initial grid", dense, hashLife);
+					
+					for(int i = 0; i < (1 << k); i++) {
+						dense.doCellsTransitions();
+					}
+					hashLife.doCellsTransitions();
+					
+					assertSameCells(grid, dense, hashLife);
+				}
+				finally {
+					dense.dispose();
+					hashLife.dispose();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Create a game of life whose edges loop, with a grid drawn from the same seed whatever the engine.
+	 * @param height - the height of the grid.
+	 * @param width - the width of the grid.
+	 * @param engine - the engine.
+	 * @param stepExponent - the exponent of the number of generations of a hashlife step.
+	 * @return the game of life.
+	 */
+	private static GameOfLife newGameOfLife(int height, int width, LifeEngine engine, int stepExponent) {
+		GameOfLife ca = new GameOfLife();
+		ca.changeWaitBetweenIteration(false);
+		ca.changeEngine(engine);
+		ca.changeStepExponent(stepExponent);
+		ca.changeEdgeLoop(true);
+		ca.changeProbaUpdate(BinaryCA.MAX_UPDATE_PROBA);
+		ca.changeSeed(SEED);
+		ca.changeInitSettings(height, width, PROBA_INIT, false, ca.getFirstIteration(), ca.getMaxNbIteration(), ca.getMaxNbLaunch(), ca.getMaxNbVariation());
+		return ca;
+	}
+	
+	/**
+	 * Check that two CA have the same cells.
+	 * @param message - the description of the compared grids.
+	 * @param expected - the CA giving the expected cells.
+	 * @param actual - the compared CA.
+	 */
+	private static void assertSameCells(String message, GameOfLife expected, GameOfLife actual) {
+		for(int y = 0; y < expected.getHeight(); y++) {
+			for(int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(message + ", cell (" + y + ", " + x + ")", expected.getCell(y, x), actual.getCell(y, x));
+			}
+		}
+	}
+	
+}